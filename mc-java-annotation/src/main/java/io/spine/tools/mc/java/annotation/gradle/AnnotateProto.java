@@ -0,0 +1,208 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+
+package io.spine.tools.mc.java.annotation.gradle;
+
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.gradle.api.Action;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.Task;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileType;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.work.ChangeType;
+import org.gradle.work.Incremental;
+import org.gradle.work.InputChanges;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static io.spine.util.Exceptions.illegalStateWithCauseOf;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.gradle.api.tasks.PathSensitivity.NONE;
+import static org.gradle.api.tasks.PathSensitivity.RELATIVE;
+
+/**
+ * A task that annotates the Java sources generated from {@code .proto} files of a source set.
+ *
+ * <p>The task does not modify the sources generated by the Protobuf compiler. Instead, it copies
+ * them into the {@linkplain #getAnnotatedJavaDir() annotated directories} and annotates
+ * the copies. The {@code compileJava} task compiles the copies instead of the generated sources.
+ *
+ * <p>Only the generated sources which changed since the previous run are copied anew. The rest
+ * of the copies are left intact, so that the {@linkplain AnnotationAction annotation} may skip
+ * them, and their timestamps do not change.
+ *
+ * <p>Since the task has outputs of its own, Gradle may load them from the build cache.
+ *
+ * @see AnnotationAction
+ */
+@CacheableTask
+@SuppressWarnings("AbstractClassNeverImplemented") // Gradle creates a subtype for this class.
+public abstract class AnnotateProto extends DefaultTask {
+
+    private @MonotonicNonNull Action<Task> action;
+
+    /**
+     * The descriptor set file of the source set and the merged descriptor set file with
+     * the types known to the source set.
+     */
+    @InputFiles
+    @PathSensitive(NONE)
+    public abstract ConfigurableFileCollection getDescriptorSets();
+
+    /**
+     * The annotation settings of the project.
+     */
+    @Input
+    public abstract Property<String> getSettings();
+
+    /**
+     * The directory with the Java sources generated by the Protobuf compiler.
+     */
+    @Incremental
+    @InputFiles
+    @PathSensitive(RELATIVE)
+    public abstract ConfigurableFileCollection getGeneratedJava();
+
+    /**
+     * The directory with the gRPC sources generated by the Protobuf compiler.
+     */
+    @Incremental
+    @InputFiles
+    @PathSensitive(RELATIVE)
+    public abstract ConfigurableFileCollection getGeneratedGrpc();
+
+    /**
+     * The directory with the annotated copies of the {@linkplain #getGeneratedJava() Java sources}.
+     */
+    @OutputDirectory
+    public abstract DirectoryProperty getAnnotatedJavaDir();
+
+    /**
+     * The directory with the annotated copies of the {@linkplain #getGeneratedGrpc() gRPC sources}.
+     */
+    @OutputDirectory
+    public abstract DirectoryProperty getAnnotatedGrpcDir();
+
+    /**
+     * The file which lists the hashes of the annotated copies.
+     *
+     * <p>The file is restored from the build cache together with the copies, so that
+     * it always describes them.
+     */
+    @OutputFile
+    public abstract RegularFileProperty getManifestFile();
+
+    /**
+     * Sets the action which annotates the sources.
+     */
+    void setAction(Action<Task> action) {
+        this.action = checkNotNull(action);
+    }
+
+    @TaskAction
+    private void annotate(InputChanges changes) {
+        checkState(action != null, "The action of the task `%s` is not set.", getName());
+        copy(changes, getGeneratedJava(), getAnnotatedJavaDir());
+        copy(changes, getGeneratedGrpc(), getAnnotatedGrpcDir());
+        action.execute(this);
+    }
+
+    /**
+     * Copies the changed generated sources into the given directory.
+     *
+     * <p>If the task is not run incrementally, the directory is cleared, and all the sources
+     * are copied.
+     */
+    private static void copy(InputChanges changes,
+                             ConfigurableFileCollection sources,
+                             DirectoryProperty targetDir) {
+        var target = targetDir.get()
+                              .getAsFile()
+                              .toPath();
+        if (!changes.isIncremental()) {
+            clear(target);
+        }
+        for (var change : changes.getFileChanges(sources)) {
+            if (change.getFileType() == FileType.DIRECTORY) {
+                continue;
+            }
+            var copy = target.resolve(change.getNormalizedPath());
+            if (change.getChangeType() == ChangeType.REMOVED) {
+                delete(copy);
+            } else {
+                copy(change.getFile(), copy);
+            }
+        }
+    }
+
+    private static void copy(File source, Path target) {
+        try {
+            Files.createDirectories(target.getParent());
+            Files.copy(source.toPath(), target, REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw illegalStateWithCauseOf(e);
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw illegalStateWithCauseOf(e);
+        }
+    }
+
+    private static void clear(Path dir) {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder())
+                 .filter(path -> !path.equals(dir))
+                 .forEach(AnnotateProto::delete);
+        } catch (IOException e) {
+            throw illegalStateWithCauseOf(e);
+        }
+    }
+}
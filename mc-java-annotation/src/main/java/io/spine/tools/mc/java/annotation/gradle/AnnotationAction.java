@@ -31,6 +31,7 @@ import io.spine.tools.code.SourceSetName;
 import io.spine.tools.mc.java.annotation.mark.AnnotatorFactory;
 import io.spine.tools.mc.java.annotation.mark.DefaultAnnotatorFactory;
 import io.spine.tools.mc.java.annotation.mark.ModuleAnnotator;
+import io.spine.tools.type.MoreKnownTypes;
 import org.gradle.api.Action;
 import org.gradle.api.Project;
 import org.gradle.api.Task;
@@ -47,15 +48,18 @@ import static io.spine.tools.mc.java.annotation.mark.ApiOption.experimental;
 import static io.spine.tools.mc.java.annotation.mark.ApiOption.internal;
 import static io.spine.tools.mc.java.annotation.mark.ApiOption.spi;
 import static io.spine.tools.mc.java.annotation.mark.ModuleAnnotator.translate;
+import static io.spine.tools.mc.java.gradle.McJavaOptions.getAnnotationParallelism;
 import static io.spine.tools.mc.java.gradle.McJavaOptions.getCodeGenAnnotations;
 import static io.spine.tools.mc.java.gradle.McJavaOptions.getInternalClassPatterns;
 import static io.spine.tools.mc.java.gradle.McJavaOptions.getInternalMethodNames;
-import static io.spine.tools.mc.java.gradle.Projects.generatedGrpcDir;
-import static io.spine.tools.mc.java.gradle.Projects.generatedJavaDir;
+import static io.spine.tools.mc.java.gradle.Projects.annotatedGrpcDir;
+import static io.spine.tools.mc.java.gradle.Projects.annotatedJavaDir;
+import static io.spine.tools.mc.java.gradle.Projects.annotationManifestFile;
+import static io.spine.tools.mc.java.gradle.Projects.mergedDescriptorSetFile;
 import static io.spine.tools.proto.fs.Directory.rootName;
 
 /**
- * A task action which annotates the generated code.
+ * A task action which annotates the copies of the generated code made by {@link AnnotateProto}.
  */
 final class AnnotationAction implements Action<Task>, Logging {
 
@@ -79,10 +83,21 @@ final class AnnotationAction implements Action<Task>, Logging {
             logMissing(project.getLogger(), descriptorSetFile);
             return;
         }
+        loadKnownTypes(project);
         var annotator = createAnnotator(project);
         annotator.annotate();
     }
 
+    /**
+     * Extends the known types with the types from the runtime classpath of the source set.
+     */
+    private void loadKnownTypes(Project project) {
+        var knownTypes = mergedDescriptorSetFile(project, sourceSetName).toFile();
+        if (knownTypes.exists()) {
+            MoreKnownTypes.extendWith(knownTypes);
+        }
+    }
+
     /** Verifies of the source set of the given project contains Protobuf source code. */
     private boolean containsProtoCode(Project project) {
         var protoSet = protoDirectorySet(project, sourceSetName);
@@ -110,16 +125,36 @@ final class AnnotationAction implements Action<Task>, Logging {
                 .setInternalPatterns(internalClassPatterns)
                 .setInternalMethodNames(internalMethodNames)
                 .setInternalAnnotation(internalClassName)
+                .setParallelism(getAnnotationParallelism(project))
+                .setManifest(annotationManifestFile(project, sourceSetName), settings(project))
                 .build();
     }
 
+    /**
+     * Obtains the string which reflects the annotation settings of the given project.
+     *
+     * <p>The sources annotated with other settings are annotated anew.
+     */
+    static String settings(Project project) {
+        var annotations = getCodeGenAnnotations(project);
+        return String.join(
+                ";",
+                annotations.spiClassName().value(),
+                annotations.betaClassName().value(),
+                annotations.experimentalClassName().value(),
+                annotations.internalClassName().value(),
+                getInternalClassPatterns(project).toString(),
+                getInternalMethodNames(project).toString()
+        );
+    }
+
     private AnnotatorFactory createAnnotationFactory(Project project) {
         var ssn = sourceSetName;
         var descriptorSetFile = descriptorSetFile(project, ssn);
-        var generatedJavaPath = generatedJavaDir(project, ssn);
-        var generatedGrpcPath = generatedGrpcDir(project, ssn);
+        var javaPath = annotatedJavaDir(project, ssn);
+        var grpcPath = annotatedGrpcDir(project, ssn);
         var annotatorFactory = DefaultAnnotatorFactory.newInstance(
-                descriptorSetFile, generatedJavaPath, generatedGrpcPath
+                descriptorSetFile, javaPath, grpcPath
         );
         return annotatorFactory;
     }
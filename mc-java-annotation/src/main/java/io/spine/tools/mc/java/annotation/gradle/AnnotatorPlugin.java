@@ -26,17 +26,30 @@
 
 package io.spine.tools.mc.java.annotation.gradle;
 
+import com.google.common.collect.ImmutableMap;
 import io.spine.tools.code.SourceSetName;
-import io.spine.tools.gradle.task.GradleTask;
-import org.gradle.api.Action;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
-import org.gradle.api.Task;
+import org.gradle.api.tasks.compile.JavaCompile;
 
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static io.spine.tools.gradle.project.Projects.descriptorSetFile;
 import static io.spine.tools.gradle.project.Projects.getSourceSetNames;
+import static io.spine.tools.gradle.project.Projects.getSourceSets;
 import static io.spine.tools.gradle.task.JavaTaskName.compileJava;
 import static io.spine.tools.mc.java.gradle.McJavaTaskName.annotateProto;
 import static io.spine.tools.mc.java.gradle.McJavaTaskName.mergeDescriptorSet;
+import static io.spine.tools.mc.java.gradle.Projects.annotatedGrpcDir;
+import static io.spine.tools.mc.java.gradle.Projects.annotatedJavaDir;
+import static io.spine.tools.mc.java.gradle.Projects.annotationManifestFile;
+import static io.spine.tools.mc.java.gradle.Projects.generatedGrpcDir;
+import static io.spine.tools.mc.java.gradle.Projects.generatedJavaDir;
+import static io.spine.tools.mc.java.gradle.Projects.mergedDescriptorSetFile;
+import static java.util.stream.Collectors.toList;
 
 /**
  * A plugin that annotates generated Java sources from {@code .proto} files.
@@ -47,6 +60,9 @@ import static io.spine.tools.mc.java.gradle.McJavaTaskName.mergeDescriptorSet;
  * and annotation will be built into Gradle build lifecycle,
  * between Protobuf generation and Java compilation.
  *
+ * <p>The sources generated by the Protobuf compiler are left intact. Their annotated copies
+ * are compiled instead.
+ *
  * <p>Examples:
  *
  * <p>For {@code FileOptions}:
@@ -167,17 +183,68 @@ import static io.spine.tools.mc.java.gradle.McJavaTaskName.mergeDescriptorSet;
  */
 public final class AnnotatorPlugin implements Plugin<Project> {
 
+    private static final String JAVA_SOURCES = "**/*.java";
+
     @Override
     public void apply(Project project) {
         getSourceSetNames(project).forEach(ssn -> createTask(project, ssn));
     }
 
     private static void createTask(Project project, SourceSetName ssn) {
-        Action<Task> action = new AnnotationAction(ssn);
-        GradleTask.newBuilder(annotateProto(ssn), action)
-                .insertAfterTask(mergeDescriptorSet(ssn))
-                .insertBeforeTask(compileJava(ssn))
-                .applyNowTo(project);
+        var tasks = project.getTasks();
+        var task = tasks.create(
+                annotateProto(ssn).name(),
+                AnnotateProto.class,
+                t -> {
+                    t.setAction(new AnnotationAction(ssn));
+                    t.getDescriptorSets().from(
+                            descriptorSetFile(project, ssn),
+                            mergedDescriptorSetFile(project, ssn)
+                    );
+                    t.getSettings().set(project.provider(() -> AnnotationAction.settings(project)));
+                    t.getGeneratedJava().from(generatedJavaDir(project, ssn).toFile());
+                    t.getGeneratedGrpc().from(generatedGrpcDir(project, ssn).toFile());
+                    t.getAnnotatedJavaDir().set(annotatedJavaDir(project, ssn).toFile());
+                    t.getAnnotatedGrpcDir().set(annotatedGrpcDir(project, ssn).toFile());
+                    t.getManifestFile().set(annotationManifestFile(project, ssn).toFile());
+                    t.dependsOn(mergeDescriptorSet(ssn).name());
+                }
+        );
+        var compile = tasks.withType(JavaCompile.class)
+                           .getByName(compileJava(ssn).name());
+        compileAnnotatedSources(project, ssn, compile);
+        compile.dependsOn(task);
+    }
+
+    /**
+     * Makes the given task compile the annotated copies of the generated sources instead of
+     * the sources themselves.
+     *
+     * <p>The source directories of the source set are evaluated when the task is executed,
+     * so that the directories added after this plugin is applied are compiled as well.
+     */
+    private static void compileAnnotatedSources(Project project,
+                                                SourceSetName ssn,
+                                                JavaCompile compile) {
+        var javaSources = getSourceSets(project).getByName(ssn.getValue())
+                                                .getJava();
+        var copies = ImmutableMap.of(
+                normalized(generatedJavaDir(project, ssn)), annotatedJavaDir(project, ssn).toFile(),
+                normalized(generatedGrpcDir(project, ssn)), annotatedGrpcDir(project, ssn).toFile()
+        );
+        Callable<List<File>> sourceDirs = () -> javaSources
+                .getSrcDirs()
+                .stream()
+                .map(dir -> copies.getOrDefault(normalized(dir.toPath()), dir))
+                .collect(toList());
+        compile.setSource(project.files(sourceDirs));
+        compile.include(JAVA_SOURCES);
+        compile.dependsOn(javaSources);
+    }
+
+    private static Path normalized(Path dir) {
+        return dir.toAbsolutePath()
+                  .normalize();
     }
 }
 
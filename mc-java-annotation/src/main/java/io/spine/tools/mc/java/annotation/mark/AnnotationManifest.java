@@ -0,0 +1,148 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.annotation.mark;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hashing;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.spine.util.Exceptions.illegalStateWithCauseOf;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The hashes of the source files as they were left after the previous annotation run.
+ *
+ * <p>A source file whose content still has the recorded hash was not regenerated since it was
+ * annotated, and does not need to be annotated again.
+ *
+ * <p>The manifest is bound to a fingerprint of the annotation settings. If the settings change,
+ * the recorded hashes are discarded, and all the sources are annotated anew.
+ *
+ * <p>The manifest is stored as a text file. The first line contains the fingerprint. Each of
+ * the following lines contains a hash and an absolute path to a source file separated by a tab.
+ */
+final class AnnotationManifest {
+
+    private static final String SEPARATOR = "\t";
+
+    private final Path file;
+    private final String fingerprint;
+    private final ImmutableMap<Path, String> previous;
+    private final Map<Path, String> current = new ConcurrentHashMap<>();
+
+    private AnnotationManifest(Path file, String fingerprint, ImmutableMap<Path, String> previous) {
+        this.file = file;
+        this.fingerprint = fingerprint;
+        this.previous = previous;
+    }
+
+    /**
+     * Loads the manifest from the given file.
+     *
+     * <p>If the file does not exist or was written for another fingerprint, the loaded manifest
+     * is empty.
+     */
+    static AnnotationManifest load(Path file, String fingerprint) {
+        checkNotNull(file);
+        checkNotNull(fingerprint);
+        var previous = Files.exists(file)
+                       ? read(file, fingerprint)
+                       : ImmutableMap.<Path, String>of();
+        return new AnnotationManifest(file, fingerprint, previous);
+    }
+
+    private static ImmutableMap<Path, String> read(Path file, String fingerprint) {
+        try {
+            var lines = Files.readAllLines(file, UTF_8);
+            if (lines.isEmpty() || !lines.get(0).equals(fingerprint)) {
+                return ImmutableMap.of();
+            }
+            Map<Path, String> result = new HashMap<>();
+            for (var line : lines.subList(1, lines.size())) {
+                var separator = line.indexOf(SEPARATOR);
+                if (separator > 0) {
+                    var hash = line.substring(0, separator);
+                    var path = Paths.get(line.substring(separator + 1));
+                    result.put(path, hash);
+                }
+            }
+            return ImmutableMap.copyOf(result);
+        } catch (IOException e) {
+            throw illegalStateWithCauseOf(e);
+        }
+    }
+
+    /**
+     * Checks if the given content of the source file is the same as it was left after
+     * the previous annotation run.
+     */
+    boolean isAnnotated(Path sourceFile, byte[] content) {
+        var recorded = previous.get(sourceFile);
+        return recorded != null && recorded.equals(hash(content));
+    }
+
+    /**
+     * Records the content of the source file as annotated.
+     */
+    void record(Path sourceFile, byte[] content) {
+        current.put(sourceFile, hash(content));
+    }
+
+    /**
+     * Writes the hashes recorded during this run to the manifest file.
+     */
+    void save() {
+        var lines = new ArrayList<String>(current.size() + 1);
+        lines.add(fingerprint);
+        new TreeMap<>(current).forEach((path, hash) -> lines.add(hash + SEPARATOR + path));
+        try {
+            var dir = file.getParent();
+            if (dir != null) {
+                Files.createDirectories(dir);
+            }
+            Files.write(file, lines, UTF_8);
+        } catch (IOException e) {
+            throw illegalStateWithCauseOf(e);
+        }
+    }
+
+    private static String hash(byte[] content) {
+        return Hashing.sha256()
+                      .hashBytes(content)
+                      .toString();
+    }
+}
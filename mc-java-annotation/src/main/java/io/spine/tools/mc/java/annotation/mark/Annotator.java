@@ -30,21 +30,16 @@ import com.google.common.collect.ImmutableList;
 import com.google.protobuf.Descriptors.FileDescriptor;
 import io.spine.code.java.ClassName;
 import io.spine.tools.java.fs.SourceFile;
-import org.jboss.forge.roaster.Roaster;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.jboss.forge.roaster.model.impl.AbstractJavaSource;
 import org.jboss.forge.roaster.model.source.AnnotationSource;
 import org.jboss.forge.roaster.model.source.AnnotationTargetSource;
 import org.jboss.forge.roaster.model.source.JavaClassSource;
 import org.jboss.forge.roaster.model.source.JavaSource;
 
-import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 
 import static com.google.common.base.Preconditions.checkNotNull;
-import static io.spine.util.Exceptions.illegalStateWithCauseOf;
-import static java.nio.file.Files.exists;
-import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
 
 /**
  * Abstract base class for the annotators of the generated Java sources.
@@ -63,6 +58,9 @@ public abstract class Annotator {
     /** Absolute path to the Java sources to annotate. */
     private final Path genJavaDir;
 
+    /** The batch to collect the source edits, or {@code null} if the edits are applied at once. */
+    private @Nullable SourceBatch batch;
+
     protected Annotator(ClassName annotation,
                         ImmutableList<FileDescriptor> fileDescriptors,
                         Path genJavaDir) {
@@ -103,6 +101,9 @@ public abstract class Annotator {
      *
      * <p>If the specified path does not exist, does nothing.
      *
+     * <p>If this annotator {@linkplain #collectInto(SourceBatch) collects edits} into a batch,
+     * the visitor is only scheduled for applying along with the other edits of the file.
+     *
      * @param sourcePathPrefix
      *         the prefix for the relative source path
      * @param sourceFile
@@ -110,34 +111,22 @@ public abstract class Annotator {
      * @param visitor
      *         the source visitor
      */
-    static <T extends JavaSource<T>>
+    <T extends JavaSource<T>>
     void rewriteSource(Path sourcePathPrefix, SourceFile sourceFile, SourceVisitor<T> visitor) {
         var absoluteSourcePath = sourcePathPrefix.resolve(sourceFile.path());
-        if (exists(absoluteSourcePath)) {
-            @SuppressWarnings("unchecked" /* There is no way to specify generic parameter
-                                             for `AbstractJavaSource.class` value. */)
-            var javaSource = (AbstractJavaSource<T>) parse(absoluteSourcePath);
-            visitor.accept(javaSource);
-            rewrite(javaSource, absoluteSourcePath);
-        }
-    }
-
-    private static <T extends JavaSource<T>>
-    void rewrite(AbstractJavaSource<T> javaSource, Path destination) {
-        var resultingSource = javaSource.toString();
-        try {
-            Files.write(destination, ImmutableList.of(resultingSource), TRUNCATE_EXISTING);
-        } catch (IOException e) {
-            throw illegalStateWithCauseOf(e);
+        if (batch != null) {
+            batch.add(absoluteSourcePath, visitor);
+        } else {
+            SourceBatch.rewrite(absoluteSourcePath, ImmutableList.of(visitor));
         }
     }
 
-    private static AbstractJavaSource<?> parse(Path sourcePath) {
-        try {
-            return Roaster.parse(AbstractJavaSource.class, sourcePath.toFile());
-        } catch (IOException e) {
-            throw illegalStateWithCauseOf(e);
-        }
+    /**
+     * Makes this annotator collect the source edits into the given batch instead of rewriting
+     * the sources right away.
+     */
+    final void collectInto(SourceBatch batch) {
+        this.batch = checkNotNull(batch);
     }
 
     /**
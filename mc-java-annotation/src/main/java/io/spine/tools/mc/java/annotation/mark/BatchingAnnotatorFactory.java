@@ -0,0 +1,85 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.annotation.mark;
+
+import com.google.common.collect.ImmutableSet;
+import io.spine.code.java.ClassName;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An {@link AnnotatorFactory} which makes the created annotators collect their source edits
+ * into a {@link SourceBatch}.
+ *
+ * <p>The annotators are created by the delegate factory.
+ */
+final class BatchingAnnotatorFactory implements AnnotatorFactory {
+
+    private final AnnotatorFactory delegate;
+    private final SourceBatch batch;
+
+    BatchingAnnotatorFactory(AnnotatorFactory delegate, SourceBatch batch) {
+        this.delegate = checkNotNull(delegate);
+        this.batch = checkNotNull(batch);
+    }
+
+    @Override
+    public Annotator createFileAnnotator(ClassName annotation, ApiOption option) {
+        return batched(delegate.createFileAnnotator(annotation, option));
+    }
+
+    @Override
+    public Annotator createMessageAnnotator(ClassName annotation, ApiOption option) {
+        return batched(delegate.createMessageAnnotator(annotation, option));
+    }
+
+    @Override
+    public Annotator createFieldAnnotator(ClassName annotation, ApiOption option) {
+        return batched(delegate.createFieldAnnotator(annotation, option));
+    }
+
+    @Override
+    public Annotator createServiceAnnotator(ClassName annotation, ApiOption option) {
+        return batched(delegate.createServiceAnnotator(annotation, option));
+    }
+
+    @Override
+    public Annotator createPatternAnnotator(ClassName annotation, ClassNamePattern pattern) {
+        return batched(delegate.createPatternAnnotator(annotation, pattern));
+    }
+
+    @Override
+    public Annotator createMethodAnnotator(ClassName annotation,
+                                           ImmutableSet<MethodPattern> patterns) {
+        return batched(delegate.createMethodAnnotator(annotation, patterns));
+    }
+
+    private Annotator batched(Annotator annotator) {
+        annotator.collectInto(batch);
+        return annotator;
+    }
+}
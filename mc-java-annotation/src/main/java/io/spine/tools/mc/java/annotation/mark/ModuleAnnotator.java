@@ -29,11 +29,14 @@ package io.spine.tools.mc.java.annotation.mark;
 import com.google.common.collect.ImmutableSet;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import io.spine.code.java.ClassName;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.checker.regex.qual.Regex;
 
+import java.nio.file.Path;
 import java.util.HashSet;
 import java.util.Set;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
 
@@ -44,10 +47,16 @@ public final class ModuleAnnotator {
 
     private final AnnotatorFactory annotatorFactory;
     private final ImmutableSet<Job> jobs;
+    private final int parallelism;
+    private final @Nullable Path manifestFile;
+    private final String fingerprint;
 
     private ModuleAnnotator(Builder builder) {
         this.annotatorFactory = builder.annotatorFactory;
         this.jobs = ImmutableSet.copyOf(builder.jobs);
+        this.parallelism = builder.parallelism;
+        this.manifestFile = builder.manifestFile;
+        this.fingerprint = builder.fingerprint;
     }
 
     /**
@@ -71,9 +80,29 @@ public final class ModuleAnnotator {
 
     /**
      * Executes the {@linkplain Job annotation jobs}.
+     *
+     * <p>The edits made by all the jobs are collected first. Then, each source file is parsed,
+     * modified, and written only once, regardless of the number of jobs which affect it.
+     *
+     * <p>The files are {@linkplain Builder#setParallelism(int) processed in parallel},
+     * if configured.
+     *
+     * <p>If the {@linkplain Builder#setManifest(Path, String) manifest} is set, the files which
+     * were not changed since the previous run are skipped.
      */
     public void annotate() {
-        jobs.forEach(job -> job.execute(annotatorFactory));
+        var manifest = manifestFile != null
+                       ? AnnotationManifest.load(manifestFile, fingerprint)
+                       : null;
+        var batch = manifest != null
+                    ? new SourceBatch(manifest)
+                    : new SourceBatch();
+        var factory = new BatchingAnnotatorFactory(annotatorFactory, batch);
+        jobs.forEach(job -> job.execute(factory));
+        batch.apply(parallelism);
+        if (manifest != null) {
+            manifest.save();
+        }
     }
 
     /**
@@ -86,6 +115,9 @@ public final class ModuleAnnotator {
         private ClassName internalAnnotation;
         private ImmutableSet<@Regex String> internalPatterns = ImmutableSet.of();
         private ImmutableSet<String> internalMethodNames = ImmutableSet.of();
+        private int parallelism = 1;
+        private @Nullable Path manifestFile;
+        private String fingerprint = "";
 
         /**
          * Prevents direct instantiation.
@@ -154,6 +186,39 @@ public final class ModuleAnnotator {
             return this;
         }
 
+        /**
+         * Sets the maximum number of source files to annotate simultaneously.
+         *
+         * <p>By default, the files are annotated one by one.
+         *
+         * @param parallelism
+         *         the number of files to process at a time; must be positive
+         */
+        public Builder setParallelism(int parallelism) {
+            checkArgument(parallelism > 0,
+                          "Parallelism must be positive, got `%s`.", parallelism);
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Sets the file to keep the hashes of the annotated sources between the runs.
+         *
+         * <p>The sources which have the same content as after the previous run are not
+         * processed again. The hashes are discarded if the given fingerprint differs from
+         * the one of the previous run.
+         *
+         * @param manifestFile
+         *         the file to store the hashes
+         * @param fingerprint
+         *         a string which changes whenever the annotation settings change
+         */
+        public Builder setManifest(Path manifestFile, String fingerprint) {
+            this.manifestFile = checkNotNull(manifestFile);
+            this.fingerprint = checkNotNull(fingerprint);
+            return this;
+        }
+
         /**
          * Creates a new instance of {@link ModuleAnnotator}.
          */
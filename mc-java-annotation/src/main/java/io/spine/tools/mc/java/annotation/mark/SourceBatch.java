@@ -0,0 +1,205 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.annotation.mark;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.jboss.forge.roaster.Roaster;
+import org.jboss.forge.roaster.model.impl.AbstractJavaSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.spine.util.Exceptions.illegalStateWithCauseOf;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.exists;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+
+/**
+ * A batch of edits of the generated Java sources.
+ *
+ * <p>The batch collects the {@linkplain SourceVisitor visitors} to apply to each source file.
+ * When {@linkplain #apply() applied}, each file is parsed once, all of its visitors are applied in
+ * the order of their registration, and the file is written once.
+ *
+ * <p>A visitor which is added for the same file several times is applied only once.
+ */
+final class SourceBatch {
+
+    private final Map<Path, Set<SourceVisitor<?>>> edits = new LinkedHashMap<>();
+    private final @Nullable AnnotationManifest manifest;
+
+    /**
+     * Creates a batch which processes all the files it has edits for.
+     */
+    SourceBatch() {
+        this.manifest = null;
+    }
+
+    /**
+     * Creates a batch which skips the files left intact since the run recorded in
+     * the given manifest.
+     *
+     * <p>The content of the processed files is recorded to the manifest.
+     */
+    SourceBatch(AnnotationManifest manifest) {
+        this.manifest = checkNotNull(manifest);
+    }
+
+    /**
+     * Schedules the given visitor to be applied to the source file with the given path.
+     */
+    void add(Path sourceFile, SourceVisitor<?> visitor) {
+        checkNotNull(sourceFile);
+        checkNotNull(visitor);
+        edits.computeIfAbsent(sourceFile, path -> new LinkedHashSet<>())
+             .add(visitor);
+    }
+
+    /**
+     * Applies all the collected edits and clears this batch.
+     */
+    void apply() {
+        apply(1);
+    }
+
+    /**
+     * Applies all the collected edits using up to {@code parallelism} threads and clears
+     * this batch.
+     *
+     * <p>Each file is processed by exactly one thread, so there is only one writer per file.
+     */
+    void apply(int parallelism) {
+        checkArgument(parallelism > 0,
+                      "Parallelism must be positive, got `%s`.", parallelism);
+        if (parallelism == 1 || edits.size() < 2) {
+            edits.forEach(this::process);
+        } else {
+            applyInParallel(parallelism);
+        }
+        edits.clear();
+    }
+
+    private void applyInParallel(int parallelism) {
+        var pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(
+                    () -> edits.entrySet()
+                               .parallelStream()
+                               .forEach(edit -> process(edit.getKey(), edit.getValue()))
+            ).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw illegalStateWithCauseOf(e);
+        } catch (ExecutionException e) {
+            var cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw illegalStateWithCauseOf(cause);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void process(Path sourceFile, Collection<? extends SourceVisitor<?>> visitors) {
+        rewrite(sourceFile, visitors, manifest);
+    }
+
+    /**
+     * Rewrites a Java source with the specified path after applying the given visitors.
+     *
+     * <p>If the specified path does not exist, does nothing.
+     */
+    static void rewrite(Path sourceFile, Collection<? extends SourceVisitor<?>> visitors) {
+        rewrite(sourceFile, visitors, null);
+    }
+
+    /**
+     * Rewrites a Java source with the specified path after applying the given visitors.
+     *
+     * <p>If the manifest tells that the file is already annotated, the file is not parsed.
+     * If the visitors do not change the file, it is not written.
+     */
+    private static void rewrite(Path sourceFile,
+                                Collection<? extends SourceVisitor<?>> visitors,
+                                @Nullable AnnotationManifest manifest) {
+        if (!exists(sourceFile)) {
+            return;
+        }
+        var original = read(sourceFile);
+        if (manifest != null && manifest.isAnnotated(sourceFile, original)) {
+            manifest.record(sourceFile, original);
+            return;
+        }
+        var javaSource = parse(new String(original, UTF_8));
+        visitors.forEach(visitor -> visit(javaSource, visitor));
+        var annotated = (javaSource.toString() + System.lineSeparator()).getBytes(UTF_8);
+        if (!Arrays.equals(original, annotated)) {
+            write(annotated, sourceFile);
+        }
+        if (manifest != null) {
+            manifest.record(sourceFile, annotated);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"}) /* There is no way to specify generic parameter
+                                                    for `AbstractJavaSource.class` value. */
+    private static void visit(AbstractJavaSource javaSource, SourceVisitor visitor) {
+        visitor.accept(javaSource);
+    }
+
+    private static byte[] read(Path sourceFile) {
+        try {
+            return Files.readAllBytes(sourceFile);
+        } catch (IOException e) {
+            throw illegalStateWithCauseOf(e);
+        }
+    }
+
+    private static void write(byte[] content, Path destination) {
+        try {
+            Files.write(destination, content, TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            throw illegalStateWithCauseOf(e);
+        }
+    }
+
+    private static AbstractJavaSource<?> parse(String source) {
+        return Roaster.parse(AbstractJavaSource.class, source);
+    }
+}
@@ -78,6 +78,8 @@ import static org.gradle.api.tasks.SourceSet.MAIN_SOURCE_SET_NAME;
 class AnnotatorPluginTest {
 
     private static final String RESOURCE_DIR = "annotator-plugin-test";
+    private static final String JAVA_DIR = "java";
+    private static final String GRPC_DIR = "grpc";
 
     private static File moduleDir = null;
 
@@ -269,11 +271,7 @@ class AnnotatorPluginTest {
     }
 
     private static void check(Path sourcePath, SourceCheck check) throws IOException {
-        var filePath = DefaultJavaPaths.at(moduleDir)
-                                       .generatedProto()
-                                       .java(main)
-                                       .path()
-                                       .resolve(sourcePath);
+        var filePath = annotatedDir(JAVA_DIR).resolve(sourcePath);
         @SuppressWarnings("unchecked")
         AbstractJavaSource<JavaClassSource> javaSource =
                 Roaster.parse(AbstractJavaSource.class, filePath.toFile());
@@ -282,17 +280,26 @@ class AnnotatorPluginTest {
 
     private static void checkGrpcService(SourceFile serviceFile, SourceCheck check)
             throws IOException {
-        var filePath = DefaultJavaPaths.at(moduleDir)
-                                       .generatedProto()
-                                       .grpc(main)
-                                       .path()
-                                       .resolve(serviceFile.path());
+        var filePath = annotatedDir(GRPC_DIR).resolve(serviceFile.path());
         @SuppressWarnings("unchecked")
         AbstractJavaSource<JavaClassSource> javaSource =
                 Roaster.parse(AbstractJavaSource.class, filePath.toFile());
         check.accept(javaSource);
     }
 
+    /**
+     * Obtains the directory with the annotated copies of the generated sources of
+     * the given kind.
+     */
+    private static Path annotatedDir(String kind) {
+        return moduleDir.toPath()
+                        .resolve("build")
+                        .resolve("spine")
+                        .resolve("annotated")
+                        .resolve(main.getValue())
+                        .resolve(kind);
+    }
+
     private static FileDescriptor descriptorOf(FileName testFile) {
         var mainDescriptor = mainDescriptorPath();
         var fileSet = FileSet.parse(mainDescriptor.toFile());
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.annotation.mark;
+
+import org.jboss.forge.roaster.model.impl.AbstractJavaSource;
+import org.jboss.forge.roaster.model.source.JavaClassSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@DisplayName("`SourceBatch` should")
+class SourceBatchTest {
+
+    private Path sourceFile;
+
+    @BeforeEach
+    void createSource(@TempDir Path dir) throws IOException {
+        sourceFile = dir.resolve("Example.java");
+        Files.writeString(sourceFile, "package com.example;\n\npublic class Example {\n}\n");
+    }
+
+    @Test
+    @DisplayName("apply all the edits of a file at once")
+    void applyAllEdits() throws IOException {
+        var batch = new SourceBatch();
+        batch.add(sourceFile, new AddAnnotation("com.example.First"));
+        batch.add(sourceFile, new AddAnnotation("com.example.Second"));
+        batch.apply();
+
+        var content = Files.readString(sourceFile);
+        assertThat(content)
+                .contains("@com.example.First");
+        assertThat(content)
+                .contains("@com.example.Second");
+    }
+
+    @Test
+    @DisplayName("apply edits to several files in parallel")
+    void applyInParallel() throws IOException {
+        var batch = new SourceBatch();
+        List<Path> files = new ArrayList<>();
+        for (var i = 0; i < 8; i++) {
+            var file = sourceFile.resolveSibling("Example" + i + ".java");
+            Files.copy(sourceFile, file);
+            files.add(file);
+            batch.add(file, new AddAnnotation("com.example.Parallel"));
+        }
+        batch.apply(4);
+
+        for (var file : files) {
+            assertThat(Files.readString(file))
+                    .contains("@com.example.Parallel");
+        }
+    }
+
+    @Test
+    @DisplayName("apply the same visitor to a file only once")
+    void applyVisitorOnce() {
+        var batch = new SourceBatch();
+        var visitor = new CountingVisitor();
+        batch.add(sourceFile, visitor);
+        batch.add(sourceFile, visitor);
+        batch.apply();
+
+        assertThat(visitor.count)
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("skip missing files")
+    void skipMissing() {
+        var batch = new SourceBatch();
+        var missing = sourceFile.resolveSibling("Missing.java");
+        var visitor = new CountingVisitor();
+        batch.add(missing, visitor);
+        batch.apply();
+
+        assertThat(visitor.count)
+                .isEqualTo(0);
+        assertThat(Files.exists(missing))
+                .isFalse();
+    }
+
+    @Test
+    @DisplayName("not write a file if its content is not changed")
+    void notWriteUnchanged() throws IOException {
+        var batch = new SourceBatch();
+        batch.add(sourceFile, new AddAnnotation("com.example.First"));
+        batch.apply();
+        var past = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(sourceFile, past);
+
+        batch.add(sourceFile, new AddAnnotation("com.example.First"));
+        batch.apply();
+
+        assertThat(Files.getLastModifiedTime(sourceFile))
+                .isEqualTo(past);
+    }
+
+    @Nested
+    @DisplayName("with a manifest")
+    class WithManifest {
+
+        private Path manifestFile;
+
+        @BeforeEach
+        void setManifestFile(@TempDir Path dir) {
+            manifestFile = dir.resolve("annotations.manifest");
+        }
+
+        @Test
+        @DisplayName("skip files annotated on the previous run")
+        void skipAnnotated() {
+            annotateWith("settings");
+            var visitor = new CountingVisitor();
+            var batch = new SourceBatch(AnnotationManifest.load(manifestFile, "settings"));
+            batch.add(sourceFile, visitor);
+            batch.apply();
+
+            assertThat(visitor.count)
+                    .isEqualTo(0);
+        }
+
+        @Test
+        @DisplayName("process files changed since the previous run")
+        void processChanged() throws IOException {
+            annotateWith("settings");
+            Files.writeString(sourceFile, "package com.example;\n\nclass Example {\n}\n");
+            var visitor = new CountingVisitor();
+            var batch = new SourceBatch(AnnotationManifest.load(manifestFile, "settings"));
+            batch.add(sourceFile, visitor);
+            batch.apply();
+
+            assertThat(visitor.count)
+                    .isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("process all files if the settings changed")
+        void processOnNewSettings() {
+            annotateWith("settings");
+            var visitor = new CountingVisitor();
+            var batch = new SourceBatch(AnnotationManifest.load(manifestFile, "new settings"));
+            batch.add(sourceFile, visitor);
+            batch.apply();
+
+            assertThat(visitor.count)
+                    .isEqualTo(1);
+        }
+
+        private void annotateWith(String fingerprint) {
+            var manifest = AnnotationManifest.load(manifestFile, fingerprint);
+            var batch = new SourceBatch(manifest);
+            batch.add(sourceFile, new AddAnnotation("com.example.First"));
+            batch.apply();
+            manifest.save();
+        }
+    }
+
+    private static final class AddAnnotation implements SourceVisitor<JavaClassSource> {
+
+        private final String annotation;
+
+        private AddAnnotation(String annotation) {
+            this.annotation = annotation;
+        }
+
+        @Override
+        public void accept(AbstractJavaSource<JavaClassSource> source) {
+            if (source.getAnnotation(annotation) == null) {
+                source.addAnnotation()
+                      .setName(annotation);
+            }
+        }
+    }
+
+    private static final class CountingVisitor implements SourceVisitor<JavaClassSource> {
+
+        private int count;
+
+        @Override
+        public void accept(AbstractJavaSource<JavaClassSource> source) {
+            count++;
+        }
+    }
+}
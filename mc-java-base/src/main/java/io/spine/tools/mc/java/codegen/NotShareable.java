@@ -0,0 +1,57 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.codegen;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Marks a user-defined factory class which must not be shared between the processed types.
+ *
+ * <p>By default, the Protobuf compiler plugin creates a single instance of a factory, such as
+ * a {@link io.spine.tools.java.code.MethodFactory MethodFactory} or
+ * a {@link io.spine.tools.java.code.NestedClassFactory NestedClassFactory}, and reuses it for
+ * all the types the factory is applied to. If the code generation is
+ * {@linkplain CodegenOptions#getParallelism() parallel}, the instance may be used from several
+ * threads at the same time.
+ *
+ * <p>Factories which keep a state, or are not safe to be used concurrently, should be marked
+ * with this annotation. A new instance of such a factory is created for each type.
+ *
+ * <p>The annotation is only needed to compile the factory. The code of the factories may depend
+ * on the {@code spine-mc-java-base} artifact as {@code compileOnly}, since the plugin brings
+ * the annotation at runtime.
+ */
+@Documented
+@Retention(RUNTIME)
+@Target(TYPE)
+public @interface NotShareable {
+}
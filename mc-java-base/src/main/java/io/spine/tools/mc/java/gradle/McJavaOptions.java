@@ -81,6 +81,45 @@ public class McJavaOptions {
 
     public List<String> internalMethodNames = new ArrayList<>();
 
+    /**
+     * The maximum number of generated source files annotated simultaneously.
+     *
+     * <p>The files are annotated by a pool of threads owned by the {@code annotateProto} task.
+     * The threads are not Gradle workers, so Gradle does not count them towards
+     * the {@code --max-workers} limit.
+     *
+     * <p>The default value is {@code 1}, which means that the files are annotated one by one.
+     */
+    public int annotationParallelism = 1;
+
+    /**
+     * If {@code true}, the generated rejections do not capture the stack trace when created.
+     *
+     * <p>Filling in the stack trace is the most expensive part of creating a throwable.
+     * Rejections are expected outcomes of handling commands rather than errors, so their
+     * stack traces are rarely needed.
+     *
+     * <p>The default value is {@code false}.
+     *
+     * @see #stacklessRejectionFiles
+     */
+    public boolean stacklessRejections = false;
+
+    /**
+     * The paths of the rejections files which rejections do not capture the stack trace when
+     * created, relative to the proto source directory.
+     *
+     * <p>Allows making stackless only the rejections declared in particular files. Is not
+     * needed if {@link #stacklessRejections} is {@code true}.
+     *
+     * <p>A file is selected if its path ends with a listed path, compared by whole name
+     * segments as {@link java.nio.file.Path#endsWith(java.nio.file.Path) Path.endsWith} does.
+     * For example, {@code "acme/rejections.proto"} selects {@code "spine/acme/rejections.proto"},
+     * but neither {@code "spine/acme/my_rejections.proto"}
+     * nor {@code "spine/xacme/rejections.proto"}.
+     */
+    public List<String> stacklessRejectionFiles = new ArrayList<>();
+
     private Project project;
 
     /**
@@ -153,4 +192,19 @@ public class McJavaOptions {
         var patterns = getMcJava(project).internalMethodNames;
         return ImmutableSet.copyOf(patterns);
     }
+
+    public static int getAnnotationParallelism(Project project) {
+        var parallelism = getMcJava(project).annotationParallelism;
+        return parallelism;
+    }
+
+    public static boolean getStacklessRejections(Project project) {
+        var stackless = getMcJava(project).stacklessRejections;
+        return stackless;
+    }
+
+    public static ImmutableSet<String> getStacklessRejectionFiles(Project project) {
+        var files = getMcJava(project).stacklessRejectionFiles;
+        return ImmutableSet.copyOf(files);
+    }
 }
@@ -26,7 +26,6 @@
 
 package io.spine.tools.mc.java.gradle.codegen;
 
-import com.google.common.collect.ImmutableList;
 import io.spine.annotation.Internal;
 import io.spine.base.CommandMessage;
 import io.spine.base.EntityState;
@@ -38,6 +37,7 @@ import io.spine.option.OptionsProto;
 import io.spine.query.EntityStateField;
 import io.spine.tools.java.code.Classpath;
 import io.spine.tools.java.code.UuidMethodFactory;
+import io.spine.tools.mc.java.codegen.CodegenCache;
 import io.spine.tools.mc.java.codegen.CodegenOptions;
 import io.spine.tools.mc.java.codegen.Messages;
 import io.spine.tools.mc.java.codegen.Pattern;
@@ -46,18 +46,17 @@ import io.spine.tools.proto.code.ProtoTypeName;
 import io.spine.validation.FilePattern;
 import org.gradle.api.Action;
 import org.gradle.api.Project;
-import org.gradle.api.file.FileCollection;
-import org.gradle.api.tasks.compile.JavaCompile;
+import org.gradle.api.provider.Property;
 
-import java.io.File;
-import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static io.spine.base.MessageFile.COMMANDS;
 import static io.spine.base.MessageFile.EVENTS;
 import static io.spine.base.MessageFile.REJECTIONS;
+import static io.spine.tools.mc.java.gradle.Projects.getProtocCacheDir;
 
 /**
  * A part of {@link io.spine.tools.mc.java.gradle.McJavaOptions McJavaOptions} responsible
@@ -72,6 +71,10 @@ public final class CodegenOptionsConfig extends Config<CodegenOptions> {
     private final UuidConfig uuids;
     private final ValidationConfig validation;
     private final Set<Messages> messagesConfigs = new HashSet<>();
+    private final Property<Integer> parallelism;
+    private final Property<Long> cacheSize;
+    private final Property<Boolean> profile;
+    private final FactoryClasspath factoryClasspath;
     private final Project project;
 
     @Internal
@@ -84,6 +87,10 @@ public final class CodegenOptionsConfig extends Config<CodegenOptions> {
         this.entities = new EntityConfig(project);
         this.uuids = new UuidConfig(project);
         this.validation = new ValidationConfig(project);
+        this.parallelism = project.getObjects().property(Integer.class);
+        this.cacheSize = project.getObjects().property(Long.class);
+        this.profile = project.getObjects().property(Boolean.class);
+        this.factoryClasspath = new FactoryClasspath(project);
         prepareConvention();
     }
 
@@ -101,6 +108,9 @@ public final class CodegenOptionsConfig extends Config<CodegenOptions> {
         entities.convention(OptionsProto.entity, EntityState.class, EntityStateField.class);
         uuids.convention(UuidMethodFactory.class, UuidValue.class);
         validation.enableAllByConvention();
+        parallelism.convention(1);
+        cacheSize.convention(0L);
+        profile.convention(false);
     }
 
     /**
@@ -190,6 +200,49 @@ public final class CodegenOptionsConfig extends Config<CodegenOptions> {
         messagesConfigs.add(config.toProto());
     }
 
+    /**
+     * Sets the maximum number of threads used for generating code for the message types.
+     *
+     * <p>By default, the types are processed sequentially. The generated code does not depend
+     * on the number of threads.
+     */
+    public void parallelism(int threads) {
+        checkArgument(threads > 0, "The number of threads must be positive, got `%s`.", threads);
+        parallelism.set(threads);
+    }
+
+    /**
+     * Enables the on-disk cache of the code generated by the Protobuf compiler plugin.
+     *
+     * <p>The code generated for a proto file is reused while the file, its dependencies, and
+     * the code generation settings stay the same. When the cache grows over the given size,
+     * the least recently used entries are removed.
+     *
+     * <p>By default, the cache is disabled.
+     *
+     * @param maxSizeBytes
+     *         the maximum total size of the cache entries in bytes
+     */
+    public void cache(long maxSizeBytes) {
+        checkArgument(maxSizeBytes > 0,
+                      "The size of the cache must be positive, got `%s`.", maxSizeBytes);
+        cacheSize.set(maxSizeBytes);
+    }
+
+    /**
+     * Makes the Protobuf compiler plugin profile the code generation.
+     *
+     * <p>For each code generator, the plugin records the time, the allocated memory, and
+     * the size of the generated code. The profile is written as JSON next to the plugin
+     * configuration file. The plugin also emits JFR events, which are recorded if the plugin
+     * JVM runs with Java Flight Recorder.
+     *
+     * <p>By default, the code generation is not profiled.
+     */
+    public void profile() {
+        profile.set(true);
+    }
+
     @Override
     @SuppressWarnings("ResultOfMethodCallIgnored") // calling builder
     public CodegenOptions toProto() {
@@ -201,24 +254,38 @@ public final class CodegenOptionsConfig extends Config<CodegenOptions> {
                 .setEntities(entities.toProto())
                 .setValidation(validation.toProto())
                 .setUuids(uuids.toProto())
-                .setClasspath(classpath);
+                .setClasspath(classpath)
+                .setParallelism(parallelism.get())
+                .setProfile(profile.get());
         messagesConfigs.forEach(builder::addMessages);
+        long maxCacheSize = cacheSize.get();
+        if (maxCacheSize > 0) {
+            var cache = CodegenCache.newBuilder()
+                    .setDir(getProtocCacheDir(project).toString())
+                    .setMaxSize(maxCacheSize);
+            builder.setCache(cache);
+        }
         return builder.build();
     }
 
+    /**
+     * Creates the configuration of the Protobuf compiler plugin.
+     *
+     * <p>Unlike {@link #toProto()}, the result also tells which entries of
+     * the {@code codegenFactories} configuration contain the code generation factories.
+     * Finding them opens the JARs of the configuration, so this method should only be called
+     * when a task is executed.
+     */
+    public CodegenOptions toPluginConfig() {
+        var options = toProto();
+        var locations = factoryClasspath.locate(options);
+        return options.toBuilder()
+                      .addAllFactoryLocation(locations)
+                      .build();
+    }
+
     private Classpath buildClasspath() {
-        var classpath = Classpath.newBuilder();
-        Collection<JavaCompile> javaCompileViews =
-                project.getTasks()
-                        .withType(JavaCompile.class);
-        ImmutableList.copyOf(javaCompileViews)
-                     .stream()
-                     .map(JavaCompile::getClasspath)
-                     .map(FileCollection::getFiles)
-                     .flatMap(Set::stream)
-                     .map(File::getAbsolutePath)
-                     .forEach(classpath::addJar);
-        return classpath.build();
+        return FactoryClasspath.toProto(factoryClasspath.entries());
     }
 
     /**
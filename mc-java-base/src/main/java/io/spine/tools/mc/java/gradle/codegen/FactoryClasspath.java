@@ -0,0 +1,215 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.gradle.codegen;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import io.spine.tools.java.code.Classpath;
+import io.spine.tools.mc.java.codegen.CodegenOptions;
+import io.spine.tools.mc.java.codegen.FactoryLocation;
+import io.spine.tools.mc.java.codegen.Messages;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.tasks.compile.JavaCompile;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.jar.JarFile;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.spine.util.Exceptions.newIllegalStateException;
+
+/**
+ * The classpath from which the Protobuf compiler plugin loads the code generation factories.
+ *
+ * <p>The factories are declared as dependencies of the {@value #CONFIGURATION} configuration.
+ * If the configuration has no dependencies, the classpath consists of the classpaths of all
+ * the {@code JavaCompile} tasks of the project.
+ *
+ * <p>The factories {@linkplain CodegenOptions#getMessagesList() configured} for the code
+ * generation are {@linkplain #locate(CodegenOptions) located} in the {@value #CONFIGURATION}
+ * configuration when the plugin configuration is written, so that the plugin does not have to
+ * search for them. Locating opens the JARs of the configuration, so it is only done at
+ * the task execution.
+ */
+final class FactoryClasspath {
+
+    /**
+     * The name of the configuration which holds the code generation factories.
+     */
+    static final String CONFIGURATION = "codegenFactories";
+
+    private static final String CLASS_EXTENSION = ".class";
+
+    private final Project project;
+    private final Configuration configuration;
+
+    FactoryClasspath(Project project) {
+        this.project = checkNotNull(project);
+        this.configuration = configurationIn(project);
+    }
+
+    private static Configuration configurationIn(Project project) {
+        var configurations = project.getConfigurations();
+        @Nullable Configuration config = configurations.findByName(CONFIGURATION);
+        if (config == null) {
+            config = configurations.create(CONFIGURATION);
+            config.setCanBeConsumed(false);
+            config.setCanBeResolved(true);
+            config.setDescription("The classpath of the code generation factories " +
+                                          "used by the Protobuf compiler plugin.");
+        }
+        return config;
+    }
+
+    /**
+     * Obtains the entries of the classpath.
+     */
+    ImmutableSet<File> entries() {
+        if (!configuration.getAllDependencies().isEmpty()) {
+            return ImmutableSet.copyOf(configuration.getFiles());
+        }
+        Collection<JavaCompile> javaCompileViews =
+                project.getTasks()
+                       .withType(JavaCompile.class);
+        var result = ImmutableSet.<File>builder();
+        ImmutableList.copyOf(javaCompileViews)
+                     .stream()
+                     .map(JavaCompile::getClasspath)
+                     .map(FileCollection::getFiles)
+                     .forEach(result::addAll);
+        return result.build();
+    }
+
+    /**
+     * Converts the given classpath entries to the Protobuf form.
+     */
+    static Classpath toProto(Collection<File> entries) {
+        var classpath = Classpath.newBuilder();
+        entries.stream()
+               .map(File::getAbsolutePath)
+               .forEach(classpath::addJar);
+        return classpath.build();
+    }
+
+    /**
+     * Finds the entries of the {@value #CONFIGURATION} configuration which contain
+     * the factories used by the given options.
+     *
+     * <p>If the configuration has no dependencies, no factories are located, and the plugin
+     * looks them up in the whole {@linkplain CodegenOptions#getClasspath() classpath}.
+     *
+     * <p>The factories which the plugin loads by itself, such as the default
+     * {@code UuidMethodFactory}, are skipped. Each entry is opened at most once.
+     */
+    ImmutableList<FactoryLocation> locate(CodegenOptions options) {
+        if (configuration.getAllDependencies().isEmpty()) {
+            return ImmutableList.of();
+        }
+        Set<String> remaining = factoryNames(options);
+        remaining.removeIf(FactoryClasspath::isProvided);
+        var result = ImmutableList.<FactoryLocation>builder();
+        for (var entry : configuration.getFiles()) {
+            if (remaining.isEmpty()) {
+                break;
+            }
+            var found = classesIn(entry, remaining);
+            for (var className : found) {
+                remaining.remove(className);
+                result.add(FactoryLocation.newBuilder()
+                                   .setClassName(className)
+                                   .setEntry(entry.getAbsolutePath())
+                                   .build());
+            }
+        }
+        return result.build();
+    }
+
+    /**
+     * Tells if the given class is shipped with the Model Compiler itself.
+     *
+     * <p>Such a class is loaded by the plugin without looking into the classpath.
+     */
+    private static boolean isProvided(String className) {
+        var loader = FactoryClasspath.class.getClassLoader();
+        return loader.getResource(classFile(className)) != null;
+    }
+
+    private static Set<String> factoryNames(CodegenOptions options) {
+        Set<String> result = new LinkedHashSet<>();
+        options.getUuids()
+               .getMethodFactoryList()
+               .forEach(factory -> result.add(factory.getClassName().getCanonical()));
+        for (Messages messages : options.getMessagesList()) {
+            messages.getGenerateMethodsList()
+                    .forEach(generate -> result.add(
+                            generate.getFactory().getClassName().getCanonical()
+                    ));
+            messages.getGenerateNestedClassesList()
+                    .forEach(generate -> result.add(
+                            generate.getFactory().getClassName().getCanonical()
+                    ));
+        }
+        result.remove("");
+        return result;
+    }
+
+    /**
+     * Selects the classes which are contained in the given classpath entry.
+     */
+    private static ImmutableList<String> classesIn(File entry, Set<String> classNames) {
+        var result = ImmutableList.<String>builder();
+        if (entry.isDirectory()) {
+            for (var className : classNames) {
+                if (new File(entry, classFile(className)).isFile()) {
+                    result.add(className);
+                }
+            }
+        } else if (entry.isFile()) {
+            try (var jar = new JarFile(entry)) {
+                for (var className : classNames) {
+                    if (jar.getEntry(classFile(className)) != null) {
+                        result.add(className);
+                    }
+                }
+            } catch (IOException e) {
+                throw newIllegalStateException(
+                        e, "Unable to read the classpath entry `%s`.", entry);
+            }
+        }
+        return result.build();
+    }
+
+    private static String classFile(String className) {
+        return className.replace('.', '/') + CLASS_EXTENSION;
+    }
+}
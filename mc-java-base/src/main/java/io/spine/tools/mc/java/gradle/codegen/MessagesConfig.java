@@ -75,6 +75,9 @@ public final class MessagesConfig extends ConfigWithFields<Messages> {
      *
      * <p>Calling this method multiple times will add the provided factories for code generation.
      *
+     * <p>A single instance of the factory is shared between the processed types, unless
+     * the factory class is marked as {@link io.spine.tools.mc.java.codegen.NotShareable}.
+     *
      * @param factoryClassName
      *         the canonical class name of the method factory
      */
@@ -88,6 +91,9 @@ public final class MessagesConfig extends ConfigWithFields<Messages> {
      *
      * <p>Calling this method multiple times will add the provided factories for code generation.
      *
+     * <p>A single instance of the factory is shared between the processed types, unless
+     * the factory class is marked as {@link io.spine.tools.mc.java.codegen.NotShareable}.
+     *
      * @param factoryClassName
      *         the canonical class name of the nested class factory
      */
@@ -79,6 +79,13 @@ public final class ValidationConfig extends Config<Validation> {
         skipValidatingBuilders.set(true);
     }
 
+    /**
+     * Checks if the validating builders should be generated.
+     */
+    public boolean shouldSkipBuilders() {
+        return skipValidatingBuilders.get();
+    }
+
     /**
      * Ensures that validating builders will be generated.
      *
@@ -111,6 +111,76 @@ public fun Project.generatedGrpcDir(ss: SourceSetName): Path =
 public fun Project.generatedRejectionsDir(ss: SourceSetName): Path =
     generated(ss).resolve(generatedRejectionsDirName)
 
+/**
+ * Obtains the directory with the annotated copy of the Java code generated for
+ * the specified source set.
+ *
+ * The `annotateProto` task writes the copy, and the `compileJava` task compiles it instead of
+ * the sources generated by the Protobuf compiler.
+ */
+public fun Project.annotatedJavaDir(ss: SourceSetName): Path =
+    annotated(ss).resolve(generatedJavaDirName)
+
+/**
+ * Obtains the directory with the annotated copy of the gRPC code generated for
+ * the specified source set.
+ *
+ * @see annotatedJavaDir
+ */
+public fun Project.annotatedGrpcDir(ss: SourceSetName): Path =
+    annotated(ss).resolve(generatedGrpcDirName)
+
+/**
+ * Obtains the file which lists the hashes of the sources annotated in the specified source set.
+ *
+ * The file is used to skip the sources which have not changed since they were annotated.
+ */
+public fun Project.annotationManifestFile(ss: SourceSetName): Path =
+    buildDir.toPath()
+        .resolve(spine)
+        .resolve("annotations")
+        .resolve("${ss.value}.manifest")
+
+/**
+ * Obtains the file which lists the hashes of the rejection declarations and the sources
+ * generated for them in the specified source set.
+ *
+ * The file is used to regenerate only the rejections which changed since the previous build.
+ */
+public fun Project.rejectionsManifestFile(ss: SourceSetName): Path =
+    buildDir.toPath()
+        .resolve(spine)
+        .resolve("rejections")
+        .resolve("${ss.value}.manifest")
+
+/**
+ * Obtains the file with the descriptors of all the types known to the specified source set,
+ * including the types from the runtime classpath.
+ *
+ * The file is written by the `mergeDescriptorSet` task. The tasks which deal with Protobuf
+ * types load it into the known types before processing the code.
+ */
+public fun Project.mergedDescriptorSetFile(ss: SourceSetName): Path =
+    buildDir.toPath()
+        .resolve(spine)
+        .resolve("known-types")
+        .resolve("${ss.value}.desc")
+
+/**
+ * Obtains the directory which stores the code generated by the Protobuf compiler plugin
+ * for reuse in subsequent builds.
+ */
+public val Project.protocCacheDir: Path
+    get() = buildDir.toPath()
+        .resolve(spine)
+        .resolve("protoc-cache")
+
+private fun Project.annotated(ss: SourceSetName): Path =
+    buildDir.toPath()
+        .resolve(spine)
+        .resolve("annotated")
+        .resolve(ss.value)
+
 private fun Project.generated(ss: SourceSetName): Path {
     return generatedDir.resolve(ss.value)
 }
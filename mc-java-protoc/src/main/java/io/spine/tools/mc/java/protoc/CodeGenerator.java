@@ -26,9 +26,16 @@
 
 package io.spine.tools.mc.java.protoc;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import com.google.protobuf.DescriptorProtos.DescriptorProto;
 import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.Descriptors.FileDescriptor;
+import com.google.protobuf.MessageLite;
 import com.google.protobuf.compiler.PluginProtos.CodeGeneratorRequest;
 import com.google.protobuf.compiler.PluginProtos.CodeGeneratorResponse;
 import com.google.protobuf.compiler.PluginProtos.CodeGeneratorResponse.File;
@@ -37,20 +44,29 @@ import io.spine.code.proto.FileSet;
 import io.spine.code.proto.TypeSet;
 import io.spine.tools.type.MoreKnownTypes;
 import io.spine.type.Type;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
-import static com.google.common.collect.Lists.newArrayListWithExpectedSize;
-import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.partitioningBy;
-import static java.util.stream.Collectors.reducing;
-import static java.util.stream.Collectors.toList;
-import static java.util.stream.Collectors.toSet;
+import static io.spine.util.Exceptions.newIllegalStateException;
 
 /**
  * An abstract base for the Protobuf to Java code generator.
@@ -87,6 +103,16 @@ import static java.util.stream.Collectors.toSet;
  */
 public abstract class CodeGenerator {
 
+    /**
+     * Hashes of the proto files which types are registered as known types.
+     *
+     * <p>A plugin {@linkplain PluginDaemon daemon} processes many requests which share
+     * the dependencies. The types of such dependencies are registered only once. The files are
+     * identified by their content rather than by name, so a file edited between the requests
+     * is registered again.
+     */
+    private static final Set<HashCode> registeredFiles = ConcurrentHashMap.newKeySet();
+
     protected CodeGenerator() {
     }
 
@@ -109,16 +135,221 @@ public abstract class CodeGenerator {
      * @see #generate Javadoc for generate(...) for more detailed description
      */
     public final CodeGeneratorResponse process(CodeGeneratorRequest request) {
+        return process(request, GeneratedCodeCache.disabled());
+    }
+
+    /**
+     * Processes the given compiler request reusing the code cached for the proto files.
+     *
+     * @see #process(CodeGeneratorRequest, GeneratedCodeCache, Consumer)
+     */
+    final CodeGeneratorResponse process(CodeGeneratorRequest request, GeneratedCodeCache cache) {
+        var response = CodeGeneratorResponse.newBuilder();
+        process(request, cache, response::addFile);
+        return response.build();
+    }
+
+    /**
+     * Processes the given compiler request passing the generated files to the given consumer.
+     *
+     * <p>The generators run only for the proto files which are not found in the cache. The code
+     * generated for them is stored in the cache. If the generator allows
+     * {@linkplain #parallelism() parallel} generation, the types of all such files are generated
+     * by a single pool of threads created for the request.
+     *
+     * <p>The code generated for each proto file is merged and passed to the consumer in
+     * the order of the request, as soon as all the types of the file are processed. So
+     * the generated code does not have to be kept in memory until the whole request is
+     * processed. The files passed to the consumer earlier are not passed again.
+     *
+     * <p>The code is obtained for at most {@linkplain #parallelism() parallelism} proto files
+     * ahead of the consumer, whether it is generated or read from the cache. The next file is
+     * scheduled once the consumer gets the code of the earliest one.
+     */
+    final void process(CodeGeneratorRequest request,
+                       GeneratedCodeCache cache,
+                       Consumer<File> consumer) {
         checkNotNull(request);
+        checkNotNull(cache);
+        checkNotNull(consumer);
         checkNotEmpty(request);
         checkCompilerVersion(request);
-        var fileSet = FileSet.of(request.getProtoFileList());
-        MoreKnownTypes.extendWith(fileSet);
+        var protoFiles = requestedWithImports(request);
+        var fileSet = FileSet.of(protoFiles);
+        registerKnownTypes(protoFiles, fileSet);
         var requestedFileNames = toFileNames(request);
-        var requestedFiles = fileSet.find(requestedFileNames);
-        var typeSet = TypeSet.from(requestedFiles);
-        var response = process(typeSet);
-        return response;
+        var requestedFiles = fileSet.find(requestedFileNames)
+                                    .files();
+        var requestedNames = requestedFiles.stream()
+                                           .map(FileDescriptor::getName)
+                                           .collect(toImmutableSet());
+        prepare(requestedNames);
+        var parallelism = parallelism();
+        var pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        var window = Math.max(parallelism, 1);
+        try {
+            Deque<Supplier<List<File>>> inFlight = new ArrayDeque<>();
+            var remaining = requestedFiles.iterator();
+            Set<HashCode> passed = new HashSet<>();
+            var profiler = profiler();
+            while (remaining.hasNext() || !inFlight.isEmpty()) {
+                while (inFlight.size() < window && remaining.hasNext()) {
+                    inFlight.add(schedule(remaining.next(), cache, requestedNames, pool));
+                }
+                var files = inFlight.remove()
+                                    .get();
+                var mergingStart = System.nanoTime();
+                var merger = new FileMerger();
+                files.forEach(merger::add);
+                var mergedFiles = merger.merged();
+                profiler.recordMerging(System.nanoTime() - mergingStart);
+                for (var merged : mergedFiles) {
+                    if (passed.add(hashOf(merged))) {
+                        consumer.accept(merged);
+                    }
+                }
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Schedules obtaining the code for the given proto file.
+     *
+     * <p>If the cache has the entry for the file, the entry is read only when the code is
+     * obtained. Otherwise, the generation of the code for the types of the file is
+     * {@linkplain #scheduleGeneration scheduled}.
+     *
+     * @param pool
+     *         the pool to generate the code in, or {@code null} if the code should be generated
+     *         sequentially when it is obtained
+     * @return the supplier of the code for the file
+     */
+    private Supplier<List<File>> schedule(FileDescriptor file,
+                                          GeneratedCodeCache cache,
+                                          ImmutableSet<String> requestedFiles,
+                                          @Nullable ForkJoinPool pool) {
+        var key = cache.keyOf(file, requestedFiles);
+        if (!cache.contains(key)) {
+            return scheduleGeneration(file, key, cache, pool);
+        }
+        return () -> {
+            var cached = cache.find(key);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+            return scheduleGeneration(file, key, cache, null).get();
+        };
+    }
+
+    /**
+     * Schedules the generation of the code for the types of the given proto file.
+     *
+     * <p>The output follows the order of the types, regardless of
+     * the {@linkplain #parallelism() parallelism}. Once obtained, the generated code is stored
+     * in the cache.
+     *
+     * @param pool
+     *         the pool to generate the code in, or {@code null} if the code should be generated
+     *         sequentially when it is obtained
+     * @return the supplier of the code for the file
+     */
+    private Supplier<List<File>> scheduleGeneration(FileDescriptor file,
+                                                    String key,
+                                                    GeneratedCodeCache cache,
+                                                    @Nullable ForkJoinPool pool) {
+        var outputPerType = TypeSet.from(file)
+                                   .allTypes()
+                                   .stream()
+                                   .map(type -> schedule(type, pool))
+                                   .collect(toImmutableList());
+        return () -> {
+            List<File> generated = new ArrayList<>();
+            outputPerType.forEach(output -> output.get()
+                                                  .forEach(o -> generated.add(o.asFile())));
+            cache.store(key, generated);
+            return generated;
+        };
+    }
+
+    private Supplier<Collection<CompilerOutput>> schedule(Type<?, ?> type,
+                                                          @Nullable ForkJoinPool pool) {
+        if (pool == null) {
+            return () -> generate(type);
+        }
+        var task = pool.submit(() -> generate(type));
+        return () -> await(task);
+    }
+
+    private static <T> T await(ForkJoinTask<T> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw newIllegalStateException(e, "Code generation was interrupted.");
+        } catch (ExecutionException e) {
+            var cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw newIllegalStateException(cause, "Unable to generate code.");
+        }
+    }
+
+    private static HashCode hashOf(MessageLite message) {
+        return Hashing.sha256()
+                      .hashBytes(message.toByteArray());
+    }
+
+    /**
+     * Selects the files requested for generation and the files they import, directly or
+     * transitively, from all the files passed in the request.
+     *
+     * <p>Descriptors are built only for the selected files. The selected files keep the order
+     * of the request, so that the imported files precede the importing ones.
+     */
+    @VisibleForTesting
+    static ImmutableList<FileDescriptorProto> requestedWithImports(CodeGeneratorRequest request) {
+        Map<String, FileDescriptorProto> byName = new HashMap<>();
+        request.getProtoFileList()
+               .forEach(file -> byName.put(file.getName(), file));
+        Set<String> selected = new HashSet<>();
+        Deque<String> toVisit = new ArrayDeque<>(request.getFileToGenerateList());
+        while (!toVisit.isEmpty()) {
+            var name = toVisit.pop();
+            var file = byName.get(name);
+            if (file != null && selected.add(name)) {
+                toVisit.addAll(file.getDependencyList());
+            }
+        }
+        return request.getProtoFileList()
+                      .stream()
+                      .filter(file -> selected.contains(file.getName()))
+                      .collect(toImmutableList());
+    }
+
+    /**
+     * Registers the types declared in the given files as known types, unless the types of
+     * all the files are already registered by a previous request.
+     *
+     * @return {@code true} if the types were registered, {@code false} if all the files
+     *         were registered before
+     */
+    @VisibleForTesting
+    @CanIgnoreReturnValue
+    static boolean registerKnownTypes(List<FileDescriptorProto> files, FileSet fileSet) {
+        var fileHashes = files.stream()
+                              .map(CodeGenerator::hashOf)
+                              .collect(toImmutableSet());
+        if (registeredFiles.containsAll(fileHashes)) {
+            return false;
+        }
+        MoreKnownTypes.extendWith(fileSet);
+        registeredFiles.addAll(fileHashes);
+        return true;
     }
 
     private static ImmutableSet<FileName> toFileNames(CodeGeneratorRequest request) {
@@ -157,26 +388,38 @@ public abstract class CodeGenerator {
     }
 
     /**
-     * Processes all passed proto files.
+     * Prepares this generator for processing a compiler request.
+     *
+     * <p>Is called once per request, before the code is generated for any of the types.
+     * Generators which refer to the code generated for other types may override this method to
+     * find out which proto files are processed along with each other.
+     *
+     * <p>Does nothing by default.
+     *
+     * @param requestedFiles
+     *         the names of the proto files for which the code is generated
      */
-    private CodeGeneratorResponse process(TypeSet types) {
-        var rawOutput = generate(types);
-        Collection<File> mergedFiles = mergeFiles(rawOutput);
-        var response = CodeGeneratorResponse.newBuilder()
-                .addAllFile(mergedFiles)
-                .build();
-        return response;
+    protected void prepare(ImmutableSet<String> requestedFiles) {
+        // No preparation needed by default.
     }
 
     /**
-     * Generates code for the supplied types.
+     * Obtains the maximum number of types for which the code may be generated simultaneously.
+     *
+     * <p>By default, the types are processed one by one. Generators which are safe to use from
+     * several threads may override this method.
+     */
+    protected int parallelism() {
+        return 1;
+    }
+
+    /**
+     * Obtains the profiler which records the code generation.
+     *
+     * <p>By default, the code generation is not profiled.
      */
-    private Set<CompilerOutput> generate(TypeSet types) {
-        return types.allTypes()
-                    .stream()
-                    .map(this::generate)
-                    .flatMap(Collection::stream)
-                    .collect(toSet());
+    GenerationProfiler profiler() {
+        return GenerationProfiler.disabled();
     }
 
     /**
@@ -189,41 +432,4 @@ public abstract class CodeGenerator {
                       getClass().getName());
     }
 
-    private static List<File> mergeFiles(Collection<CompilerOutput> allFiles) {
-        var partitionedFiles = allFiles.stream()
-                .map(CompilerOutput::asFile)
-                .collect(partitioningBy(File::hasInsertionPoint));
-        var insertionPoints = mergeInsertionPoints(partitionedFiles.get(true));
-        var completeFiles = partitionedFiles.get(false);
-
-        List<File> merged = newArrayListWithExpectedSize(allFiles.size());
-        merged.addAll(insertionPoints);
-        merged.addAll(completeFiles);
-
-        return merged;
-    }
-
-    private static List<File> mergeInsertionPoints(Collection<File> insertionPoints) {
-        var emptyFile = File.getDefaultInstance();
-        var merged = insertionPoints.stream()
-                .collect(groupingBy(File::getInsertionPoint, reducing(CodeGenerator::joinContent)))
-                .values()
-                .stream()
-                .map(file -> file.orElse(emptyFile))
-                .collect(toList());
-        return merged;
-    }
-
-    /**
-     * Reduces two {@code File}s to one by joining their content.
-     *
-     * <p>The resulting file is the copy of the first ({@code left}) file, except that its content
-     * is appended with the content of the second ({@code right}) file. There is a new line symbol
-     * between the contents of the {@code left} and the {@code right} file.
-     */
-    private static File joinContent(File left, File right) {
-        return left.toBuilder()
-                .setContent(left.getContent() + System.lineSeparator() + right.getContent())
-                .build();
-    }
 }
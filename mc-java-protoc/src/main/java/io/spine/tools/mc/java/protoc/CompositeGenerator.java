@@ -30,31 +30,77 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import io.spine.type.Type;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
 
 /**
  * A generator which calls other generators and merges their results.
+ *
+ * <p>By default, the types are processed sequentially. The composite generator may be configured
+ * to {@linkplain #withParallelism(int) process several types at a time}.
  */
 public final class CompositeGenerator extends CodeGenerator {
 
     private final ImmutableList<? extends CodeGenerator> generators;
+    private final int parallelism;
+    private final GenerationProfiler profiler;
 
     public static CompositeGenerator of(CodeGenerator... gen) {
         checkNotNull(gen);
         var generators = ImmutableList.copyOf(gen);
-        return new CompositeGenerator(generators);
+        return new CompositeGenerator(generators, 1, GenerationProfiler.disabled());
     }
 
-    private CompositeGenerator(ImmutableList<CodeGenerator> generators) {
+    private CompositeGenerator(ImmutableList<? extends CodeGenerator> generators,
+                               int parallelism,
+                               GenerationProfiler profiler) {
         super();
         this.generators = generators;
+        this.parallelism = parallelism;
+        this.profiler = profiler;
+    }
+
+    /**
+     * Creates a copy of this generator which processes up to {@code parallelism} types
+     * at a time.
+     *
+     * <p>Values less than {@code 2} make the generator process types sequentially.
+     */
+    public CompositeGenerator withParallelism(int parallelism) {
+        checkArgument(parallelism >= 0,
+                      "Parallelism must not be negative, got `%s`.", parallelism);
+        return new CompositeGenerator(generators, Math.max(parallelism, 1), profiler);
+    }
+
+    /**
+     * Creates a copy of this generator which records the work of each of the generators
+     * with the given profiler.
+     */
+    CompositeGenerator withProfiler(GenerationProfiler profiler) {
+        checkNotNull(profiler);
+        return new CompositeGenerator(generators, parallelism, profiler);
+    }
+
+    @Override
+    protected void prepare(ImmutableSet<String> requestedFiles) {
+        generators.forEach(gen -> gen.prepare(requestedFiles));
+    }
+
+    @Override
+    protected int parallelism() {
+        return parallelism;
+    }
+
+    @Override
+    GenerationProfiler profiler() {
+        return profiler;
     }
 
     @Override
     protected ImmutableSet<CompilerOutput> generate(Type<?, ?> type) {
         var output = generators.stream()
-                .flatMap(gen -> gen.generate(type).stream())
+                .flatMap(gen -> profiler.generate(gen, type).stream())
                 .collect(toImmutableSet());
         return output;
     }
@@ -26,6 +26,7 @@
 
 package io.spine.tools.mc.java.protoc;
 
+import io.spine.tools.mc.java.codegen.CodegenOptions;
 import io.spine.tools.mc.java.codegen.Entities;
 import io.spine.type.MessageType;
 
@@ -34,6 +35,7 @@ import java.util.function.Function;
 import java.util.function.Predicate;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 
 /**
  * A predicate which checks if a {@link MessageType} represents an entity state type.
@@ -44,16 +46,38 @@ public final class EntityMatcher implements Predicate<MessageType> {
 
     private final Predicate<MessageType> matcher;
 
+    /**
+     * Creates a matcher which compiles the patterns of the given entities on its own.
+     */
     public EntityMatcher(Entities entities) {
+        this(entities, PatternIndex.of(CodegenOptions.newBuilder()
+                                                     .setEntities(checkNotNull(entities))
+                                                     .build()));
+    }
+
+    /**
+     * Creates a matcher which evaluates the file patterns of the given entities with
+     * the given index.
+     */
+    public EntityMatcher(Entities entities, PatternIndex index) {
         checkNotNull(entities);
+        checkNotNull(index);
         matcher = matchAgainst(entities.getOptionList(), OptionMatcher::new)
-                .or(matchAgainst(entities.getPatternList(), FilePatternMatcher::new));
+                .or(matchAgainst(entities.getPatternList(),
+                                 pattern -> new FilePatternMatcher(pattern, index)));
     }
 
+    /**
+     * Creates a predicate which accepts a type if it matches any of the given criteria.
+     *
+     * <p>The matchers for the criteria are created once, when the predicate is created.
+     */
     private static <T> Predicate<MessageType>
     matchAgainst(List<T> criteria, Function<T, Predicate<MessageType>> newMatcher) {
-        return type -> criteria.stream()
-                               .map(newMatcher)
+        var matchers = criteria.stream()
+                .map(newMatcher)
+                .collect(toImmutableList());
+        return type -> matchers.stream()
                                .anyMatch(matcher -> matcher.test(type));
     }
 
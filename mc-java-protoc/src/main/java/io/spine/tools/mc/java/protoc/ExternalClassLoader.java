@@ -26,8 +26,11 @@
 
 package io.spine.tools.mc.java.protoc;
 
+import com.google.common.collect.ImmutableList;
 import io.spine.logging.Logging;
 import io.spine.tools.java.code.Classpath;
+import io.spine.tools.mc.java.codegen.FactoryLocation;
+import io.spine.tools.mc.java.codegen.NotShareable;
 import org.checkerframework.checker.signature.qual.FullyQualifiedName;
 
 import java.io.File;
@@ -36,7 +39,14 @@ import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
+import static com.google.common.base.Preconditions.checkNotNull;
 import static io.spine.util.Exceptions.newIllegalArgumentException;
 import static io.spine.util.Preconditions2.checkNotEmptyOrBlank;
 
@@ -44,43 +54,109 @@ import static io.spine.util.Preconditions2.checkNotEmptyOrBlank;
  * A utility for instantiating a particular class from its {@linkplain FullyQualifiedName FQN}
  * using the specified classpath.
  *
+ * <p>The loaded classes are cached, so each class is looked up only once per loader.
+ *
+ * <p>The loader also caches the instances obtained via {@link #instance(String)}. Since
+ * the loader lives as long as the plugin run, each factory is created only once and then reused
+ * for all the types it is applied to.
+ *
  * @param <T>
  *         the loaded class
  */
 public final class ExternalClassLoader<T> implements Logging {
 
+    /**
+     * The total time spent loading and instantiating classes by all the loaders.
+     */
+    private static final LongAdder loadingNanos = new LongAdder();
+
     private final ClassLoader classLoader;
     private final Class<T> loadedClass;
+    private final Map<String, Class<T>> classes = new ConcurrentHashMap<>();
+    private final Map<Class<T>, T> instances = new ConcurrentHashMap<>();
 
     public ExternalClassLoader(Classpath classpath, Class<T> loadedClass) {
-        this.classLoader = classLoader(classpath);
-        this.loadedClass = loadedClass;
+        this(classpath, ImmutableList.of(), loadedClass);
+    }
+
+    /**
+     * Creates a new loader with the known locations of the loaded classes.
+     *
+     * <p>The classpath entries which contain the given classes are searched first, so that
+     * loading such a class does not open other entries of the classpath.
+     */
+    public ExternalClassLoader(Classpath classpath,
+                               List<FactoryLocation> locations,
+                               Class<T> loadedClass) {
+        checkNotNull(classpath);
+        checkNotNull(locations);
+        this.classLoader = classLoader(classpath, locations);
+        this.loadedClass = checkNotNull(loadedClass);
     }
 
+    /**
+     * Creates a new instance of the class with the given name.
+     */
     public T newInstance(@FullyQualifiedName String className) {
         checkNotEmptyOrBlank(className);
         var result = from(className);
         return result;
     }
 
+    /**
+     * Obtains an instance of the class with the given name.
+     *
+     * <p>The instance is created once and returned on subsequent calls with the same name.
+     * If the class is marked as {@link NotShareable}, a new instance is created on each call.
+     */
+    public T instance(@FullyQualifiedName String className) {
+        checkNotEmptyOrBlank(className);
+        var clazz = loadClass(className);
+        if (clazz.isAnnotationPresent(NotShareable.class)) {
+            return instantiate(clazz);
+        }
+        var result = instances.computeIfAbsent(clazz, this::instantiate);
+        return result;
+    }
+
     /**
      * Instantiates the class defined by the specified fully-qualified name.
      */
     private T from(String fqn) {
         var clazz = loadClass(fqn);
+        return instantiate(clazz);
+    }
+
+    /**
+     * Obtains the total time in nanoseconds spent loading and instantiating classes by
+     * all the loaders since the start of the JVM.
+     */
+    static long loadingNanos() {
+        return loadingNanos.sum();
+    }
+
+    private T instantiate(Class<T> clazz) {
+        var start = System.nanoTime();
         try {
             var instance = clazz.getConstructor().newInstance();
             return instance;
         } catch (InstantiationException | IllegalAccessException
                 | NoSuchMethodException | InvocationTargetException e) {
+            var fqn = clazz.getName();
             _error().withCause(e)
                     .log("Unable to instantiate the class `%s`.", fqn);
             throw new ClassInstantiationException(fqn, e);
+        } finally {
+            loadingNanos.add(System.nanoTime() - start);
         }
     }
 
-    @SuppressWarnings("unchecked") // The class is already checked to be assignable during the cast.
     private Class<T> loadClass(String fqn) {
+        return classes.computeIfAbsent(fqn, this::checkedClass);
+    }
+
+    @SuppressWarnings("unchecked") // The class is already checked to be assignable during the cast.
+    private Class<T> checkedClass(String fqn) {
         var factory = classByFqn(fqn);
         if (loadedClass.isAssignableFrom(factory)) {
             return (Class<T>) factory;
@@ -90,6 +166,7 @@ public final class ExternalClassLoader<T> implements Logging {
     }
 
     private Class<?> classByFqn(String fqn) {
+        var start = System.nanoTime();
         try {
             var factory = classLoader.loadClass(fqn);
             return factory;
@@ -97,24 +174,28 @@ public final class ExternalClassLoader<T> implements Logging {
             _error().withCause(e)
                     .log("Unable to resolve the class `%s`.", fqn);
             throw new ClassInstantiationException(fqn, e);
+        } finally {
+            loadingNanos.add(System.nanoTime() - start);
         }
     }
 
-    private static ClassLoader classLoader(Classpath factoryClasspath) {
+    private static ClassLoader classLoader(Classpath factoryClasspath,
+                                           List<FactoryLocation> locations) {
         var currentClassLoader = Thread.currentThread().getContextClassLoader();
-        var classPathUrls = classPathUrls(factoryClasspath);
+        var classPathUrls = classPathUrls(factoryClasspath, locations);
         var loader = URLClassLoader.newInstance(classPathUrls, currentClassLoader);
         return loader;
     }
 
-    private static URL[] classPathUrls(Classpath classpath) {
-        return classpath
-                .getJarList()
-                .stream()
-                .map(File::new)
-                .map(File::toURI)
-                .map(ExternalClassLoader::toUrl)
-                .toArray(URL[]::new);
+    private static URL[] classPathUrls(Classpath classpath, List<FactoryLocation> locations) {
+        Set<String> entries = new LinkedHashSet<>();
+        locations.forEach(location -> entries.add(location.getEntry()));
+        entries.addAll(classpath.getJarList());
+        return entries.stream()
+                      .map(File::new)
+                      .map(File::toURI)
+                      .map(ExternalClassLoader::toUrl)
+                      .toArray(URL[]::new);
     }
 
     private static URL toUrl(URI uri) {
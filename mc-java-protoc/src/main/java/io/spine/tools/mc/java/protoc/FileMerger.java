@@ -0,0 +1,114 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.protoc;
+
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.compiler.PluginProtos.CodeGeneratorResponse.File;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Merges the files generated by the code generators into the files of
+ * the {@code CodeGeneratorResponse}.
+ *
+ * <p>The contributions to the same insertion point of the same file are joined into one file.
+ * The content of each insertion point is accumulated in a single {@code StringBuilder}, so
+ * the merging takes linear time.
+ *
+ * <p>The contributions are kept in the order in which they are {@linkplain #add(File) added}.
+ * The code generators add them in the order of the types and the generators, so the merged
+ * output is the same on every run. Contributions with the same content are included once.
+ *
+ * <p>The merged insertion points go first, followed by the complete files.
+ */
+final class FileMerger {
+
+    private final Map<String, Contribution> insertionPoints = new LinkedHashMap<>();
+    private final Map<String, File> completeFiles = new LinkedHashMap<>();
+
+    /**
+     * Adds the given generated file to the merged output.
+     */
+    void add(File file) {
+        checkNotNull(file);
+        if (file.hasInsertionPoint()) {
+            var key = file.getName() + '\n' + file.getInsertionPoint();
+            insertionPoints.computeIfAbsent(key, k -> new Contribution(file))
+                           .append(file.getContent());
+        } else {
+            var key = file.getName() + '\n' + file.getContent();
+            completeFiles.putIfAbsent(key, file);
+        }
+    }
+
+    /**
+     * Obtains the merged files.
+     */
+    ImmutableList<File> merged() {
+        var result = ImmutableList.<File>builderWithExpectedSize(
+                insertionPoints.size() + completeFiles.size()
+        );
+        insertionPoints.values()
+                       .forEach(contribution -> result.add(contribution.toFile()));
+        result.addAll(completeFiles.values());
+        return result.build();
+    }
+
+    /**
+     * The content accumulated for an insertion point of a file.
+     */
+    private static final class Contribution {
+
+        private final File first;
+        private final StringBuilder content = new StringBuilder();
+        private final Set<String> parts = new HashSet<>();
+
+        private Contribution(File first) {
+            this.first = first;
+        }
+
+        private void append(String part) {
+            if (parts.add(part)) {
+                if (parts.size() > 1) {
+                    content.append(System.lineSeparator());
+                }
+                content.append(part);
+            }
+        }
+
+        private File toFile() {
+            return first.toBuilder()
+                        .setContent(content.toString())
+                        .build();
+        }
+    }
+}
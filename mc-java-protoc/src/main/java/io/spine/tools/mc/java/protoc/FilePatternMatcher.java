@@ -31,35 +31,47 @@ import io.spine.validation.FilePattern;
 
 import java.util.function.Predicate;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * {@link FilePattern} predicate that returns {@code true} if supplied Protobuf
  * {@link MessageType type} matches pattern's value.
+ *
+ * <p>The pattern is compiled and evaluated by a {@link PatternIndex}, which may be shared by all
+ * the matchers created for a code generation request.
  */
 public final class FilePatternMatcher implements Predicate<MessageType> {
 
     private final FilePattern pattern;
+    private final PatternIndex index;
 
+    /**
+     * Creates a matcher which compiles the given pattern on its own.
+     */
     public FilePatternMatcher(FilePattern filePattern) {
+        this(filePattern, PatternIndex.of(checkNotNull(filePattern)));
+    }
+
+    /**
+     * Creates a matcher which evaluates the given pattern with the given index.
+     *
+     * @throws IllegalArgumentException
+     *         if the pattern is not present in the index
+     */
+    public FilePatternMatcher(FilePattern filePattern, PatternIndex index) {
         checkNotNull(filePattern);
+        checkNotNull(index);
+        checkArgument(index.contains(filePattern),
+                      "The file pattern `%s` is not indexed.", filePattern);
         this.pattern = filePattern;
+        this.index = index;
     }
 
     @Override
     public boolean test(MessageType type) {
         checkNotNull(type);
-        var protoFileName = type.declaringFileName().value();
-        switch (pattern.getKindCase()) {
-            case SUFFIX:
-                return protoFileName.endsWith(pattern.getSuffix());
-            case PREFIX:
-                return protoFileName.startsWith(pattern.getPrefix());
-            case REGEX:
-                return protoFileName.matches(pattern.getRegex());
-            case KIND_NOT_SET:
-            default:
-                return false;
-        }
+        return index.filePatternsMatching(type)
+                    .contains(pattern);
     }
 }
@@ -0,0 +1,474 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.protoc;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.protobuf.Descriptors.FileDescriptor;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.compiler.PluginProtos.CodeGeneratorResponse;
+import com.google.protobuf.compiler.PluginProtos.CodeGeneratorResponse.File;
+import io.spine.logging.Logging;
+import io.spine.tools.gradle.DependencyVersions;
+import io.spine.tools.gradle.ThirdPartyDependency;
+import io.spine.tools.mc.java.codegen.CodegenOptions;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.spine.tools.gradle.Artifact.SPINE_TOOLS_GROUP;
+import static io.spine.util.Exceptions.newIllegalStateException;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Comparator.comparing;
+
+/**
+ * An on-disk cache of the code generated for proto files.
+ *
+ * <p>An entry of the cache is addressed by the hash of a proto file with all its transitive
+ * dependencies, the version of the plugin, and the code generation settings. The entry stores
+ * the {@linkplain File files} generated for the types declared in the proto file, before
+ * they are merged into the response.
+ *
+ * <p>Each entry is stored in a separate file. The entries which are read or written get
+ * the current time as the last modification time. When the cache is {@linkplain #close() closed},
+ * the least recently used entries are removed until the total size of the entries fits
+ * into the limit.
+ *
+ * <p>Failures to read or write the cache are not fatal: a broken entry is treated as
+ * a cache miss.
+ */
+final class GeneratedCodeCache implements Logging {
+
+    private static final String EXTENSION = ".pb";
+    private static final String TEMP_EXTENSION = ".tmp";
+    private static final String PLUGIN_ARTIFACT = "spine-mc-java-protoc";
+
+    /**
+     * The age after which a temporary file is considered to be left by a crashed write.
+     *
+     * <p>Younger temporary files may be being written by a concurrent build.
+     */
+    private static final Duration STALE_TEMP_FILE_AGE = Duration.ofHours(1);
+    private static final GeneratedCodeCache DISABLED = new GeneratedCodeCache(null, 0, new byte[0]);
+
+    private final @Nullable Path dir;
+    private final long maxSize;
+    private final byte[] salt;
+    private final Map<String, HashCode> fileHashes = new HashMap<>();
+    private int hits;
+    private int misses;
+    private int evicted;
+
+    private GeneratedCodeCache(@Nullable Path dir, long maxSize, byte[] salt) {
+        this.dir = dir;
+        this.maxSize = maxSize;
+        this.salt = salt;
+    }
+
+    /**
+     * Obtains the cache which stores nothing.
+     */
+    static GeneratedCodeCache disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Creates the cache configured by the given code generation settings.
+     *
+     * <p>If the settings do not enable the cache, returns the {@linkplain #disabled() disabled}
+     * cache.
+     */
+    static GeneratedCodeCache of(CodegenOptions options) {
+        checkNotNull(options);
+        if (!options.hasCache()) {
+            return disabled();
+        }
+        var settings = options.getCache();
+        var dir = Paths.get(settings.getDir());
+        return new GeneratedCodeCache(dir, settings.getMaxSize(), saltOf(options));
+    }
+
+    /**
+     * Calculates the part of the entry key which is common for all the proto files.
+     *
+     * <p>The salt covers the version of the plugin, the settings which affect the generated code,
+     * and the state of the classpath from which the code generation factories are loaded.
+     */
+    private static byte[] saltOf(CodegenOptions options) {
+        var hasher = Hashing.sha256().newHasher();
+        putPluginVersion(hasher);
+        var codegenSettings = options.toBuilder()
+                .clearParallelism()
+                .clearCache()
+                .clearProfile()
+                .build();
+        hasher.putBytes(codegenSettings.toByteArray());
+        for (var entry : options.getClasspath().getJarList()) {
+            putFingerprint(hasher, Paths.get(entry));
+        }
+        return hasher.hash().asBytes();
+    }
+
+    /**
+     * Adds the version of the plugin to the salt.
+     *
+     * <p>The version is read from the same resource the Gradle plugin uses to resolve
+     * the artifact of this plugin. If the version is not available, e.g. when the plugin is run
+     * from the build output of this project, the code of the plugin is fingerprinted instead.
+     */
+    private static void putPluginVersion(Hasher hasher) {
+        var self = new ThirdPartyDependency(SPINE_TOOLS_GROUP, PLUGIN_ARTIFACT);
+        var version = DependencyVersions.loadFor(PLUGIN_ARTIFACT)
+                                        .versionOf(self);
+        if (version.isPresent()) {
+            hasher.putString(version.get(), UTF_8);
+        } else {
+            putFingerprint(hasher, pluginLocation());
+        }
+    }
+
+    private static Path pluginLocation() {
+        try {
+            var location = Plugin.class.getProtectionDomain()
+                                       .getCodeSource()
+                                       .getLocation();
+            return Paths.get(location.toURI());
+        } catch (URISyntaxException e) {
+            throw newIllegalStateException(e, "Unable to locate the plugin code.");
+        }
+    }
+
+    /**
+     * Adds the state of the given classpath entry to the salt.
+     *
+     * <p>A JAR is described by its size and the time of the last modification. A directory is
+     * described by the relative paths, the sizes, and the modification times of all the files
+     * in it, so that a recompiled class changes the salt.
+     *
+     * <p>An entry which cannot be read is marked as such, so the failure is not fatal.
+     */
+    private static void putFingerprint(Hasher hasher, Path entry) {
+        hasher.putString(entry.toString(), UTF_8);
+        if (Files.isDirectory(entry)) {
+            try (var files = Files.walk(entry)) {
+                files.filter(Files::isRegularFile)
+                     .sorted()
+                     .forEach(file -> {
+                         hasher.putString(entry.relativize(file).toString(), UTF_8);
+                         putSizeAndTime(hasher, file);
+                     });
+            } catch (IOException | UncheckedIOException e) {
+                hasher.putLong(-1L);
+            }
+        } else {
+            putSizeAndTime(hasher, entry);
+        }
+    }
+
+    private static void putSizeAndTime(Hasher hasher, Path file) {
+        try {
+            hasher.putLong(Files.size(file))
+                  .putLong(Files.getLastModifiedTime(file).toMillis());
+        } catch (IOException e) {
+            hasher.putLong(-1L);
+        }
+    }
+
+    /**
+     * Tells if this cache stores the generated code.
+     */
+    boolean isEnabled() {
+        return dir != null;
+    }
+
+    /**
+     * Calculates the key of the entry for the given proto file.
+     *
+     * <p>For the disabled cache returns an empty string.
+     */
+    String keyOf(FileDescriptor file) {
+        return keyOf(file, ImmutableSet.of());
+    }
+
+    /**
+     * Calculates the key of the entry for the given proto file generated along with
+     * the files with the given names.
+     *
+     * <p>The key reflects which dependencies of the file are generated along with it, since
+     * the code generated for the file may refer to the code generated for them.
+     *
+     * <p>For the disabled cache returns an empty string.
+     */
+    String keyOf(FileDescriptor file, Set<String> requestedFiles) {
+        checkNotNull(file);
+        checkNotNull(requestedFiles);
+        if (!isEnabled()) {
+            return "";
+        }
+        var hasher = Hashing.sha256().newHasher();
+        hasher.putBytes(salt);
+        for (var included : withDependencies(file)) {
+            hasher.putBytes(hashOf(included).asBytes());
+            hasher.putBoolean(requestedFiles.contains(included.getName()));
+        }
+        return hasher.hash().toString();
+    }
+
+    private HashCode hashOf(FileDescriptor file) {
+        return fileHashes.computeIfAbsent(
+                file.getFullName(),
+                name -> Hashing.sha256().hashBytes(file.toProto().toByteArray())
+        );
+    }
+
+    private static Set<FileDescriptor> withDependencies(FileDescriptor file) {
+        Set<FileDescriptor> result = new LinkedHashSet<>();
+        collect(file, result);
+        return result;
+    }
+
+    private static void collect(FileDescriptor file, Set<FileDescriptor> result) {
+        if (result.add(file)) {
+            for (var dependency : file.getDependencies()) {
+                collect(dependency, result);
+            }
+        }
+    }
+
+    /**
+     * Tells if this cache has an entry with the given key, without reading the entry.
+     *
+     * <p>The entry may still turn out to be broken when it is {@linkplain #find(String) read}.
+     */
+    boolean contains(String key) {
+        checkNotNull(key);
+        return isEnabled() && Files.exists(entry(key));
+    }
+
+    /**
+     * Obtains the files stored under the given key.
+     *
+     * @return the cached files or {@code Optional.empty()} if the cache does not have
+     *         the entry with the given key
+     */
+    Optional<ImmutableList<File>> find(String key) {
+        checkNotNull(key);
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        var entry = entry(key);
+        if (!Files.exists(entry)) {
+            misses++;
+            return Optional.empty();
+        }
+        try {
+            var response = CodeGeneratorResponse.parseFrom(Files.readAllBytes(entry));
+            touch(entry);
+            hits++;
+            return Optional.of(ImmutableList.copyOf(response.getFileList()));
+        } catch (InvalidProtocolBufferException e) {
+            _warn().withCause(e)
+                   .log("Discarding the broken cache entry `%s`.", entry);
+            deleteQuietly(entry);
+        } catch (IOException e) {
+            _warn().withCause(e)
+                   .log("Unable to read the cache entry `%s`.", entry);
+        }
+        misses++;
+        return Optional.empty();
+    }
+
+    /**
+     * Stores the given files under the given key.
+     */
+    void store(String key, List<File> files) {
+        checkNotNull(key);
+        checkNotNull(files);
+        if (!isEnabled()) {
+            return;
+        }
+        var entry = entry(key);
+        var content = CodeGeneratorResponse.newBuilder()
+                .addAllFile(files)
+                .build();
+        try {
+            Files.createDirectories(dir);
+            var temp = Files.createTempFile(dir, key, TEMP_EXTENSION);
+            Files.write(temp, content.toByteArray());
+            Files.move(temp, entry, ATOMIC_MOVE, REPLACE_EXISTING);
+        } catch (IOException e) {
+            _warn().withCause(e)
+                   .log("Unable to write the cache entry `%s`.", entry);
+        }
+    }
+
+    /**
+     * Removes the least recently used entries which do not fit into the size limit.
+     *
+     * <p>Also removes the temporary files left by the writes which did not complete within
+     * an {@linkplain #STALE_TEMP_FILE_AGE hour}.
+     */
+    void close() {
+        if (!isEnabled() || !Files.isDirectory(dir)) {
+            return;
+        }
+        deleteStaleTempFiles();
+        var entries = entries();
+        var totalSize = entries.stream()
+                               .mapToLong(Entry::size)
+                               .sum();
+        entries.sort(comparing(Entry::lastUsed));
+        for (var entry : entries) {
+            if (totalSize <= maxSize) {
+                break;
+            }
+            if (deleteQuietly(entry.path())) {
+                totalSize -= entry.size();
+                evicted++;
+            }
+        }
+    }
+
+    /**
+     * Obtains the line describing the usage of the cache during this run.
+     */
+    String stats() {
+        return String.format(
+                "Spine Protoc Plugin cache: %d hits, %d misses, %d evicted.",
+                hits, misses, evicted
+        );
+    }
+
+    private Path entry(String key) {
+        return dir.resolve(key + EXTENSION);
+    }
+
+    private List<Entry> entries() {
+        return filesWithExtension(EXTENSION);
+    }
+
+    private void deleteStaleTempFiles() {
+        var staleBefore = FileTime.from(Instant.now()
+                                               .minus(STALE_TEMP_FILE_AGE));
+        for (var temp : filesWithExtension(TEMP_EXTENSION)) {
+            if (temp.lastUsed().compareTo(staleBefore) < 0) {
+                deleteQuietly(temp.path());
+            }
+        }
+    }
+
+    private List<Entry> filesWithExtension(String extension) {
+        List<Entry> result = new ArrayList<>();
+        try (var files = Files.list(dir)) {
+            files.filter(file -> file.getFileName()
+                                     .toString()
+                                     .endsWith(extension))
+                 .forEach(file -> readEntry(file).ifPresent(result::add));
+        } catch (IOException e) {
+            _warn().withCause(e)
+                   .log("Unable to list the cache files in `%s`.", dir);
+        }
+        return result;
+    }
+
+    private static Optional<Entry> readEntry(Path file) {
+        try {
+            var entry = new Entry(file, Files.size(file), Files.getLastModifiedTime(file));
+            return Optional.of(entry);
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private void touch(Path entry) {
+        try {
+            Files.setLastModifiedTime(entry, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            _debug().withCause(e)
+                    .log("Unable to update the usage time of the cache entry `%s`.", entry);
+        }
+    }
+
+    private boolean deleteQuietly(Path entry) {
+        try {
+            return Files.deleteIfExists(entry);
+        } catch (IOException e) {
+            _warn().withCause(e)
+                   .log("Unable to delete the cache entry `%s`.", entry);
+            return false;
+        }
+    }
+
+    /**
+     * A file in the cache directory.
+     */
+    private static final class Entry {
+
+        private final Path path;
+        private final long size;
+        private final FileTime lastUsed;
+
+        private Entry(Path path, long size, FileTime lastUsed) {
+            this.path = path;
+            this.size = size;
+            this.lastUsed = lastUsed;
+        }
+
+        private Path path() {
+            return path;
+        }
+
+        private long size() {
+            return size;
+        }
+
+        private FileTime lastUsed() {
+            return lastUsed;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.protoc;
+
+import io.spine.tools.mc.java.codegen.CodegenProfile;
+import io.spine.tools.mc.java.codegen.GeneratorProfile;
+import io.spine.tools.mc.java.codegen.TypeProfile;
+import io.spine.type.Type;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.spine.json.Json.toJson;
+import static io.spine.util.Exceptions.newIllegalStateException;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Comparator.comparingLong;
+
+/**
+ * Collects the {@linkplain CodegenProfile profile} of the code generation.
+ *
+ * <p>The profiler is safe to use from several threads, so that the types may be
+ * {@linkplain CodeGenerator#parallelism() processed in parallel}.
+ *
+ * <p>The {@linkplain #disabled() disabled} profiler does not record anything.
+ */
+final class GenerationProfiler {
+
+    /**
+     * The number of the slowest types listed in the profile of a generator.
+     */
+    private static final int SLOWEST_TYPES = 10;
+
+    private static final GenerationProfiler DISABLED = new GenerationProfiler(false);
+
+    private final boolean enabled;
+    private final Map<String, GeneratorStats> generators = new ConcurrentHashMap<>();
+    private final LongAdder mergingNanos = new LongAdder();
+    private final long startNanos = System.nanoTime();
+    private final long startClassLoadingNanos = ExternalClassLoader.loadingNanos();
+
+    private GenerationProfiler(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Obtains the profiler which records nothing.
+     */
+    static GenerationProfiler disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Creates a new profiler which starts counting the time of the plugin run.
+     */
+    static GenerationProfiler start() {
+        return new GenerationProfiler(true);
+    }
+
+    /**
+     * Tells if this profiler records the code generation.
+     */
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Generates code for the given type with the given generator, recording the time,
+     * the allocated memory, and the size of the output.
+     */
+    Collection<CompilerOutput> generate(CodeGenerator generator, Type<?, ?> type) {
+        if (!enabled) {
+            return generator.generate(type);
+        }
+        var event = new GenerationEvent();
+        var allocatedBefore = allocatedBytes();
+        var start = System.nanoTime();
+        event.begin();
+        var output = generator.generate(type);
+        event.end();
+        var nanos = System.nanoTime() - start;
+        var allocated = allocatedBytes() - allocatedBefore;
+        var outputBytes = output.stream()
+                                .mapToLong(o -> o.asFile().getSerializedSize())
+                                .sum();
+        var generatorName = generator.getClass().getSimpleName();
+        var typeName = type.name().value();
+        generators.computeIfAbsent(generatorName, GeneratorStats::new)
+                  .record(typeName, nanos, allocated, outputBytes);
+        if (event.shouldCommit()) {
+            event.generator = generatorName;
+            event.type = typeName;
+            event.allocatedBytes = allocated;
+            event.outputBytes = outputBytes;
+            event.commit();
+        }
+        return output;
+    }
+
+    /**
+     * Records the time spent merging the generated files.
+     */
+    void recordMerging(long nanos) {
+        if (enabled) {
+            mergingNanos.add(nanos);
+        }
+    }
+
+    /**
+     * Obtains the profile recorded so far.
+     */
+    CodegenProfile toProto() {
+        var profile = CodegenProfile.newBuilder()
+                .setClassLoadingNanos(ExternalClassLoader.loadingNanos() - startClassLoadingNanos)
+                .setMergingNanos(mergingNanos.sum())
+                .setTotalNanos(System.nanoTime() - startNanos);
+        generators.values()
+                  .stream()
+                  .map(GeneratorStats::toProto)
+                  .sorted(comparingLong(GeneratorProfile::getWallNanos).reversed())
+                  .forEach(profile::addGenerator);
+        return profile.build();
+    }
+
+    /**
+     * Writes the recorded profile as JSON into the given file.
+     */
+    void writeTo(Path file) {
+        checkNotNull(file);
+        var json = toJson(toProto());
+        try {
+            Files.write(file, json.getBytes(UTF_8));
+        } catch (IOException e) {
+            throw newIllegalStateException(e, "Unable to write the profile to `%s`.", file);
+        }
+    }
+
+    /**
+     * Obtains the number of bytes allocated by the current thread.
+     *
+     * <p>Returns {@code 0} if the JVM does not support measuring the allocated memory.
+     */
+    private static long allocatedBytes() {
+        var threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            var sunThreads = (com.sun.management.ThreadMXBean) threads;
+            if (sunThreads.isThreadAllocatedMemorySupported()
+                    && sunThreads.isThreadAllocatedMemoryEnabled()) {
+                return sunThreads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * The statistics of a single generator.
+     */
+    private static final class GeneratorStats {
+
+        private final String name;
+        private final LongAdder types = new LongAdder();
+        private final LongAdder wallNanos = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final LongAdder outputBytes = new LongAdder();
+        private final List<TypeProfile> slowest = new ArrayList<>();
+
+        private GeneratorStats(String name) {
+            this.name = name;
+        }
+
+        private void record(String type, long nanos, long allocated, long output) {
+            types.increment();
+            wallNanos.add(nanos);
+            allocatedBytes.add(allocated);
+            outputBytes.add(output);
+            recordSlowest(type, nanos);
+        }
+
+        private synchronized void recordSlowest(String type, long nanos) {
+            var last = slowest.size() - 1;
+            if (slowest.size() == SLOWEST_TYPES && slowest.get(last).getWallNanos() >= nanos) {
+                return;
+            }
+            var profile = TypeProfile.newBuilder()
+                    .setType(type)
+                    .setWallNanos(nanos)
+                    .build();
+            slowest.add(profile);
+            slowest.sort(comparingLong(TypeProfile::getWallNanos).reversed());
+            if (slowest.size() > SLOWEST_TYPES) {
+                slowest.remove(SLOWEST_TYPES);
+            }
+        }
+
+        private synchronized GeneratorProfile toProto() {
+            return GeneratorProfile.newBuilder()
+                    .setName(name)
+                    .setTypeCount(types.intValue())
+                    .setWallNanos(wallNanos.sum())
+                    .setAllocatedBytes(allocatedBytes.sum())
+                    .setOutputBytes(outputBytes.sum())
+                    .addAllSlowestType(slowest)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.protoc;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import io.spine.tools.mc.java.codegen.CodegenOptions;
+import io.spine.tools.mc.java.codegen.TypePattern;
+import io.spine.type.MessageType;
+import io.spine.validation.FilePattern;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An index of the file and type patterns used by the code generators.
+ *
+ * <p>The index is compiled once from the {@link CodegenOptions} of a code generation request, and
+ * is shared by all the generators and tasks created for the request. For a given type, all
+ * the patterns are evaluated in a single pass, and the result is reused by all the matchers:
+ * <ul>
+ *     <li>prefix and suffix file patterns are looked up in tries;
+ *     <li>exact type names are looked up in a hash map;
+ *     <li>regular expressions are compiled once.
+ * </ul>
+ *
+ * <p>The index is immutable, except for the cached results of matching, and is safe to use from
+ * several threads.
+ */
+public final class PatternIndex {
+
+    private final ImmutableSet<FilePattern> filePatterns;
+    private final ImmutableSet<TypePattern> typePatterns;
+
+    private final StringTrie<FilePattern> prefixes = StringTrie.forPrefixes();
+    private final StringTrie<FilePattern> suffixes = StringTrie.forSuffixes();
+    private final ImmutableMap<FilePattern, Pattern> fileRegexes;
+    private final ImmutableSetMultimap<String, TypePattern> exactTypes;
+    private final ImmutableMap<TypePattern, Pattern> typeRegexes;
+
+    /**
+     * The results of matching, cached since the same files and types are tested by many
+     * generators.
+     */
+    private final Map<String, ImmutableSet<FilePattern>> matchedFiles = new ConcurrentHashMap<>();
+    private final Map<String, ImmutableSet<TypePattern>> matchedTypes = new ConcurrentHashMap<>();
+
+    private PatternIndex(ImmutableSet<FilePattern> filePatterns,
+                         ImmutableSet<TypePattern> typePatterns) {
+        this.filePatterns = filePatterns;
+        this.typePatterns = typePatterns;
+        var fileRegexes = ImmutableMap.<FilePattern, Pattern>builder();
+        for (var pattern : filePatterns) {
+            switch (pattern.getKindCase()) {
+                case PREFIX:
+                    prefixes.put(pattern.getPrefix(), pattern);
+                    break;
+                case SUFFIX:
+                    suffixes.put(pattern.getSuffix(), pattern);
+                    break;
+                case REGEX:
+                    fileRegexes.put(pattern, Pattern.compile(pattern.getRegex()));
+                    break;
+                case KIND_NOT_SET:
+                default:
+                    break;
+            }
+        }
+        this.fileRegexes = fileRegexes.build();
+        var exactTypes = ImmutableSetMultimap.<String, TypePattern>builder();
+        var typeRegexes = ImmutableMap.<TypePattern, Pattern>builder();
+        for (var pattern : typePatterns) {
+            switch (pattern.getValueCase()) {
+                case EXPECTED_TYPE:
+                    exactTypes.put(pattern.getExpectedType().getValue(), pattern);
+                    break;
+                case REGEX:
+                    typeRegexes.put(pattern, Pattern.compile(pattern.getRegex()));
+                    break;
+                case VALUE_NOT_SET:
+                default:
+                    break;
+            }
+        }
+        this.exactTypes = exactTypes.build();
+        this.typeRegexes = typeRegexes.build();
+    }
+
+    /**
+     * Compiles the index of all the patterns declared in the given options.
+     */
+    public static PatternIndex of(CodegenOptions config) {
+        checkNotNull(config);
+        var filePatterns = ImmutableSet.<FilePattern>builder();
+        var typePatterns = ImmutableSet.<TypePattern>builder();
+        for (var signals : ImmutableSet.of(config.getCommands(),
+                                           config.getEvents(),
+                                           config.getRejections())) {
+            filePatterns.addAll(signals.getPatternList());
+        }
+        filePatterns.addAll(config.getEntities()
+                                  .getPatternList());
+        for (var messages : config.getMessagesList()) {
+            var pattern = messages.getPattern();
+            if (pattern.hasFile()) {
+                filePatterns.add(pattern.getFile());
+            } else if (pattern.hasType()) {
+                typePatterns.add(pattern.getType());
+            }
+        }
+        return new PatternIndex(filePatterns.build(), typePatterns.build());
+    }
+
+    /**
+     * Compiles the index of the single given file pattern.
+     */
+    public static PatternIndex of(FilePattern pattern) {
+        checkNotNull(pattern);
+        return new PatternIndex(ImmutableSet.of(pattern), ImmutableSet.of());
+    }
+
+    /**
+     * Compiles the index of the single given type pattern.
+     */
+    public static PatternIndex of(TypePattern pattern) {
+        checkNotNull(pattern);
+        return new PatternIndex(ImmutableSet.of(), ImmutableSet.of(pattern));
+    }
+
+    /**
+     * Compiles the index of the single given pattern.
+     */
+    public static PatternIndex of(io.spine.tools.mc.java.codegen.Pattern pattern) {
+        checkNotNull(pattern);
+        var filePatterns = pattern.hasFile()
+                           ? ImmutableSet.of(pattern.getFile())
+                           : ImmutableSet.<FilePattern>of();
+        var typePatterns = pattern.hasType()
+                           ? ImmutableSet.of(pattern.getType())
+                           : ImmutableSet.<TypePattern>of();
+        return new PatternIndex(filePatterns, typePatterns);
+    }
+
+    /**
+     * Checks if the given file pattern is indexed.
+     */
+    boolean contains(FilePattern pattern) {
+        return filePatterns.contains(pattern);
+    }
+
+    /**
+     * Checks if the given type pattern is indexed.
+     */
+    boolean contains(TypePattern pattern) {
+        return typePatterns.contains(pattern);
+    }
+
+    /**
+     * Obtains all the indexed file patterns matching the file which declares the given type.
+     */
+    ImmutableSet<FilePattern> filePatternsMatching(MessageType type) {
+        checkNotNull(type);
+        var fileName = type.declaringFileName().value();
+        return matchedFiles.computeIfAbsent(fileName, this::matchFile);
+    }
+
+    private ImmutableSet<FilePattern> matchFile(String fileName) {
+        var result = ImmutableSet.<FilePattern>builder()
+                .addAll(prefixes.match(fileName))
+                .addAll(suffixes.match(fileName));
+        fileRegexes.forEach((pattern, regex) -> {
+            if (regex.matcher(fileName).matches()) {
+                result.add(pattern);
+            }
+        });
+        return result.build();
+    }
+
+    /**
+     * Obtains all the indexed type patterns matching the name of the given type.
+     */
+    ImmutableSet<TypePattern> typePatternsMatching(MessageType type) {
+        checkNotNull(type);
+        var typeName = type.name().value();
+        return matchedTypes.computeIfAbsent(typeName, this::matchType);
+    }
+
+    private ImmutableSet<TypePattern> matchType(String typeName) {
+        var result = ImmutableSet.<TypePattern>builder()
+                .addAll(exactTypes.get(typeName));
+        typeRegexes.forEach((pattern, regex) -> {
+            if (regex.matcher(typeName).matches()) {
+                result.add(pattern);
+            }
+        });
+        return result.build();
+    }
+}
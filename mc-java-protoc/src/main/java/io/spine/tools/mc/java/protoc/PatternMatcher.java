@@ -43,14 +43,25 @@ public final class PatternMatcher implements Predicate<MessageType> {
 
     private final Predicate<MessageType> delegate;
 
+    /**
+     * Creates a matcher which compiles the given pattern on its own.
+     */
     public PatternMatcher(Pattern pattern) {
+        this(pattern, PatternIndex.of(checkNotNull(pattern)));
+    }
+
+    /**
+     * Creates a matcher which evaluates the given pattern with the given index.
+     */
+    public PatternMatcher(Pattern pattern, PatternIndex index) {
         checkNotNull(pattern);
+        checkNotNull(index);
         switch (pattern.getKindCase()) {
             case FILE:
-                delegate = new FilePatternMatcher(pattern.getFile());
+                delegate = new FilePatternMatcher(pattern.getFile(), index);
                 break;
             case TYPE:
-                delegate = new TypePatternMatcher(pattern.getType());
+                delegate = new TypePatternMatcher(pattern.getType(), index);
                 break;
             case KIND_NOT_SET:
             default:
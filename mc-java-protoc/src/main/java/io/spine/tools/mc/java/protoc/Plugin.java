@@ -30,6 +30,7 @@ import com.google.protobuf.ExtensionRegistry;
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.compiler.PluginProtos.CodeGeneratorRequest;
 import com.google.protobuf.compiler.PluginProtos.CodeGeneratorResponse;
+import com.google.protobuf.compiler.PluginProtos.CodeGeneratorResponse.File;
 import io.spine.code.proto.OptionExtensionRegistry;
 import io.spine.tools.mc.java.codegen.CodegenOptions;
 import io.spine.tools.mc.java.protoc.column.ColumnGen;
@@ -43,8 +44,14 @@ import io.spine.tools.mc.java.protoc.query.EntityQueryGen;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.function.Consumer;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.io.Files.getNameWithoutExtension;
 import static io.spine.tools.mc.java.StandardTypes.decodeBase64;
 import static io.spine.util.Exceptions.newIllegalStateException;
 
@@ -66,6 +73,8 @@ import static io.spine.util.Exceptions.newIllegalStateException;
  */
 public final class Plugin {
 
+    private static final String PROFILE_FILE_SUFFIX = "-profile.json";
+
     /** Prevents instantiation from outside. */
     private Plugin() {
     }
@@ -73,29 +82,96 @@ public final class Plugin {
     /**
      * The entry point of the program.
      */
+    @SuppressWarnings("UseOfSystemOutOrSystemErr") // Required by the protoc API.
     public static void main(String[] args) {
-        var request = readRequest();
+        var request = readRequest(System.in);
+        var writer = ResponseWriter.to(System.out);
+        generate(request, writer::write);
+        writer.finish();
+    }
+
+    /**
+     * Generates the code for the given request.
+     *
+     * <p>The configuration of the code generation is read from the file passed as
+     * the request parameter.
+     */
+    static CodeGeneratorResponse generate(CodeGeneratorRequest request) {
+        checkNotNull(request);
+        var response = CodeGeneratorResponse.newBuilder();
+        generate(request, response::addFile);
+        return response.build();
+    }
+
+    /**
+     * Generates the code for the given request passing each generated file to the given
+     * consumer as soon as the file is complete.
+     *
+     * <p>Unlike {@link #generate(CodeGeneratorRequest)}, does not keep all the generated
+     * files in memory.
+     */
+    static void generate(CodeGeneratorRequest request, Consumer<File> consumer) {
+        checkNotNull(request);
+        checkNotNull(consumer);
         var config = readConfig(request);
-        var generator = CompositeGenerator.of(
-                InterfaceGen.instance(config),
-                MethodGen.instance(config),
+        var profiler = config.getProfile()
+                       ? GenerationProfiler.start()
+                       : GenerationProfiler.disabled();
+        var patterns = PatternIndex.of(config);
+        var generators = CompositeGenerator.of(
+                InterfaceGen.instance(config, patterns),
+                MethodGen.instance(config, patterns),
                 BuilderGen.instance(config),
-                NestedClassGen.instance(config),
-                ColumnGen.instance(config),
-                EntityQueryGen.instance(config),
-                FieldGen.instance(config)
+                NestedClassGen.instance(config, patterns),
+                ColumnGen.instance(config, patterns),
+                EntityQueryGen.instance(config, patterns),
+                FieldGen.instance(config, patterns)
         );
-        var response = generator.process(request);
-        writeResponse(response);
+        var generator = generators.withParallelism(config.getParallelism())
+                                  .withProfiler(profiler);
+        var cache = GeneratedCodeCache.of(config);
+        generator.process(request, cache, consumer);
+        if (cache.isEnabled()) {
+            cache.close();
+            reportCacheUsage(cache);
+        }
+        if (profiler.isEnabled()) {
+            profiler.writeTo(profileFile(request));
+        }
+    }
+
+    /**
+     * Obtains the file to write the profile of the code generation.
+     *
+     * <p>The file is placed next to the configuration file.
+     */
+    private static Path profileFile(CodeGeneratorRequest request) {
+        var configFile = Paths.get(decodeBase64(request.getParameter()));
+        var name = getNameWithoutExtension(configFile.getFileName().toString());
+        return configFile.resolveSibling(name + PROFILE_FILE_SUFFIX);
+    }
+
+    /**
+     * Prints the statistics of the cache usage.
+     *
+     * <p>The {@code System.out} is occupied by the response, so the statistics are printed
+     * into the {@code System.err}, which {@code protoc} forwards to the build output.
+     */
+    @SuppressWarnings("UseOfSystemOutOrSystemErr") // See the doc.
+    private static void reportCacheUsage(GeneratedCodeCache cache) {
+        System.err.println(cache.stats());
     }
 
     private static ExtensionRegistry registry() {
         return OptionExtensionRegistry.instance();
     }
 
-    private static CodeGeneratorRequest readRequest() {
+    /**
+     * Reads the request from the given stream until the end of the stream.
+     */
+    static CodeGeneratorRequest readRequest(InputStream in) {
         try {
-            var request = CodeGeneratorRequest.parseFrom(System.in, registry());
+            var request = CodeGeneratorRequest.parseFrom(in, registry());
             return request;
         } catch (IOException e) {
             throw newIllegalStateException(e, "Unable to read Code Generator Request.");
@@ -116,11 +192,13 @@ public final class Plugin {
         }
     }
 
-    @SuppressWarnings("UseOfSystemOutOrSystemErr") // Required by the protoc API.
-    private static void writeResponse(CodeGeneratorResponse response) {
+    /**
+     * Writes the response to the given stream.
+     */
+    static void writeResponse(CodeGeneratorResponse response, OutputStream out) {
         checkNotNull(response);
         try {
-            response.writeTo(System.out);
+            response.writeTo(out);
         } catch (IOException e) {
             throw newIllegalStateException(
                     e, "Unable to write Spine Protoc Plugin code generator response.");
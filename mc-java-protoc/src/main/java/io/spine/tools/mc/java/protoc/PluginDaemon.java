@@ -0,0 +1,260 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.protoc;
+
+import com.google.common.io.BaseEncoding;
+import com.google.common.io.ByteStreams;
+import com.google.protobuf.compiler.PluginProtos.CodeGeneratorResponse;
+import io.spine.logging.Logging;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.EnumSet;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Throwables.getStackTraceAsString;
+import static io.spine.util.Exceptions.newIllegalStateException;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.file.attribute.PosixFilePermission.OWNER_READ;
+import static java.nio.file.attribute.PosixFilePermission.OWNER_WRITE;
+
+/**
+ * A long-living process which serves the {@code protoc} plugin requests sent over a local socket.
+ *
+ * <p>Running the plugin in a warm process saves the JVM startup time, and keeps the loaded
+ * classes and the option registries between the requests.
+ *
+ * <p>The daemon is started with the path of a session file and, optionally, with the port to
+ * listen to. If the port is omitted, a free port is chosen:
+ * <pre>
+ * java -cp mc-java-protoc-exe.jar io.spine.tools.mc.java.protoc.PluginDaemon protoc.session &amp;
+ * export SPINE_PROTOC_DAEMON_SESSION=$PWD/protoc.session
+ * </pre>
+ *
+ * <p>The session file holds the port on the first line and a random session token on
+ * the second one. The file is readable only by its owner. The daemon deletes the file when
+ * it exits, so stopping the daemon is a matter of terminating the process.
+ *
+ * <p>The daemon accepts connections only from the loopback interface. A client sends a header
+ * line with the session token and the size of the {@code CodeGeneratorRequest} in bytes,
+ * followed by the request itself:
+ * <pre>
+ * &lt;token&gt; &lt;size&gt;\n&lt;request bytes&gt;
+ * </pre>
+ * <p>The connections without a valid token are closed without a response. Otherwise, the daemon
+ * replies with a {@code CodeGeneratorResponse} and closes the connection. If the code generation
+ * fails, the response contains the {@linkplain CodeGeneratorResponse#getError() error}, so that
+ * {@code protoc} reports it.
+ *
+ * <p>The requests are served one at a time, because the known types are registered globally
+ * while a request is processed.
+ *
+ * <p>The Gradle plugin does not manage the daemon. The {@code plugin_runner.sh} launcher
+ * forwards the request to the daemon if the {@code SPINE_PROTOC_DAEMON_SESSION} environment
+ * variable points to a session file. If the daemon cannot be reached, the launcher runs
+ * the {@link Plugin} in a new process.
+ */
+public final class PluginDaemon implements Logging {
+
+    private static final int TOKEN_BYTES = 32;
+    private static final int MAX_HEADER_LENGTH = 128;
+    private static final int READ_TIMEOUT_MILLIS = 60_000;
+
+    private final ServerSocket serverSocket;
+    private final String token;
+
+    private PluginDaemon(ServerSocket serverSocket, String token) {
+        this.serverSocket = checkNotNull(serverSocket);
+        this.token = checkNotNull(token);
+    }
+
+    /**
+     * The entry point of the daemon.
+     *
+     * @param args
+     *         the path of the session file to write, and, optionally, the port to listen to
+     */
+    public static void main(String[] args) {
+        checkArgument(args.length >= 1,
+                      "Usage: PluginDaemon <session file> [<port>]");
+        var sessionFile = Paths.get(args[0]);
+        var port = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        var daemon = start(port);
+        daemon.writeSession(sessionFile);
+        sessionFile.toFile().deleteOnExit();
+        daemon.serve();
+    }
+
+    /**
+     * Starts listening to the given port on the loopback interface.
+     *
+     * <p>A new session token is generated for the daemon.
+     *
+     * @param port
+     *         the port to listen to, or {@code 0} to choose a free port
+     */
+    static PluginDaemon start(int port) {
+        try {
+            var socket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+            return new PluginDaemon(socket, newToken());
+        } catch (IOException e) {
+            throw newIllegalStateException(e, "Unable to listen to the port `%d`.", port);
+        }
+    }
+
+    private static String newToken() {
+        var bytes = new byte[TOKEN_BYTES];
+        new SecureRandom().nextBytes(bytes);
+        return BaseEncoding.base16()
+                           .lowerCase()
+                           .encode(bytes);
+    }
+
+    /**
+     * Obtains the port this daemon listens to.
+     */
+    int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Obtains the token the clients of this daemon must present.
+     */
+    String token() {
+        return token;
+    }
+
+    /**
+     * Writes the port and the token of this daemon to the given file, which only the current
+     * user may read.
+     */
+    void writeSession(Path file) {
+        var session = port() + "\n" + token + "\n";
+        try {
+            Files.deleteIfExists(file);
+            if (FileSystems.getDefault()
+                           .supportedFileAttributeViews()
+                           .contains("posix")) {
+                var ownerOnly = PosixFilePermissions.asFileAttribute(
+                        EnumSet.of(OWNER_READ, OWNER_WRITE));
+                Files.createFile(file, ownerOnly);
+            } else {
+                var created = Files.createFile(file).toFile();
+                var restricted = created.setReadable(false, false)
+                        && created.setReadable(true, true)
+                        && created.setWritable(false, false)
+                        && created.setWritable(true, true);
+                if (!restricted) {
+                    throw newIllegalStateException(
+                            "Unable to restrict the access to the session file `%s`.", file);
+                }
+            }
+            Files.write(file, session.getBytes(US_ASCII));
+        } catch (IOException e) {
+            throw newIllegalStateException(e, "Unable to write the daemon session to `%s`.", file);
+        }
+    }
+
+    /**
+     * Serves the requests until the daemon is {@linkplain #stop() stopped}.
+     */
+    void serve() {
+        _info().log("Serving `protoc` plugin requests on port %d.", port());
+        while (!serverSocket.isClosed()) {
+            try (var connection = serverSocket.accept()) {
+                handle(connection);
+            } catch (IOException | RuntimeException e) {
+                if (!serverSocket.isClosed()) {
+                    _warn().withCause(e)
+                           .log("Unable to serve a `protoc` plugin request.");
+                }
+            }
+        }
+    }
+
+    private void handle(Socket connection) throws IOException {
+        connection.setSoTimeout(READ_TIMEOUT_MILLIS);
+        var in = connection.getInputStream();
+        var header = readHeader(in).split(" ", -1);
+        if (header.length != 2 || !isValidToken(header[0])) {
+            _warn().log("Rejected a connection without a valid session token.");
+            return;
+        }
+        var size = Long.parseLong(header[1]);
+        var request = Plugin.readRequest(ByteStreams.limit(in, size));
+        CodeGeneratorResponse response;
+        try {
+            response = Plugin.generate(request);
+        } catch (RuntimeException e) {
+            response = CodeGeneratorResponse.newBuilder()
+                    .setError(getStackTraceAsString(e))
+                    .build();
+        }
+        Plugin.writeResponse(response, connection.getOutputStream());
+    }
+
+    /**
+     * Reads the header line byte by byte, so that none of the request bytes are consumed.
+     */
+    private static String readHeader(InputStream in) throws IOException {
+        var header = new StringBuilder();
+        int next;
+        while ((next = in.read()) != '\n') {
+            if (next < 0 || header.length() >= MAX_HEADER_LENGTH) {
+                return "";
+            }
+            header.append((char) next);
+        }
+        return header.toString();
+    }
+
+    private boolean isValidToken(String candidate) {
+        return MessageDigest.isEqual(token.getBytes(US_ASCII), candidate.getBytes(US_ASCII));
+    }
+
+    /**
+     * Stops serving the requests.
+     */
+    void stop() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            throw newIllegalStateException(e, "Unable to stop the daemon.");
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.protoc;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.compiler.PluginProtos.CodeGeneratorResponse;
+import com.google.protobuf.compiler.PluginProtos.CodeGeneratorResponse.File;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.spine.util.Exceptions.newIllegalStateException;
+
+/**
+ * Writes a {@link CodeGeneratorResponse} to a stream file by file.
+ *
+ * <p>Each {@link File} is serialized as soon as it is {@linkplain #write(File) passed} to
+ * the writer. The bytes written by the writer are the same as the serialized form of
+ * the response which has only the written files.
+ */
+final class ResponseWriter {
+
+    private final CodedOutputStream output;
+
+    private ResponseWriter(OutputStream stream) {
+        this.output = CodedOutputStream.newInstance(stream);
+    }
+
+    /**
+     * Creates a new writer to the given stream.
+     */
+    static ResponseWriter to(OutputStream stream) {
+        checkNotNull(stream);
+        return new ResponseWriter(stream);
+    }
+
+    /**
+     * Writes the given file as an entry of the response.
+     */
+    void write(File file) {
+        checkNotNull(file);
+        try {
+            output.writeMessage(CodeGeneratorResponse.FILE_FIELD_NUMBER, file);
+        } catch (IOException e) {
+            throw newIllegalStateException(e, "Unable to write the generated file `%s`.",
+                                           file.getName());
+        }
+    }
+
+    /**
+     * Flushes the written files to the underlying stream.
+     */
+    void finish() {
+        try {
+            output.flush();
+        } catch (IOException e) {
+            throw newIllegalStateException(
+                    e, "Unable to write Spine Protoc Plugin code generator response.");
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.protoc;
+
+import com.google.common.collect.ImmutableSet;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A character trie which finds all the values associated with the prefixes or the suffixes of
+ * a string in a single walk over the string.
+ *
+ * <p>A trie created via {@link #forPrefixes()} matches the keys against the beginning of
+ * a string. A trie created via {@link #forSuffixes()} matches the keys against the end of
+ * a string.
+ *
+ * @param <V>
+ *         the type of the values
+ */
+final class StringTrie<V> {
+
+    private final Node<V> root = new Node<>();
+    private final boolean reversed;
+
+    private StringTrie(boolean reversed) {
+        this.reversed = reversed;
+    }
+
+    /**
+     * Creates a trie which finds the keys which are prefixes of a string.
+     */
+    static <V> StringTrie<V> forPrefixes() {
+        return new StringTrie<>(false);
+    }
+
+    /**
+     * Creates a trie which finds the keys which are suffixes of a string.
+     */
+    static <V> StringTrie<V> forSuffixes() {
+        return new StringTrie<>(true);
+    }
+
+    /**
+     * Associates the value with the given key.
+     */
+    void put(String key, V value) {
+        checkNotNull(key);
+        checkNotNull(value);
+        var node = root;
+        var length = key.length();
+        for (var i = 0; i < length; i++) {
+            var c = key.charAt(reversed ? length - 1 - i : i);
+            node = node.children.computeIfAbsent(c, ch -> new Node<>());
+        }
+        node.values.add(value);
+    }
+
+    /**
+     * Obtains the values associated with all the keys which are prefixes or suffixes,
+     * depending on the kind of this trie, of the given string.
+     */
+    ImmutableSet<V> match(String str) {
+        checkNotNull(str);
+        var result = ImmutableSet.<V>builder();
+        var node = root;
+        result.addAll(node.values);
+        var length = str.length();
+        for (var i = 0; i < length && node != null; i++) {
+            var c = str.charAt(reversed ? length - 1 - i : i);
+            node = node.children.get(c);
+            if (node != null) {
+                result.addAll(node.values);
+            }
+        }
+        return result.build();
+    }
+
+    private static final class Node<V> {
+
+        private final Map<Character, Node<V>> children = new HashMap<>();
+        private final Set<V> values = new LinkedHashSet<>();
+    }
+}
@@ -31,34 +31,52 @@ import io.spine.type.MessageType;
 
 import java.util.function.Predicate;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static io.spine.tools.mc.java.codegen.TypePattern.ValueCase.VALUE_NOT_SET;
 
 /**
  * A {@link MessageType} predicate which checks if the type matches a given {@link TypePattern}.
  *
  * <p>If the type name corresponds to the pattern, i.e. is either exactly equal to a given value,
  * or matches a given regex, the predicate is {@code true}.
+ *
+ * <p>The pattern is compiled and evaluated by a {@link PatternIndex}, which may be shared by all
+ * the matchers created for a code generation request.
  */
 public final class TypePatternMatcher implements Predicate<MessageType> {
 
     private final TypePattern pattern;
+    private final PatternIndex index;
 
+    /**
+     * Creates a matcher which compiles the given pattern on its own.
+     */
     public TypePatternMatcher(TypePattern pattern) {
-        this.pattern = checkNotNull(pattern);
+        this(pattern, PatternIndex.of(checkNotNull(pattern)));
+    }
+
+    /**
+     * Creates a matcher which evaluates the given pattern with the given index.
+     *
+     * @throws IllegalArgumentException
+     *         if the pattern is not present in the index
+     */
+    public TypePatternMatcher(TypePattern pattern, PatternIndex index) {
+        checkNotNull(pattern);
+        checkNotNull(index);
+        checkArgument(index.contains(pattern),
+                      "The type pattern `%s` is not indexed.", pattern);
+        this.pattern = pattern;
+        this.index = index;
     }
 
     @Override
     public boolean test(MessageType type) {
-        var typeName = type.name().value();
-        switch (pattern.getValueCase()) {
-            case EXPECTED_TYPE:
-                var expectedType = pattern.getExpectedType().getValue();
-                return expectedType.equals(typeName);
-            case REGEX:
-                return typeName.matches(pattern.getRegex());
-            case VALUE_NOT_SET:
-            default:
-                throw new IllegalStateException("Type pattern must not be empty.");
+        if (pattern.getValueCase() == VALUE_NOT_SET) {
+            throw new IllegalStateException("Type pattern must not be empty.");
         }
+        return index.typePatternsMatching(type)
+                    .contains(pattern);
     }
 }
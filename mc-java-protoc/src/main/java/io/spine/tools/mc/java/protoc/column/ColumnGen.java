@@ -36,6 +36,7 @@ import io.spine.tools.mc.java.protoc.CompilerOutput;
 import io.spine.tools.mc.java.protoc.EntityMatcher;
 import io.spine.tools.mc.java.protoc.InsertionPoint;
 import io.spine.tools.mc.java.protoc.NoOpGenerator;
+import io.spine.tools.mc.java.protoc.PatternIndex;
 import io.spine.type.MessageType;
 import io.spine.type.Type;
 
@@ -64,9 +65,9 @@ public final class ColumnGen extends CodeGenerator {
 
     private final Predicate<MessageType> entityMatcher;
 
-    private ColumnGen(Entities config) {
+    private ColumnGen(Entities config, PatternIndex patterns) {
         super();
-        this.entityMatcher = new EntityMatcher(config);
+        this.entityMatcher = new EntityMatcher(config, patterns);
     }
 
     /**
@@ -74,10 +75,21 @@ public final class ColumnGen extends CodeGenerator {
      */
     public static CodeGenerator instance(CodegenOptions config) {
         checkNotNull(config);
+        return instance(config, PatternIndex.of(config));
+    }
+
+    /**
+     * Creates a new instance based on the passed Protoc config.
+     *
+     * <p>The patterns of the config are evaluated by the given index.
+     */
+    public static CodeGenerator instance(CodegenOptions config, PatternIndex patterns) {
+        checkNotNull(config);
+        checkNotNull(patterns);
         var entities = config.getEntities();
         var generate = entities.getGenerateQueries();
         return generate
-               ? new ColumnGen(entities)
+               ? new ColumnGen(entities, patterns)
                : NoOpGenerator.instance();
     }
 
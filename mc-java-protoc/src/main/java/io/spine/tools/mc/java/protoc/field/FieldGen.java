@@ -36,6 +36,7 @@ import io.spine.tools.mc.java.protoc.CodeGenerationTasks;
 import io.spine.tools.mc.java.protoc.CodeGenerator;
 import io.spine.tools.mc.java.protoc.CompilerOutput;
 import io.spine.tools.mc.java.protoc.InsertionPoint;
+import io.spine.tools.mc.java.protoc.PatternIndex;
 import io.spine.type.MessageType;
 import io.spine.type.Type;
 
@@ -70,7 +71,18 @@ public final class FieldGen extends CodeGenerator {
      */
     public static FieldGen instance(CodegenOptions config) {
         checkNotNull(config);
-        var builder = new Builder(config);
+        return instance(config, PatternIndex.of(config));
+    }
+
+    /**
+     * Creates a new instance based on the passed Protoc config.
+     *
+     * <p>The patterns of the config are evaluated by the given index.
+     */
+    public static FieldGen instance(CodegenOptions config, PatternIndex patterns) {
+        checkNotNull(config);
+        checkNotNull(patterns);
+        var builder = new Builder(config, patterns);
         builder.addFromAll();
         return builder.build();
     }
@@ -91,13 +103,15 @@ public final class FieldGen extends CodeGenerator {
     private static final class Builder {
 
         private final CodegenOptions config;
+        private final PatternIndex patterns;
         private final ImmutableList.Builder<CodeGenerationTask> tasks = ImmutableList.builder();
 
         /**
          * Prevents direct instantiation.
          */
-        private Builder(CodegenOptions config) {
+        private Builder(CodegenOptions config, PatternIndex patterns) {
             this.config = config;
+            this.patterns = patterns;
         }
 
         private ImmutableList<CodeGenerationTask> tasks() {
@@ -153,12 +167,12 @@ public final class FieldGen extends CodeGenerator {
                 var entities = config.getEntities();
                 var fields = entities.getGenerateFields();
                 if (fields.hasSuperclass()) {
-                    tasks.add(new GenerateEntityStateFields(entities, factory));
+                    tasks.add(new GenerateEntityStateFields(entities, factory, patterns));
                 }
             }
         }
 
-        private static ImmutableList<GenerateFieldsByPattern> tasksFor(Signals signals) {
+        private ImmutableList<GenerateFieldsByPattern> tasksFor(Signals signals) {
             var generateFields = signals.getGenerateFields();
             if (!generateFields.hasSuperclass()) {
                 return ImmutableList.of();
@@ -166,17 +180,17 @@ public final class FieldGen extends CodeGenerator {
             return signals.getPatternList()
                           .stream()
                           .map(filePattern -> new GenerateFieldsByPattern(
-                                  generateFields, filePattern, factory
+                                  generateFields, filePattern, factory, patterns
                           )).collect(toImmutableList());
         }
 
-        private static Optional<GenerateFieldsByPattern> taskFor(Messages messages) {
+        private Optional<GenerateFieldsByPattern> taskFor(Messages messages) {
             var generateFields = messages.getGenerateFields();
             if (!generateFields.hasSuperclass()) {
                 return Optional.empty();
             }
             var pattern = messages.getPattern();
-            var task = new GenerateFieldsByPattern(generateFields, pattern, factory);
+            var task = new GenerateFieldsByPattern(generateFields, pattern, factory, patterns);
             return Optional.of(task);
         }
     }
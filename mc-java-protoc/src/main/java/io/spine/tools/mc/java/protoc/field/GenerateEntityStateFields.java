@@ -32,6 +32,7 @@ import io.spine.tools.java.code.field.FieldFactory;
 import io.spine.tools.mc.java.codegen.Entities;
 import io.spine.tools.mc.java.protoc.CompilerOutput;
 import io.spine.tools.mc.java.protoc.EntityMatcher;
+import io.spine.tools.mc.java.protoc.PatternIndex;
 import io.spine.type.MessageType;
 
 import java.util.function.Predicate;
@@ -47,9 +48,9 @@ final class GenerateEntityStateFields extends FieldGenerationTask {
 
     private final Predicate<MessageType> matcher;
 
-    GenerateEntityStateFields(Entities config, FieldFactory factory) {
+    GenerateEntityStateFields(Entities config, FieldFactory factory, PatternIndex index) {
         super(fieldSupertype(checkNotNull(config)), checkNotNull(factory));
-        this.matcher = new EntityMatcher(config);
+        this.matcher = new EntityMatcher(config, index);
     }
 
     @Override
@@ -32,6 +32,7 @@ import io.spine.tools.mc.java.codegen.GenerateFields;
 import io.spine.tools.mc.java.codegen.Pattern;
 import io.spine.tools.mc.java.protoc.CompilerOutput;
 import io.spine.tools.mc.java.protoc.FilePatternMatcher;
+import io.spine.tools.mc.java.protoc.PatternIndex;
 import io.spine.tools.mc.java.protoc.PatternMatcher;
 import io.spine.type.MessageType;
 import io.spine.type.TypeName;
@@ -57,14 +58,16 @@ final class GenerateFieldsByPattern extends FieldGenerationTask {
 
     GenerateFieldsByPattern(GenerateFields generateFields,
                             Pattern pattern,
-                            FieldFactory factory) {
-        this(generateFields, factory, new PatternMatcher(pattern));
+                            FieldFactory factory,
+                            PatternIndex index) {
+        this(generateFields, factory, new PatternMatcher(pattern, index));
     }
 
     GenerateFieldsByPattern(GenerateFields generateFields,
                             FilePattern pattern,
-                            FieldFactory factory) {
-        this(generateFields, factory, new FilePatternMatcher(pattern));
+                            FieldFactory factory,
+                            PatternIndex index) {
+        this(generateFields, factory, new FilePatternMatcher(pattern, index));
     }
 
     @Override
@@ -32,6 +32,7 @@ import io.spine.tools.mc.java.codegen.NestedClassFactoryName;
 import io.spine.tools.mc.java.codegen.Pattern;
 import io.spine.tools.mc.java.protoc.CompilerOutput;
 import io.spine.tools.mc.java.protoc.ExternalClassLoader;
+import io.spine.tools.mc.java.protoc.PatternIndex;
 import io.spine.tools.mc.java.protoc.PatternMatcher;
 import io.spine.type.MessageType;
 import io.spine.validation.FilePattern;
@@ -51,10 +52,11 @@ public final class GenerateNestedClasses extends NestedClassGenerationTask {
 
     public GenerateNestedClasses(ExternalClassLoader<NestedClassFactory> classLoader,
                                  NestedClassFactoryName factoryName,
-                                 Pattern pattern) {
+                                 Pattern pattern,
+                                 PatternIndex index) {
         super(classLoader, factoryName);
         checkNotDefaultArg(pattern);
-        this.patternMatcher = new PatternMatcher(pattern);
+        this.patternMatcher = new PatternMatcher(pattern, index);
     }
 
     /**
@@ -31,6 +31,7 @@ import io.spine.tools.java.code.JavaClassName;
 import io.spine.tools.mc.java.codegen.Pattern;
 import io.spine.tools.mc.java.protoc.CompilerOutput;
 import io.spine.tools.mc.java.protoc.FilePatternMatcher;
+import io.spine.tools.mc.java.protoc.PatternIndex;
 import io.spine.tools.mc.java.protoc.PatternMatcher;
 import io.spine.type.MessageType;
 import io.spine.validation.FilePattern;
@@ -60,10 +61,10 @@ final class ImplementByPattern extends ImplementInterface {
      * <p>Top-level messages declared in files which match this pattern will implement
      * the given interface.
      */
-    ImplementByPattern(JavaClassName interfaceName, FilePattern pattern) {
+    ImplementByPattern(JavaClassName interfaceName, FilePattern pattern, PatternIndex index) {
         super(interfaceName);
         checkNotDefaultArg(pattern);
-        this.matcher = new FilePatternMatcher(pattern);
+        this.matcher = new FilePatternMatcher(pattern, index);
     }
 
     /**
@@ -71,10 +72,10 @@ final class ImplementByPattern extends ImplementInterface {
      *
      * <p>Top-level messages matching this pattern will implement the given interface.
      */
-    ImplementByPattern(JavaClassName interfaceName, Pattern pattern) {
+    ImplementByPattern(JavaClassName interfaceName, Pattern pattern, PatternIndex index) {
         super(interfaceName);
         checkNotDefaultArg(pattern);
-        this.matcher = new PatternMatcher(pattern);
+        this.matcher = new PatternMatcher(pattern, index);
     }
 
     @Override
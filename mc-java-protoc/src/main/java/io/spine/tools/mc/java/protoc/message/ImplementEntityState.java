@@ -31,6 +31,7 @@ import io.spine.tools.java.code.JavaClassName;
 import io.spine.tools.mc.java.codegen.Entities;
 import io.spine.tools.mc.java.protoc.CompilerOutput;
 import io.spine.tools.mc.java.protoc.EntityMatcher;
+import io.spine.tools.mc.java.protoc.PatternIndex;
 import io.spine.type.MessageType;
 
 import java.util.function.Predicate;
@@ -46,9 +47,9 @@ final class ImplementEntityState extends ImplementInterface {
 
     private final Predicate<MessageType> matcher;
 
-    ImplementEntityState(JavaClassName interfaceName, Entities config) {
+    ImplementEntityState(JavaClassName interfaceName, Entities config, PatternIndex index) {
         super(interfaceName);
-        this.matcher = new EntityMatcher(config);
+        this.matcher = new EntityMatcher(config, index);
     }
 
     @Override
@@ -36,6 +36,7 @@ import io.spine.tools.mc.java.protoc.CodeGenerationTask;
 import io.spine.tools.mc.java.protoc.CodeGenerationTasks;
 import io.spine.tools.mc.java.protoc.CodeGenerator;
 import io.spine.tools.mc.java.protoc.CompilerOutput;
+import io.spine.tools.mc.java.protoc.PatternIndex;
 import io.spine.type.MessageType;
 import io.spine.type.Type;
 
@@ -73,16 +74,26 @@ public final class InterfaceGen extends CodeGenerator {
      */
     public static CodeGenerator instance(CodegenOptions config) {
         checkNotNull(config);
+        return instance(config, PatternIndex.of(config));
+    }
+
+    /**
+     * Retrieves the single instance of the {@code InterfaceGenerator} which evaluates
+     * the patterns of the config with the given index.
+     */
+    public static CodeGenerator instance(CodegenOptions config, PatternIndex patterns) {
+        checkNotNull(config);
+        checkNotNull(patterns);
         ImmutableList.Builder<CodeGenerationTask> tasks = ImmutableList.builder();
 
         if (config.hasCommands()) {
-            tasks.addAll(tasksFor(config.getCommands()));
+            tasks.addAll(tasksFor(config.getCommands(), patterns));
         }
         if (config.hasEvents()) {
-            tasks.addAll(tasksFor(config.getEvents()));
+            tasks.addAll(tasksFor(config.getEvents(), patterns));
         }
         if (config.hasRejections()) {
-            tasks.addAll(tasksFor(config.getRejections()));
+            tasks.addAll(tasksFor(config.getRejections(), patterns));
         }
         if (config.hasUuids()) {
             var uuids = config.getUuids();
@@ -92,33 +103,35 @@ public final class InterfaceGen extends CodeGenerator {
                          .forEach(tasks::add);
         }
         if (config.hasEntities()) {
-            tasks.addAll(tasksFor(config.getEntities()));
+            tasks.addAll(tasksFor(config.getEntities(), patterns));
         }
         for (var messages : config.getMessagesList()) {
             var pattern = messages.getPattern();
             messages.getAddInterfaceList()
                     .stream()
-                    .map(ai -> new ImplementByPattern(ai.getName(), pattern))
+                    .map(ai -> new ImplementByPattern(ai.getName(), pattern, patterns))
                     .forEach(tasks::add);
         }
         return new InterfaceGen(tasks.build());
     }
 
-    private static ImmutableList<ImplementInterface> tasksFor(Signals signals) {
+    private static ImmutableList<ImplementInterface> tasksFor(Signals signals,
+                                                              PatternIndex patterns) {
         ImmutableList.Builder<ImplementInterface> tasks = ImmutableList.builder();
         var addInterfaces = signals.getAddInterfaceList();
         for (var pattern : signals.getPatternList()) {
             addInterfaces.stream()
-                         .map(ai -> new ImplementByPattern(ai.getName(), pattern))
+                         .map(ai -> new ImplementByPattern(ai.getName(), pattern, patterns))
                          .forEach(tasks::add);
         }
         return tasks.build();
     }
 
-    private static ImmutableList<ImplementInterface> tasksFor(Entities entities) {
+    private static ImmutableList<ImplementInterface> tasksFor(Entities entities,
+                                                              PatternIndex patterns) {
         var interfaces = entities.getAddInterfaceList();
         return interfaces.stream()
-                         .map(ai -> new ImplementEntityState(ai.getName(), entities))
+                         .map(ai -> new ImplementEntityState(ai.getName(), entities, patterns))
                          .collect(toImmutableList());
     }
 
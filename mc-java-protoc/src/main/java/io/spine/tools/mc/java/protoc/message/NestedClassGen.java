@@ -35,6 +35,7 @@ import io.spine.tools.mc.java.protoc.CodeGenerator;
 import io.spine.tools.mc.java.protoc.CompilerOutput;
 import io.spine.tools.mc.java.protoc.ExternalClassLoader;
 import io.spine.tools.mc.java.protoc.InsertionPoint;
+import io.spine.tools.mc.java.protoc.PatternIndex;
 import io.spine.type.MessageType;
 import io.spine.type.Type;
 
@@ -63,14 +64,26 @@ public final class NestedClassGen extends CodeGenerator {
      */
     public static NestedClassGen instance(CodegenOptions config) {
         checkNotNull(config);
-        var classpath = config.getClasspath();
-        var classLoader = new ExternalClassLoader<>(classpath, NestedClassFactory.class);
+        return instance(config, PatternIndex.of(config));
+    }
+
+    /**
+     * Creates a new instance based on the passed Protoc config.
+     *
+     * <p>The patterns of the config are evaluated by the given index.
+     */
+    public static NestedClassGen instance(CodegenOptions config, PatternIndex patterns) {
+        checkNotNull(config);
+        checkNotNull(patterns);
+        var classLoader = new ExternalClassLoader<>(
+                config.getClasspath(), config.getFactoryLocationList(), NestedClassFactory.class
+        );
         ImmutableList.Builder<CodeGenerationTask> tasks = ImmutableList.builder();
         for (var messages : config.getMessagesList()) {
             messages.getGenerateNestedClassesList()
                     .stream()
                     .map(generate -> new GenerateNestedClasses(
-                            classLoader, generate.getFactory(), messages.getPattern()
+                            classLoader, generate.getFactory(), messages.getPattern(), patterns
                     )).forEach(tasks::add);
         }
         return new NestedClassGen(tasks.build());
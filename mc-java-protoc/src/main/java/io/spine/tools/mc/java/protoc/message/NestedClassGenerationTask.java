@@ -59,7 +59,7 @@ abstract class NestedClassGenerationTask implements CodeGenerationTask {
      */
     ImmutableList<CompilerOutput> generateNestedClassesFor(@NonNull MessageType type) {
         var className = factoryName.getClassName().getCanonical();
-        var factory = classLoader.newInstance(className);
+        var factory = classLoader.instance(className);
         return factory
                 .generateClassesFor(type)
                 .stream()
@@ -51,6 +51,15 @@ import static io.spine.tools.mc.java.protoc.message.Implement.interfaceFor;
  */
 public final class ValidationGen extends CodeGenerator {
 
+    /**
+     * Names of the files processed together with the currently processed types.
+     *
+     * <p>The validation code is generated for all the message types declared in these files.
+     * Thus, the code generated for one of those types may call the validation code of another
+     * type directly.
+     */
+    private volatile ImmutableSet<String> requestedFiles = ImmutableSet.of();
+
     /** Prevents direct instantiation. */
     private ValidationGen() {
         super();
@@ -70,6 +79,11 @@ public final class ValidationGen extends CodeGenerator {
                : new ValidationGen();
     }
 
+    @Override
+    protected void prepare(ImmutableSet<String> requestedFiles) {
+        this.requestedFiles = checkNotNull(requestedFiles);
+    }
+
     @Override
     protected ImmutableSet<CompilerOutput> generate(Type<?, ?> type) {
         return type instanceof MessageType
@@ -94,10 +108,13 @@ public final class ValidationGen extends CodeGenerator {
      *         the type to generate the validation code for
      * @return compiler output relevant for the passed type
      */
-    private static ImmutableSet<CompilerOutput> generateValidationFor(MessageType type) {
-        var factory = new ValidateSpecs(type);
+    private ImmutableSet<CompilerOutput> generateValidationFor(MessageType type) {
+        var factory = new ValidateSpecs(type, this::isRequested);
         var builderInsertionPoint = insertCode(type, builder_scope, factory.vBuildMethod().toString());
         var validateMethod = insertCode(type, class_scope, factory.validateMethod().toString());
+        var isValidMethod = insertCode(type, class_scope, factory.isValidMethod().toString());
+        var memoizedValidity =
+                insertCode(type, class_scope, factory.memoizedValidityField().toString());
         var validatorClass = insertCode(type, class_scope, factory.validatorClass().toString());
         var iface = interfaceFor(type, implementMessageWithConstraints());
         ImmutableSet.Builder<CompilerOutput> builder = ImmutableSet.builder();
@@ -105,12 +122,21 @@ public final class ValidationGen extends CodeGenerator {
                 iface,
                 builderInsertionPoint,
                 validateMethod,
+                isValidMethod,
+                memoizedValidity,
                 validatorClass
         );
         var result = builder.build();
         return result;
     }
 
+    private boolean isRequested(MessageType type) {
+        var file = type.descriptor()
+                       .getFile()
+                       .getName();
+        return requestedFiles.contains(file);
+    }
+
     private static ExistingInterface implementMessageWithConstraints() {
         var baseInterface = ClassName.of(MessageWithConstraints.class);
         var result = new ExistingInterface(baseInterface);
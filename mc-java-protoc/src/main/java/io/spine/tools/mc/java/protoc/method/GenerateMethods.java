@@ -29,6 +29,7 @@ package io.spine.tools.mc.java.protoc.method;
 import com.google.common.collect.ImmutableList;
 import io.spine.tools.mc.java.protoc.CompilerOutput;
 import io.spine.tools.mc.java.protoc.ExternalClassLoader;
+import io.spine.tools.mc.java.protoc.PatternIndex;
 import io.spine.tools.mc.java.protoc.PatternMatcher;
 import io.spine.tools.java.code.MethodFactory;
 import io.spine.tools.mc.java.codegen.MethodFactoryName;
@@ -48,9 +49,10 @@ final class GenerateMethods extends MethodGenerationTask {
 
     GenerateMethods(ExternalClassLoader<MethodFactory> classLoader,
                     MethodFactoryName config,
-                    Pattern pattern) {
+                    Pattern pattern,
+                    PatternIndex index) {
         super(classLoader, config);
-        patternMatcher = new PatternMatcher(pattern);
+        patternMatcher = new PatternMatcher(pattern, index);
     }
 
     /**
@@ -35,6 +35,7 @@ import io.spine.tools.mc.java.protoc.CodeGenerator;
 import io.spine.tools.mc.java.protoc.CompilerOutput;
 import io.spine.tools.mc.java.protoc.ExternalClassLoader;
 import io.spine.tools.mc.java.protoc.InsertionPoint;
+import io.spine.tools.mc.java.protoc.PatternIndex;
 import io.spine.type.MessageType;
 import io.spine.type.Type;
 
@@ -63,8 +64,19 @@ public final class MethodGen extends CodeGenerator {
      */
     public static MethodGen instance(CodegenOptions config) {
         checkNotNull(config);
-        var classpath = config.getClasspath();
-        var classLoader = new ExternalClassLoader<>(classpath, MethodFactory.class);
+        return instance(config, PatternIndex.of(config));
+    }
+
+    /**
+     * Retrieves the single instance of the {@code MethodGenerator} which evaluates
+     * the patterns of the config with the given index.
+     */
+    public static MethodGen instance(CodegenOptions config, PatternIndex patterns) {
+        checkNotNull(config);
+        checkNotNull(patterns);
+        var classLoader = new ExternalClassLoader<>(
+                config.getClasspath(), config.getFactoryLocationList(), MethodFactory.class
+        );
         ImmutableList.Builder<CodeGenerationTask> tasks = ImmutableList.builder();
         if (config.hasUuids()) {
             var methodFactoryNames = config.getUuids().getMethodFactoryList();
@@ -78,7 +90,7 @@ public final class MethodGen extends CodeGenerator {
             messages.getGenerateMethodsList()
                     .stream()
                     .map(generate -> new GenerateMethods(
-                            classLoader, generate.getFactory(), pattern))
+                            classLoader, generate.getFactory(), pattern, patterns))
                     .forEach(tasks::add);
         }
         return new MethodGen(tasks.build());
@@ -35,6 +35,7 @@ import io.spine.tools.mc.java.protoc.CodeGenerator;
 import io.spine.tools.mc.java.protoc.CompilerOutput;
 import io.spine.tools.mc.java.protoc.EntityMatcher;
 import io.spine.tools.mc.java.protoc.NoOpGenerator;
+import io.spine.tools.mc.java.protoc.PatternIndex;
 import io.spine.type.MessageType;
 import io.spine.type.Type;
 
@@ -90,9 +91,9 @@ public class EntityQueryGen extends CodeGenerator {
 
     private final Predicate<MessageType> matcher;
 
-    private EntityQueryGen(Entities entities) {
+    private EntityQueryGen(Entities entities, PatternIndex patterns) {
         super();
-        this.matcher = new EntityMatcher(entities);
+        this.matcher = new EntityMatcher(entities, patterns);
     }
 
     /**
@@ -100,10 +101,21 @@ public class EntityQueryGen extends CodeGenerator {
      */
     public static CodeGenerator instance(CodegenOptions config) {
         checkNotNull(config);
+        return instance(config, PatternIndex.of(config));
+    }
+
+    /**
+     * Creates a new instance based on the passed Protoc config.
+     *
+     * <p>The patterns of the config are evaluated by the given index.
+     */
+    public static CodeGenerator instance(CodegenOptions config, PatternIndex patterns) {
+        checkNotNull(config);
+        checkNotNull(patterns);
         var entities = config.getEntities();
         var enabled = entities.getGenerateQueries();
         return enabled
-               ? new EntityQueryGen(entities)
+               ? new EntityQueryGen(entities, patterns)
                : NoOpGenerator.instance();
     }
 
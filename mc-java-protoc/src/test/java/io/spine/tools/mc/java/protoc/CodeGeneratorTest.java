@@ -27,13 +27,18 @@
 package io.spine.tools.mc.java.protoc;
 
 import com.google.common.collect.ImmutableList;
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
 import com.google.protobuf.compiler.PluginProtos.CodeGeneratorRequest;
 import com.google.protobuf.compiler.PluginProtos.CodeGeneratorResponse.File;
+import io.spine.code.proto.FileSet;
+import io.spine.tools.mc.java.codegen.CodegenCache;
 import io.spine.tools.mc.java.codegen.CodegenOptions;
 import io.spine.tools.mc.java.codegen.Uuids;
 import io.spine.tools.mc.java.protoc.given.TestInterface;
 import io.spine.tools.protoc.plugin.EnhancedWithCodeGeneration;
 import io.spine.tools.protoc.plugin.TestGeneratorsProto;
+import io.spine.tools.protoc.plugin.TestParallelGenerationProto;
 import io.spine.type.MessageType;
 import io.spine.type.Type;
 import org.junit.jupiter.api.BeforeEach;
@@ -43,7 +48,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import static com.google.common.truth.Truth.assertThat;
 import static io.spine.testing.Assertions.assertIllegalArgument;
@@ -51,17 +63,23 @@ import static io.spine.testing.Assertions.assertNpe;
 import static io.spine.tools.mc.java.protoc.given.CodeGeneratorRequestGiven.addInterface;
 import static io.spine.tools.mc.java.protoc.given.CodeGeneratorRequestGiven.protocConfig;
 import static io.spine.tools.mc.java.protoc.given.CodeGeneratorRequestGiven.requestBuilder;
+import static java.util.Collections.synchronizedSet;
+import static java.util.stream.Collectors.toList;
 
 @DisplayName("`SpineProtoGenerator` should")
 final class CodeGeneratorTest {
 
     private static final String TEST_PROTO_FILE = "spine/tools/protoc/test_generators.proto";
+    private static final String PARALLEL_PROTO_FILE =
+            "spine/tools/protoc/test_parallel_generation.proto";
 
     private Path testPluginConfig;
+    private Path cacheDir;
 
     @BeforeEach
     void setUp(@TempDir Path tempDirPath) {
         testPluginConfig = tempDirPath.resolve("test-spine-mc-java-protoc.pb");
+        cacheDir = tempDirPath.resolve("cache");
     }
 
     @DisplayName("process valid `CodeGeneratorRequest`")
@@ -169,6 +187,204 @@ final class CodeGeneratorTest {
                 .isEqualTo(method);
     }
 
+    @DisplayName("produce the same output regardless of parallelism")
+    @Test
+    void generateInParallel() {
+        var config = CodegenOptions.getDefaultInstance();
+        var request = requestBuilder()
+                .addProtoFile(TestParallelGenerationProto.getDescriptor()
+                                                         .toProto())
+                .addFileToGenerate(PARALLEL_PROTO_FILE)
+                .setParameter(protocConfig(config, testPluginConfig))
+                .build();
+        var sequential = new PerTypeGenerator(1).process(request);
+        var parallel = new PerTypeGenerator(4).process(request);
+
+        assertThat(sequential.getFileList())
+                .isNotEmpty();
+        assertThat(parallel.getFileList())
+                .containsExactlyElementsIn(sequential.getFileList())
+                .inOrder();
+    }
+
+    @DisplayName("generate the code for all the files of a request in a single pool")
+    @Test
+    void singlePoolPerRequest() {
+        var config = CodegenOptions.getDefaultInstance();
+        var request = requestBuilder()
+                .addProtoFile(TestGeneratorsProto.getDescriptor()
+                                                 .toProto())
+                .addProtoFile(TestParallelGenerationProto.getDescriptor()
+                                                         .toProto())
+                .addFileToGenerate(TEST_PROTO_FILE)
+                .addFileToGenerate(PARALLEL_PROTO_FILE)
+                .setParameter(protocConfig(config, testPluginConfig))
+                .build();
+        var generator = new PoolTrackingGenerator();
+        var response = generator.process(request);
+
+        assertThat(response.getFileList())
+                .isNotEmpty();
+        assertThat(generator.pools)
+                .hasSize(1);
+        assertThat(generator.pools)
+                .doesNotContain(null);
+    }
+
+    @DisplayName("produce byte-identical output on each run")
+    @Test
+    void produceDeterministicOutput() {
+        var config = CodegenOptions.getDefaultInstance();
+        var request = requestBuilder()
+                .addProtoFile(TestParallelGenerationProto.getDescriptor()
+                                                         .toProto())
+                .addFileToGenerate(PARALLEL_PROTO_FILE)
+                .setParameter(protocConfig(config, testPluginConfig))
+                .build();
+        var first = new PerTypeGenerator(4).process(request);
+        var second = new PerTypeGenerator(4).process(request);
+
+        assertThat(second.toByteArray())
+                .isEqualTo(first.toByteArray());
+        var merged = first.getFileList()
+                          .stream()
+                          .filter(File::hasInsertionPoint)
+                          .collect(toList());
+        assertThat(merged)
+                .hasSize(1);
+        var content = merged.get(0).getContent();
+        assertThat(content.indexOf("ParallelFirst;"))
+                .isLessThan(content.indexOf("ParallelSecond;"));
+    }
+
+    @DisplayName("build descriptors only for the requested files and their imports")
+    @Test
+    void selectRequestedWithImports() {
+        var imported = FileDescriptorProto.newBuilder()
+                .setName("imported.proto")
+                .build();
+        var requested = FileDescriptorProto.newBuilder()
+                .setName("requested.proto")
+                .addDependency(imported.getName())
+                .build();
+        var unrelated = FileDescriptorProto.newBuilder()
+                .setName("unrelated.proto")
+                .build();
+        var request = requestBuilder()
+                .addProtoFile(unrelated)
+                .addProtoFile(imported)
+                .addProtoFile(requested)
+                .addFileToGenerate(requested.getName())
+                .build();
+
+        assertThat(CodeGenerator.requestedWithImports(request))
+                .containsExactly(imported, requested)
+                .inOrder();
+    }
+
+    @DisplayName("register the known types of a file again when its content changes")
+    @Test
+    void registerChangedFile() {
+        var original = FileDescriptorProto.newBuilder()
+                .setName("spine/tools/protoc/registered.proto")
+                .setPackage("spine.tools.protoc.registered")
+                .setSyntax("proto3")
+                .addMessageType(DescriptorProto.newBuilder()
+                                               .setName("Original"))
+                .build();
+        var edited = original.toBuilder()
+                .addMessageType(DescriptorProto.newBuilder()
+                                               .setName("Added"))
+                .build();
+
+        assertThat(register(original))
+                .isTrue();
+        assertThat(register(original))
+                .isFalse();
+        assertThat(register(edited))
+                .isTrue();
+    }
+
+    private static boolean register(FileDescriptorProto file) {
+        var files = ImmutableList.of(file);
+        return CodeGenerator.registerKnownTypes(files, FileSet.of(files));
+    }
+
+    @Nested
+    @DisplayName("obtain the code for at most `parallelism` files ahead of the consumer")
+    class BoundedWindow {
+
+        private static final int FILES = 12;
+        private static final int PARALLELISM = 3;
+
+        @Test
+        @DisplayName("when generating the code in parallel")
+        void generating() {
+            var request = streamedRequest(CodegenOptions.getDefaultInstance());
+            var generator = new FileTrackingGenerator(PARALLELISM);
+            List<File> consumed = new ArrayList<>();
+            List<Integer> ahead = new ArrayList<>();
+            generator.process(request, GeneratedCodeCache.disabled(), file -> {
+                consumed.add(file);
+                ahead.add(generator.startedFiles.size() - consumed.size());
+            });
+
+            var sequential = new FileTrackingGenerator(1).process(request);
+            assertThat(consumed)
+                    .containsExactlyElementsIn(sequential.getFileList())
+                    .inOrder();
+            assertThat(Collections.max(ahead))
+                    .isAtMost(PARALLELISM - 1);
+        }
+
+        @Test
+        @DisplayName("when reading the code from the cache")
+        void readingCache() {
+            var options = CodegenOptions.newBuilder()
+                    .setCache(CodegenCache.newBuilder()
+                                          .setDir(cacheDir.toString())
+                                          .setMaxSize(1024 * 1024))
+                    .build();
+            var request = streamedRequest(options);
+            new FileTrackingGenerator(PARALLELISM).process(request, GeneratedCodeCache.of(options));
+
+            var generator = new FileTrackingGenerator(PARALLELISM);
+            var cache = GeneratedCodeCache.of(options);
+            List<String> statsOnConsume = new ArrayList<>();
+            generator.process(request, cache, file -> statsOnConsume.add(cache.stats()));
+
+            assertThat(generator.startedFiles)
+                    .isEmpty();
+            assertThat(statsOnConsume)
+                    .hasSize(FILES);
+            for (var i = 0; i < FILES; i++) {
+                assertThat(statsOnConsume.get(i))
+                        .contains(": " + (i + 1) + " hits");
+            }
+        }
+
+        /**
+         * Creates a request to generate the code for a number of files, each declaring
+         * a single message type.
+         */
+        private CodeGeneratorRequest streamedRequest(CodegenOptions options) {
+            var request = requestBuilder()
+                    .setParameter(protocConfig(options, testPluginConfig));
+            for (var i = 0; i < FILES; i++) {
+                var file = FileDescriptorProto.newBuilder()
+                        .setName("spine/tools/protoc/streamed/file_" + i + ".proto")
+                        .setPackage("spine.tools.protoc.streamed")
+                        .setSyntax("proto3")
+                        .addMessageType(DescriptorProto.newBuilder()
+                                                       .setName("Streamed" + i))
+                        .build();
+                request.addProtoFile(file)
+                       .addFileToGenerate(file.getName());
+            }
+            return request.build();
+        }
+    }
+
     @Nested
     @DisplayName("not process invalid `CodeGeneratorRequest` if passed")
     class Arguments {
@@ -226,6 +442,95 @@ final class CodeGeneratorTest {
         }
     }
 
+    /**
+     * Generates a separate file for each type, a file shared by all types, and
+     * a contribution to the insertion point of the shared file.
+     */
+    private static class PerTypeGenerator extends CodeGenerator {
+
+        private final int parallelism;
+
+        private PerTypeGenerator(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        @Override
+        protected int parallelism() {
+            return parallelism;
+        }
+
+        @Override
+        protected Collection<CompilerOutput> generate(Type<?, ?> type) {
+            var typeName = type.name().value();
+            var perType = File.newBuilder()
+                    .setName(typeName + ".java")
+                    .setContent("// Generated for `" + typeName + "`.")
+                    .build();
+            var shared = File.newBuilder()
+                    .setName("Shared.java")
+                    .setContent("// Shared.")
+                    .build();
+            var insertion = File.newBuilder()
+                    .setName("Shared.java")
+                    .setInsertionPoint("class_scope:Shared")
+                    .setContent("// " + typeName + ';')
+                    .build();
+            return ImmutableList.of(new TestCompilerOutput(perType),
+                                    new TestCompilerOutput(shared),
+                                    new TestCompilerOutput(insertion));
+        }
+    }
+
+    /**
+     * Remembers the pools in which the types are processed.
+     */
+    private static final class PoolTrackingGenerator extends PerTypeGenerator {
+
+        private final Set<ForkJoinPool> pools = synchronizedSet(new HashSet<>());
+
+        private PoolTrackingGenerator() {
+            super(4);
+        }
+
+        @Override
+        protected Collection<CompilerOutput> generate(Type<?, ?> type) {
+            pools.add(ForkJoinTask.getPool());
+            return super.generate(type);
+        }
+    }
+
+    /**
+     * Generates a file for each type and remembers the proto files for which
+     * the generation started.
+     */
+    private static final class FileTrackingGenerator extends CodeGenerator {
+
+        private final Set<String> startedFiles = synchronizedSet(new HashSet<>());
+        private final int parallelism;
+
+        private FileTrackingGenerator(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        @Override
+        protected int parallelism() {
+            return parallelism;
+        }
+
+        @Override
+        protected Collection<CompilerOutput> generate(Type<?, ?> type) {
+            startedFiles.add(type.descriptor()
+                                 .getFile()
+                                 .getName());
+            var typeName = type.name().value();
+            var file = File.newBuilder()
+                    .setName(typeName + ".java")
+                    .setContent("// Generated for `" + typeName + "`.")
+                    .build();
+            return ImmutableList.of(new TestCompilerOutput(file));
+        }
+    }
+
     private static class TestCompilerOutput extends AbstractCompilerOutput {
 
         private TestCompilerOutput(File file) {
@@ -33,6 +33,8 @@ import io.spine.testing.logging.mute.MuteLogging;
 import io.spine.tools.java.code.Classpath;
 import io.spine.tools.java.code.Method;
 import io.spine.tools.java.code.MethodFactory;
+import io.spine.tools.mc.java.codegen.FactoryLocation;
+import io.spine.tools.mc.java.codegen.NotShareable;
 import io.spine.type.MessageType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -130,6 +132,56 @@ final class ExternalClassLoaderTest {
                 .isInstanceOf(StubMethodFactory.class);
     }
 
+    @Nested
+    @DisplayName("when obtaining a shared instance")
+    class SharedInstance {
+
+        @Test
+        @DisplayName("reuse the instance for the same class")
+        void reuse() {
+            var name = StubMethodFactory.class.getName();
+            var first = classLoader.instance(name);
+            var second = classLoader.instance(name);
+            assertThat(second)
+                    .isSameInstanceAs(first);
+        }
+
+        @Test
+        @DisplayName("create a new instance of a `@NotShareable` class on each call")
+        void notShareable() {
+            var name = StatefulMethodFactory.class.getName();
+            var first = classLoader.instance(name);
+            var second = classLoader.instance(name);
+            assertThat(first)
+                    .isInstanceOf(StatefulMethodFactory.class);
+            assertThat(second)
+                    .isNotSameInstanceAs(first);
+        }
+    }
+
+    @Test
+    @DisplayName("create a new instance on each `newInstance` call")
+    void newInstanceEachTime() {
+        var first = newInstanceFor(StubMethodFactory.class);
+        var second = newInstanceFor(StubMethodFactory.class);
+        assertThat(second)
+                .isNotSameInstanceAs(first);
+    }
+
+    @Test
+    @DisplayName("load classes from the known factory locations")
+    void loadFromLocations() {
+        var location = FactoryLocation.newBuilder()
+                .setClassName(StubMethodFactory.class.getCanonicalName())
+                .setEntry("non-existing-factories.jar")
+                .build();
+        var loader = new ExternalClassLoader<>(Classpath.getDefaultInstance(),
+                                               ImmutableList.of(location),
+                                               MethodFactory.class);
+        assertThat(loader.instance(StubMethodFactory.class.getName()))
+                .isInstanceOf(StubMethodFactory.class);
+    }
+
     @CanIgnoreReturnValue
     private MethodFactory newInstanceFor(Class<?> clazz) {
         return classLoader.newInstance(clazz.getName());
@@ -151,6 +203,14 @@ final class ExternalClassLoaderTest {
         }
     }
 
+    @Immutable
+    @NotShareable
+    public static final class StatefulMethodFactory extends EmptyMethodFactory {
+
+        public StatefulMethodFactory() {
+        }
+    }
+
     @Immutable
     @SuppressWarnings("EmptyClass") // for test reasons
     private static final class WithoutPublicConstructor extends EmptyMethodFactory {
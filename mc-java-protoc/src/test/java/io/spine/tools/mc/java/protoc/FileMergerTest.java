@@ -0,0 +1,124 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.protoc;
+
+import com.google.protobuf.compiler.PluginProtos.CodeGeneratorResponse.File;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.lang.System.lineSeparator;
+
+@DisplayName("`FileMerger` should")
+class FileMergerTest {
+
+    private static final String FILE = "io/spine/test/Task.java";
+    private static final String INSERTION_POINT = "class_scope:spine.test.Task";
+    private static final int RUNS = 5;
+
+    @Test
+    @DisplayName("join the contributions to the same insertion point in order")
+    void joinContributions() {
+        var merger = new FileMerger();
+        merger.add(insertion("first"));
+        merger.add(insertion("second"));
+        merger.add(insertion("first"));
+
+        var merged = merger.merged();
+        assertThat(merged)
+                .hasSize(1);
+        assertThat(merged.get(0).getContent())
+                .isEqualTo("first" + lineSeparator() + "second");
+    }
+
+    @Test
+    @DisplayName("put complete files after the insertion points")
+    void completeFilesLast() {
+        var merger = new FileMerger();
+        var complete = File.newBuilder()
+                .setName("io/spine/test/TaskView.java")
+                .setContent("class TaskView {}")
+                .build();
+        merger.add(complete);
+        merger.add(insertion("method"));
+        merger.add(complete);
+
+        assertThat(merger.merged())
+                .containsExactly(insertion("method"), complete)
+                .inOrder();
+    }
+
+    /**
+     * Checks that the time of merging grows linearly with the number of contributions.
+     *
+     * <p>Eight times more contributions take about eight times longer to merge, while
+     * the quadratic concatenation of the content takes about 64 times longer. The test is
+     * coarse on purpose: it takes the best of several runs and allows three times
+     * the linear growth.
+     */
+    @Test
+    @DisplayName("merge in time linear to the number of contributions")
+    void linearMerging() {
+        var small = timeOfMerging(2_000);
+        var large = timeOfMerging(16_000);
+        assertThat(large)
+                .isLessThan(small * 8 * 3);
+    }
+
+    /**
+     * Measures the best time of merging the given number of distinct contributions into
+     * a single insertion point.
+     */
+    private static long timeOfMerging(int contributions) {
+        var files = new File[contributions];
+        for (var i = 0; i < contributions; i++) {
+            files[i] = insertion("public static final int CONSTANT_" + i + " = " + i + ';');
+        }
+        var best = Long.MAX_VALUE;
+        for (var run = 0; run < RUNS; run++) {
+            var start = System.nanoTime();
+            var merger = new FileMerger();
+            for (var file : files) {
+                merger.add(file);
+            }
+            var merged = merger.merged();
+            var elapsed = System.nanoTime() - start;
+            assertThat(merged)
+                    .hasSize(1);
+            best = Math.min(best, elapsed);
+        }
+        return best;
+    }
+
+    private static File insertion(String content) {
+        return File.newBuilder()
+                .setName(FILE)
+                .setInsertionPoint(INSERTION_POINT)
+                .setContent(content)
+                .build();
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.protoc;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.protobuf.compiler.PluginProtos.CodeGeneratorRequest;
+import com.google.protobuf.compiler.PluginProtos.CodeGeneratorResponse.File;
+import io.spine.tools.java.code.Classpath;
+import io.spine.tools.mc.java.codegen.CodegenCache;
+import io.spine.tools.mc.java.codegen.CodegenOptions;
+import io.spine.tools.protoc.plugin.TestParallelGenerationProto;
+import io.spine.type.Type;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth8.assertThat;
+import static io.spine.tools.mc.java.protoc.given.CodeGeneratorRequestGiven.protocConfig;
+import static io.spine.tools.mc.java.protoc.given.CodeGeneratorRequestGiven.requestBuilder;
+
+@DisplayName("`GeneratedCodeCache` should")
+final class GeneratedCodeCacheTest {
+
+    private static final String PROTO_FILE = "spine/tools/protoc/test_parallel_generation.proto";
+
+    private Path cacheDir;
+    private Path configFile;
+
+    @BeforeEach
+    void setUp(@TempDir Path tempDir) {
+        cacheDir = tempDir.resolve("cache");
+        configFile = tempDir.resolve("config.pb");
+    }
+
+    @Test
+    @DisplayName("not store anything if disabled")
+    void disabled() {
+        var cache = GeneratedCodeCache.of(CodegenOptions.getDefaultInstance());
+        assertThat(cache.isEnabled())
+                .isFalse();
+        cache.store("key", ImmutableList.of(file("Foo.java")));
+        assertThat(cache.find("key"))
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("find the stored files")
+    void findStored() {
+        var cache = GeneratedCodeCache.of(options(1024 * 1024));
+        var files = ImmutableList.of(file("Foo.java"), file("Bar.java"));
+        cache.store("key", files);
+
+        assertThat(cache.find("key"))
+                .hasValue(files);
+        assertThat(cache.find("other"))
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("calculate the key from the proto file and the settings")
+    void calculateKey() {
+        var descriptor = TestParallelGenerationProto.getDescriptor();
+        var key = GeneratedCodeCache.of(options(1024))
+                                    .keyOf(descriptor);
+        var sameKey = GeneratedCodeCache.of(options(2048))
+                                        .keyOf(descriptor);
+        var otherOptions = options(1024).toBuilder()
+                .setValidation(options(1024).getValidation()
+                                            .toBuilder()
+                                            .setSkipValidation(true))
+                .build();
+        var otherKey = GeneratedCodeCache.of(otherOptions)
+                                         .keyOf(descriptor);
+        assertThat(sameKey)
+                .isEqualTo(key);
+        assertThat(otherKey)
+                .isNotEqualTo(key);
+    }
+
+    @Test
+    @DisplayName("distinguish the keys of a file generated with and without its dependencies")
+    void keyReflectsRequestedDependencies() {
+        var descriptor = TestParallelGenerationProto.getDescriptor();
+        var dependency = descriptor.getDependencies()
+                                   .get(0)
+                                   .getName();
+        var cache = GeneratedCodeCache.of(options(1024));
+        var alone = cache.keyOf(descriptor, ImmutableSet.of(descriptor.getName()));
+        var withDependency =
+                cache.keyOf(descriptor, ImmutableSet.of(descriptor.getName(), dependency));
+        assertThat(withDependency)
+                .isNotEqualTo(alone);
+    }
+
+    @Test
+    @DisplayName("change the key when a class directory of the factory classpath changes")
+    void keyReflectsClassDirectories(@TempDir Path classes) throws IOException {
+        var factoryClass = classes.resolve("acme/Factory.class");
+        Files.createDirectories(factoryClass.getParent());
+        Files.write(factoryClass, new byte[]{1});
+        var options = options(1024).toBuilder()
+                .setClasspath(Classpath.newBuilder()
+                                       .addJar(classes.toString()))
+                .build();
+        var descriptor = TestParallelGenerationProto.getDescriptor();
+        var key = GeneratedCodeCache.of(options)
+                                    .keyOf(descriptor);
+
+        Files.write(factoryClass, new byte[]{1, 2});
+        var keyAfterRecompilation = GeneratedCodeCache.of(options)
+                                                      .keyOf(descriptor);
+        assertThat(keyAfterRecompilation)
+                .isNotEqualTo(key);
+    }
+
+    @Test
+    @DisplayName("remove the temporary files left by the interrupted writes")
+    void removeStaleTempFiles() throws IOException {
+        Files.createDirectories(cacheDir);
+        var stale = Files.createFile(cacheDir.resolve("stale.tmp"));
+        Files.setLastModifiedTime(stale, FileTime.from(Instant.now()
+                                                              .minus(Duration.ofDays(1))));
+        var fresh = Files.createFile(cacheDir.resolve("fresh.tmp"));
+        GeneratedCodeCache.of(options(1024 * 1024))
+                          .close();
+
+        assertThat(Files.exists(stale))
+                .isFalse();
+        assertThat(Files.exists(fresh))
+                .isTrue();
+    }
+
+    @Test
+    @DisplayName("evict the least recently used entries")
+    void evict() throws IOException {
+        var cache = GeneratedCodeCache.of(options(1));
+        cache.store("old", ImmutableList.of(file("Old.java")));
+        cache.store("new", ImmutableList.of(file("New.java")));
+        cache.close();
+
+        try (var entries = Files.list(cacheDir)) {
+            assertThat(entries.count())
+                    .isEqualTo(0);
+        }
+        assertThat(cache.stats())
+                .contains("2 evicted");
+    }
+
+    @Test
+    @DisplayName("run the generators only for the files which are not cached")
+    void skipCachedFiles() {
+        var options = options(1024 * 1024);
+        var request = request(options);
+        var generator = new CountingGenerator();
+
+        var first = generator.process(request, GeneratedCodeCache.of(options));
+        var generatedTypes = generator.count;
+        var second = generator.process(request, GeneratedCodeCache.of(options));
+
+        assertThat(generatedTypes)
+                .isGreaterThan(0);
+        assertThat(generator.count)
+                .isEqualTo(generatedTypes);
+        assertThat(second)
+                .isEqualTo(first);
+    }
+
+    private CodegenOptions options(long maxSize) {
+        var cache = CodegenCache.newBuilder()
+                .setDir(cacheDir.toString())
+                .setMaxSize(maxSize);
+        return CodegenOptions.newBuilder()
+                .setCache(cache)
+                .build();
+    }
+
+    private CodeGeneratorRequest request(CodegenOptions options) {
+        return requestBuilder()
+                .addProtoFile(TestParallelGenerationProto.getDescriptor()
+                                                         .toProto())
+                .addFileToGenerate(PROTO_FILE)
+                .setParameter(protocConfig(options, configFile))
+                .build();
+    }
+
+    private static File file(String name) {
+        return File.newBuilder()
+                .setName(name)
+                .setContent("// " + name)
+                .build();
+    }
+
+    /**
+     * Generates a file for each type and counts the processed types.
+     */
+    private static final class CountingGenerator extends CodeGenerator {
+
+        private int count;
+
+        @Override
+        protected Collection<CompilerOutput> generate(Type<?, ?> type) {
+            count++;
+            var output = file(type.name().value() + ".java");
+            return ImmutableList.of(new TestOutput(output));
+        }
+    }
+
+    private static final class TestOutput extends AbstractCompilerOutput {
+
+        private TestOutput(File file) {
+            super(file);
+        }
+    }
+}
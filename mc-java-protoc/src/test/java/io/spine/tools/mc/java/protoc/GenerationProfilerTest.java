@@ -0,0 +1,177 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.protoc;
+
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.compiler.PluginProtos.CodeGeneratorResponse.File;
+import io.spine.tools.protoc.plugin.EnhancedWithCodeGeneration;
+import io.spine.type.MessageType;
+import io.spine.type.Type;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+@DisplayName("`GenerationProfiler` should")
+final class GenerationProfilerTest {
+
+    private static final MessageType TYPE =
+            new MessageType(EnhancedWithCodeGeneration.getDescriptor());
+
+    /**
+     * The number of times each measurement is repeated, to reduce the noise.
+     */
+    private static final int RUNS = 5;
+
+    /**
+     * The maximum number of the slowest types listed in the profile of a generator.
+     */
+    private static final int SLOWEST_TYPES = 10;
+
+    @Test
+    @DisplayName("record the work of each generator")
+    void recordGenerators() {
+        var profiler = GenerationProfiler.start();
+        var output = profiler.generate(new SingleFileGenerator(), TYPE);
+
+        assertThat(output)
+                .hasSize(1);
+        var profile = profiler.toProto();
+        assertThat(profile.getGeneratorList())
+                .hasSize(1);
+        var generator = profile.getGenerator(0);
+        assertThat(generator.getName())
+                .isEqualTo(SingleFileGenerator.class.getSimpleName());
+        assertThat(generator.getTypeCount())
+                .isEqualTo(1);
+        assertThat(generator.getOutputBytes())
+                .isGreaterThan(0L);
+        assertThat(generator.getSlowestType(0).getType())
+                .isEqualTo(TYPE.name().value());
+    }
+
+    @Test
+    @DisplayName("not record anything if disabled")
+    void disabled() {
+        var profiler = GenerationProfiler.disabled();
+        profiler.generate(new SingleFileGenerator(), TYPE);
+        profiler.recordMerging(42);
+
+        var profile = profiler.toProto();
+        assertThat(profile.getGeneratorList())
+                .isEmpty();
+        assertThat(profile.getMergingNanos())
+                .isEqualTo(0L);
+    }
+
+    @Test
+    @DisplayName("write the profile as JSON")
+    void writeJson(@TempDir Path dir) throws IOException {
+        var profiler = GenerationProfiler.start();
+        profiler.generate(new SingleFileGenerator(), TYPE);
+        var file = dir.resolve("profile.json");
+        profiler.writeTo(file);
+
+        var json = new String(Files.readAllBytes(file), UTF_8);
+        assertThat(json)
+                .contains(SingleFileGenerator.class.getSimpleName());
+    }
+
+    @Test
+    @DisplayName("list a bounded number of the slowest types")
+    void boundSlowestTypes() {
+        var profiler = GenerationProfiler.start();
+        var generator = new SingleFileGenerator();
+        for (var i = 0; i < SLOWEST_TYPES * 10; i++) {
+            profiler.generate(generator, TYPE);
+        }
+
+        var profile = profiler.toProto()
+                              .getGenerator(0);
+        assertThat(profile.getTypeCount())
+                .isEqualTo(SLOWEST_TYPES * 10);
+        assertThat(profile.getSlowestTypeList())
+                .hasSize(SLOWEST_TYPES);
+    }
+
+    @Test
+    @DisplayName("spend constant time per profiled type")
+    void constantOverhead() {
+        var small = timeOfProfiling(2_000);
+        var large = timeOfProfiling(20_000);
+        assertThat(large)
+                .isLessThan(small * 20);
+    }
+
+    /**
+     * Measures the best time of profiling the given number of types.
+     */
+    private static long timeOfProfiling(int typeCount) {
+        var generator = new SingleFileGenerator();
+        var best = Long.MAX_VALUE;
+        for (var run = 0; run < RUNS; run++) {
+            var profiler = GenerationProfiler.start();
+            var start = System.nanoTime();
+            for (var i = 0; i < typeCount; i++) {
+                profiler.generate(generator, TYPE);
+            }
+            var elapsed = System.nanoTime() - start;
+            assertThat(profiler.toProto()
+                               .getGenerator(0)
+                               .getTypeCount())
+                    .isEqualTo(typeCount);
+            best = Math.min(best, elapsed);
+        }
+        return best;
+    }
+
+    private static final class SingleFileGenerator extends CodeGenerator {
+
+        @Override
+        protected Collection<CompilerOutput> generate(Type<?, ?> type) {
+            var file = File.newBuilder()
+                    .setName(type.name().value() + ".java")
+                    .setContent("// Generated.")
+                    .build();
+            return ImmutableList.of(new Output(file));
+        }
+    }
+
+    private static final class Output extends AbstractCompilerOutput {
+
+        private Output(File file) {
+            super(file);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.protoc;
+
+import io.spine.tools.mc.java.codegen.CodegenOptions;
+import io.spine.tools.mc.java.codegen.Entities;
+import io.spine.tools.mc.java.codegen.Messages;
+import io.spine.tools.mc.java.codegen.Pattern;
+import io.spine.tools.mc.java.codegen.Signals;
+import io.spine.tools.mc.java.codegen.TypePattern;
+import io.spine.tools.protoc.plugin.FPMMessage;
+import io.spine.type.MessageType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spine.testing.Assertions.assertIllegalArgument;
+import static io.spine.tools.mc.java.gradle.codegen.FilePatterns.filePrefix;
+import static io.spine.tools.mc.java.gradle.codegen.FilePatterns.fileRegex;
+import static io.spine.tools.mc.java.gradle.codegen.FilePatterns.fileSuffix;
+
+@DisplayName("`PatternIndex` should")
+class PatternIndexTest {
+
+    private static final MessageType TYPE = new MessageType(FPMMessage.getDescriptor());
+
+    private static final TypePattern TYPE_REGEX = TypePattern.newBuilder()
+            .setRegex(".*FPMMessage")
+            .build();
+
+    @Test
+    @DisplayName("index the patterns of all the options")
+    void indexAllOptions() {
+        var suffix = fileSuffix("file_patterns.proto");
+        var prefix = filePrefix("spine/tools/protoc/");
+        var regex = fileRegex(".*test_patterns.*");
+        var options = CodegenOptions.newBuilder()
+                .setEvents(Signals.newBuilder()
+                                  .addPattern(suffix))
+                .setEntities(Entities.newBuilder()
+                                     .addPattern(prefix))
+                .addMessages(Messages.newBuilder()
+                                     .setPattern(Pattern.newBuilder()
+                                                        .setFile(regex)))
+                .addMessages(Messages.newBuilder()
+                                     .setPattern(Pattern.newBuilder()
+                                                        .setType(TYPE_REGEX)))
+                .build();
+        var index = PatternIndex.of(options);
+
+        assertThat(index.filePatternsMatching(TYPE))
+                .containsExactly(suffix, prefix);
+        assertThat(index.typePatternsMatching(TYPE))
+                .containsExactly(TYPE_REGEX);
+    }
+
+    @Test
+    @DisplayName("not share patterns between the indexes")
+    void notShare() {
+        var suffix = fileSuffix("file_patterns.proto");
+        var first = PatternIndex.of(suffix);
+        var second = PatternIndex.of(TYPE_REGEX);
+
+        assertThat(first.filePatternsMatching(TYPE))
+                .containsExactly(suffix);
+        assertThat(second.filePatternsMatching(TYPE))
+                .isEmpty();
+        assertThat(first.typePatternsMatching(TYPE))
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("not accept matchers of patterns which are not indexed")
+    void rejectUnknownPatterns() {
+        var index = PatternIndex.of(fileSuffix("file_patterns.proto"));
+
+        assertIllegalArgument(() -> new FilePatternMatcher(fileSuffix("other.proto"), index));
+        assertIllegalArgument(() -> new TypePatternMatcher(TYPE_REGEX, index));
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.protoc;
+
+import com.google.protobuf.compiler.PluginProtos.CodeGeneratorRequest;
+import com.google.protobuf.compiler.PluginProtos.CodeGeneratorResponse;
+import io.spine.tools.mc.java.codegen.Uuids;
+import io.spine.tools.mc.java.protoc.given.UuidMethodFactory;
+import io.spine.tools.protoc.plugin.method.TestMethodProtos;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.file.attribute.PosixFilePermission.OWNER_READ;
+import static java.nio.file.attribute.PosixFilePermission.OWNER_WRITE;
+import static io.spine.tools.mc.java.protoc.given.CodeGeneratorRequestGiven.methodFactory;
+import static io.spine.tools.mc.java.protoc.given.CodeGeneratorRequestGiven.optionsWithoutValidation;
+import static io.spine.tools.mc.java.protoc.given.CodeGeneratorRequestGiven.protocConfig;
+import static io.spine.tools.mc.java.protoc.given.CodeGeneratorRequestGiven.requestBuilder;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@DisplayName("`PluginDaemon` should")
+final class PluginDaemonTest {
+
+    private PluginDaemon daemon;
+    private Thread serving;
+
+    @BeforeEach
+    void startDaemon() {
+        daemon = PluginDaemon.start(0);
+        serving = new Thread(daemon::serve);
+        serving.start();
+    }
+
+    @AfterEach
+    void stopDaemon() throws InterruptedException {
+        daemon.stop();
+        serving.join();
+    }
+
+    @Test
+    @DisplayName("respond in the same way as the plugin run in a separate process")
+    void respondAsPlugin(@TempDir Path tempDir) throws IOException {
+        var request = request(tempDir.resolve("config.pb"));
+        var expected = Plugin.generate(request);
+
+        assertThat(send(request))
+                .isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("serve several requests")
+    void serveSeveralRequests(@TempDir Path tempDir) throws IOException {
+        var request = request(tempDir.resolve("config.pb"));
+        var first = send(request);
+        var second = send(request);
+
+        assertThat(first.getFileList())
+                .isNotEmpty();
+        assertThat(second)
+                .isEqualTo(first);
+    }
+
+    @Test
+    @DisplayName("report an error in the response")
+    void reportError() throws IOException {
+        var response = send(CodeGeneratorRequest.getDefaultInstance());
+
+        assertThat(response.getError())
+                .isNotEmpty();
+    }
+
+    @Test
+    @DisplayName("close the connection without a valid session token")
+    void rejectUnknownClient(@TempDir Path tempDir) throws IOException {
+        var request = request(tempDir.resolve("config.pb"));
+        var size = request.getSerializedSize();
+
+        assertThat(replyToHeader("0".repeat(daemon.token().length()) + ' ' + size))
+                .isEqualTo(-1);
+        assertThat(replyToHeader(String.valueOf(size)))
+                .isEqualTo(-1);
+        assertThat(send(request).getFileList())
+                .isNotEmpty();
+    }
+
+    @Test
+    @DisplayName("write the session file readable only by the owner")
+    void writeSession(@TempDir Path tempDir) throws IOException {
+        var file = tempDir.resolve("protoc.session");
+        daemon.writeSession(file);
+
+        assertThat(Files.readAllLines(file, US_ASCII))
+                .containsExactly(String.valueOf(daemon.port()), daemon.token())
+                .inOrder();
+        assumeTrue(file.getFileSystem()
+                       .supportedFileAttributeViews()
+                       .contains("posix"));
+        assertThat(Files.getPosixFilePermissions(file))
+                .containsExactly(OWNER_READ, OWNER_WRITE);
+    }
+
+    private static CodeGeneratorRequest request(Path configFile) {
+        var uuids = Uuids.newBuilder()
+                .addMethodFactory(methodFactory(UuidMethodFactory.class))
+                .build();
+        var config = optionsWithoutValidation()
+                .setUuids(uuids)
+                .build();
+        return requestBuilder()
+                .addProtoFile(TestMethodProtos.getDescriptor().toProto())
+                .addFileToGenerate("spine/tools/protoc/method/test_protos.proto")
+                .setParameter(protocConfig(config, configFile))
+                .build();
+    }
+
+    private CodeGeneratorResponse send(CodeGeneratorRequest request) throws IOException {
+        return send(request, daemon.token());
+    }
+
+    /**
+     * Sends the request without shutting down the output, as {@code nc} without the {@code -N}
+     * flag does.
+     */
+    private CodeGeneratorResponse send(CodeGeneratorRequest request, String token)
+            throws IOException {
+        try (var socket = new Socket(InetAddress.getLoopbackAddress(), daemon.port())) {
+            var out = socket.getOutputStream();
+            var header = token + ' ' + request.getSerializedSize() + '\n';
+            out.write(header.getBytes(US_ASCII));
+            request.writeTo(out);
+            out.flush();
+            return CodeGeneratorResponse.parseFrom(socket.getInputStream());
+        }
+    }
+
+    /**
+     * Sends the given header line and reads the first byte of the reply.
+     */
+    private int replyToHeader(String header) throws IOException {
+        try (var socket = new Socket(InetAddress.getLoopbackAddress(), daemon.port())) {
+            var out = socket.getOutputStream();
+            out.write((header + '\n').getBytes(US_ASCII));
+            out.flush();
+            return socket.getInputStream()
+                         .read();
+        }
+    }
+}
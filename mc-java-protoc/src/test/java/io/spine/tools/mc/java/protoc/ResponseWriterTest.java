@@ -0,0 +1,77 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.protoc;
+
+import com.google.protobuf.compiler.PluginProtos.CodeGeneratorResponse;
+import com.google.protobuf.compiler.PluginProtos.CodeGeneratorResponse.File;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@DisplayName("`ResponseWriter` should")
+final class ResponseWriterTest {
+
+    @Test
+    @DisplayName("write the same bytes as the serialized response")
+    void writeResponseBytes() {
+        var complete = File.newBuilder()
+                .setName("io/spine/Foo.java")
+                .setContent("class Foo {}")
+                .build();
+        var insertion = File.newBuilder()
+                .setName("io/spine/Bar.java")
+                .setInsertionPoint("class_scope:Bar")
+                .setContent("void bar() {}")
+                .build();
+        var stream = new ByteArrayOutputStream();
+        var writer = ResponseWriter.to(stream);
+        writer.write(complete);
+        writer.write(insertion);
+        writer.finish();
+
+        var expected = CodeGeneratorResponse.newBuilder()
+                .addFile(complete)
+                .addFile(insertion)
+                .build();
+        assertThat(stream.toByteArray())
+                .isEqualTo(expected.toByteArray());
+    }
+
+    @Test
+    @DisplayName("write an empty response if no files are written")
+    void writeEmpty() {
+        var stream = new ByteArrayOutputStream();
+        ResponseWriter.to(stream)
+                      .finish();
+
+        assertThat(stream.size())
+                .isEqualTo(0);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.protoc;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@DisplayName("`StringTrie` should")
+class StringTrieTest {
+
+    @Test
+    @DisplayName("find all the keys which are prefixes of a string")
+    void matchPrefixes() {
+        StringTrie<String> trie = StringTrie.forPrefixes();
+        trie.put("spine/", "root");
+        trie.put("spine/test/", "test");
+        trie.put("spine/tools/", "tools");
+        trie.put("", "any");
+
+        assertThat(trie.match("spine/test/orders.proto"))
+                .containsExactly("any", "root", "test");
+        assertThat(trie.match("acme/orders.proto"))
+                .containsExactly("any");
+    }
+
+    @Test
+    @DisplayName("find all the keys which are suffixes of a string")
+    void matchSuffixes() {
+        StringTrie<String> trie = StringTrie.forSuffixes();
+        trie.put(".proto", "proto");
+        trie.put("events.proto", "events");
+        trie.put("commands.proto", "commands");
+
+        assertThat(trie.match("spine/test/events.proto"))
+                .containsExactly("proto", "events");
+        assertThat(trie.match("spine/test/events.txt"))
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("not match keys longer than the string")
+    void notMatchLongerKeys() {
+        StringTrie<String> trie = StringTrie.forPrefixes();
+        trie.put("spine/test/orders.proto.bak", "backup");
+
+        assertThat(trie.match("spine/test/orders.proto"))
+                .isEmpty();
+    }
+}
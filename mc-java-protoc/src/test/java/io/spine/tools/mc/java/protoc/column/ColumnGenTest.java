@@ -29,6 +29,7 @@ package io.spine.tools.mc.java.protoc.column;
 import com.google.common.testing.NullPointerTester;
 import io.spine.option.OptionsProto;
 import io.spine.tools.mc.java.codegen.CodegenOptions;
+import io.spine.tools.mc.java.protoc.PatternIndex;
 import io.spine.tools.proto.code.ProtoOption;
 import io.spine.tools.protoc.plugin.nested.Task;
 import io.spine.tools.protoc.plugin.nested.TaskView;
@@ -48,6 +49,8 @@ class ColumnGenTest {
     @DisplayName(NOT_ACCEPT_NULLS)
     void passNullToleranceCheck() {
         new NullPointerTester()
+                .setDefault(PatternIndex.class,
+                            PatternIndex.of(CodegenOptions.getDefaultInstance()))
                 .testAllPublicStaticMethods(ColumnGen.class);
     }
 
@@ -33,6 +33,7 @@ import io.spine.tools.mc.java.codegen.GenerateFields;
 import io.spine.tools.mc.java.codegen.Messages;
 import io.spine.tools.mc.java.codegen.Pattern;
 import io.spine.tools.mc.java.gradle.codegen.FilePatterns;
+import io.spine.tools.mc.java.protoc.PatternIndex;
 import io.spine.tools.protoc.plugin.nested.Task;
 import io.spine.tools.protoc.plugin.nested.TaskView;
 import io.spine.type.EnumType;
@@ -51,6 +52,8 @@ class FieldGenTest {
     @DisplayName(NOT_ACCEPT_NULLS)
     void passNullToleranceCheck() {
         new NullPointerTester()
+                .setDefault(PatternIndex.class,
+                            PatternIndex.of(CodegenOptions.getDefaultInstance()))
                 .testAllPublicStaticMethods(FieldGen.class);
     }
 
@@ -30,8 +30,10 @@ import com.google.common.testing.NullPointerTester;
 import io.spine.base.SubscribableField;
 import io.spine.option.OptionsProto;
 import io.spine.tools.java.code.field.FieldFactory;
+import io.spine.tools.mc.java.codegen.CodegenOptions;
 import io.spine.tools.mc.java.codegen.Entities;
 import io.spine.tools.mc.java.codegen.GenerateFields;
+import io.spine.tools.mc.java.protoc.PatternIndex;
 import io.spine.tools.proto.code.ProtoOption;
 import io.spine.tools.protoc.plugin.message.tests.ProtocProject;
 import io.spine.tools.protoc.plugin.message.tests.ProtocProjectId;
@@ -108,7 +110,10 @@ final class GenerateEntityStateFieldsTest {
     }
 
     private GenerateEntityStateFields newTask(Entities config) {
-        return new GenerateEntityStateFields(config, factory);
+        var options = CodegenOptions.newBuilder()
+                .setEntities(config)
+                .build();
+        return new GenerateEntityStateFields(config, factory, PatternIndex.of(options));
     }
 
     private static Entities config() {
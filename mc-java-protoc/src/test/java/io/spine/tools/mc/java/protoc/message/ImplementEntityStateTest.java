@@ -31,7 +31,9 @@ import io.spine.base.EntityState;
 import io.spine.option.OptionsProto;
 import io.spine.tools.java.code.JavaClassName;
 import io.spine.tools.mc.java.codegen.AddInterface;
+import io.spine.tools.mc.java.codegen.CodegenOptions;
 import io.spine.tools.mc.java.codegen.Entities;
+import io.spine.tools.mc.java.protoc.PatternIndex;
 import io.spine.tools.proto.code.ProtoOption;
 import io.spine.tools.protoc.plugin.message.tests.ProtocProject;
 import io.spine.tools.protoc.plugin.message.tests.ProtocProjectId;
@@ -125,6 +127,9 @@ class ImplementEntityStateTest {
                 .addAddInterface(iface)
                 .addOption(option)
                 .build();
-        return new ImplementEntityState(className, config);
+        var options = CodegenOptions.newBuilder()
+                .setEntities(config)
+                .build();
+        return new ImplementEntityState(className, config, PatternIndex.of(options));
     }
 }
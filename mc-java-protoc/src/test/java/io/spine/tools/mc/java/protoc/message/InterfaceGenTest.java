@@ -43,6 +43,7 @@ import io.spine.tools.java.fs.SourceFile;
 import io.spine.tools.mc.java.codegen.CodegenOptions;
 import io.spine.tools.mc.java.gradle.codegen.CodegenOptionsConfig;
 import io.spine.tools.mc.java.protoc.CodeGenerator;
+import io.spine.tools.mc.java.protoc.PatternIndex;
 import io.spine.tools.protoc.plugin.message.tests.EveryIsGeneratedProto;
 import io.spine.tools.protoc.plugin.message.tests.EveryIsInOneFileProto;
 import io.spine.tools.protoc.plugin.message.tests.EveryIsTestProto;
@@ -155,6 +156,8 @@ final class InterfaceGenTest {
     void notAcceptNulls() {
         new NullPointerTester()
                 .setDefault(CodeGeneratorRequest.class, CodeGeneratorRequest.getDefaultInstance())
+                .setDefault(PatternIndex.class,
+                            PatternIndex.of(CodegenOptions.getDefaultInstance()))
                 .testAllPublicStaticMethods(InterfaceGen.class);
     }
 
@@ -27,6 +27,8 @@
 package io.spine.tools.mc.java.protoc.message;
 
 import io.spine.tools.java.code.JavaClassName;
+import io.spine.tools.mc.java.codegen.CodegenOptions;
+import io.spine.tools.mc.java.protoc.PatternIndex;
 import io.spine.tools.mc.java.protoc.given.TestInterface;
 import io.spine.tools.protoc.plugin.message.tests.ProjectCreated;
 import io.spine.type.MessageType;
@@ -53,6 +55,6 @@ final class InterfacesTest {
     }
 
     private static ImplementByPattern newTask(JavaClassName className, FilePattern pattern) {
-        return new ImplementByPattern(className, pattern);
+        return new ImplementByPattern(className, pattern, PatternIndex.of(pattern));
     }
 }
@@ -31,6 +31,7 @@ import io.spine.option.OptionsProto;
 import io.spine.tools.mc.java.codegen.CodegenOptions;
 import io.spine.tools.mc.java.codegen.Entities;
 import io.spine.tools.mc.java.protoc.NoOpGenerator;
+import io.spine.tools.mc.java.protoc.PatternIndex;
 import io.spine.tools.proto.code.ProtoOption;
 import io.spine.tools.protoc.plugin.nested.Task;
 import io.spine.tools.protoc.plugin.nested.TaskView;
@@ -51,6 +52,8 @@ class EntityQueryGenTest {
     @DisplayName(NOT_ACCEPT_NULLS)
     void passNullToleranceCheck() {
         new NullPointerTester()
+                .setDefault(PatternIndex.class,
+                            PatternIndex.of(CodegenOptions.getDefaultInstance()))
                 .testAllPublicStaticMethods(EntityQueryGen.class);
     }
 
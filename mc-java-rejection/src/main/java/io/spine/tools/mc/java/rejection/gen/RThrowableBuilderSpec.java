@@ -26,6 +26,8 @@
 
 package io.spine.tools.mc.java.rejection.gen;
 
+import com.google.protobuf.Descriptors.FieldDescriptor.JavaType;
+import com.google.protobuf.Message;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.FieldSpec;
@@ -57,8 +59,11 @@ import static javax.lang.model.element.Modifier.STATIC;
 /**
  * Generates code for a rejection builder.
  *
- * <p>A generated builder validates rejection messages using
+ * <p>A generated builder validates rejection messages using the validation code generated
+ * for the message class, if there is such code. Otherwise, the messages are validated using
  * {@link io.spine.validate.Validate#checkValid(com.google.protobuf.Message)}.
+ *
+ * <p>The messages which cannot have validation constraints are not validated.
  */
 final class RThrowableBuilderSpec implements BuilderSpec {
 
@@ -69,14 +74,17 @@ final class RThrowableBuilderSpec implements BuilderSpec {
     private final JavaPoetName messageClass;
     private final JavaPoetName throwableClass;
     private final SimpleClassName name;
+    private final boolean validationGenerated;
 
     RThrowableBuilderSpec(RejectionType rejection,
                           JavaPoetName messageClass,
-                          JavaPoetName throwableClass) {
+                          JavaPoetName throwableClass,
+                          boolean validationGenerated) {
         this.rejection = rejection;
         this.messageClass = messageClass;
         this.throwableClass = throwableClass;
         this.name = SimpleClassName.ofBuilder();
+        this.validationGenerated = validationGenerated;
     }
 
     @Override
@@ -153,15 +161,48 @@ final class RThrowableBuilderSpec implements BuilderSpec {
     }
 
     private MethodSpec rejectionMessage() {
-        var javadoc = fromEscaped("Obtains the rejection and validates it.").withNewLine();
-        return methodBuilder("rejectionMessage")
+        var method = methodBuilder("rejectionMessage")
                 .addModifiers(PRIVATE)
-                .addJavadoc(javadoc.value())
-                .returns(messageClass.value())
-                .addStatement("$T message = $L.build()", messageClass.value(), BUILDER_FIELD)
-                .addStatement("$T.checkValid(message)", Validate.class)
-                .addStatement("return message")
-                .build();
+                .returns(messageClass.value());
+        if (!mayHaveConstraints(rejection)) {
+            var javadoc = fromEscaped("Obtains the rejection.").withNewLine();
+            return method.addJavadoc(javadoc.value())
+                         .addStatement("return $L.build()", BUILDER_FIELD)
+                         .build();
+        }
+        var javadoc = fromEscaped("Obtains the rejection and validates it.").withNewLine();
+        method.addJavadoc(javadoc.value());
+        if (validationGenerated) {
+            return method.addStatement("return $L.vBuild()", BUILDER_FIELD)
+                         .build();
+        }
+        return method.addStatement("$T message = $L.build()", messageClass.value(), BUILDER_FIELD)
+                     .addStatement("$T.checkValid(message)", Validate.class)
+                     .addStatement("return message")
+                     .build();
+    }
+
+    /**
+     * Tells if the rejection message may have validation constraints.
+     *
+     * <p>A message is considered constrained if the message or any of its fields have
+     * options, or if any of its fields is a message, which may have constraints of its own.
+     */
+    private static boolean mayHaveConstraints(RejectionType rejection) {
+        for (var field : rejection.fields()) {
+            var descriptor = field.descriptor();
+            if (descriptor.getJavaType() == JavaType.MESSAGE
+                    || hasOptions(descriptor.getOptions())
+                    || hasOptions(descriptor.getContainingType().getOptions())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasOptions(Message options) {
+        return !options.getAllFields().isEmpty()
+                || !options.getUnknownFields().asMap().isEmpty();
     }
 
     @SuppressWarnings("DuplicateStringLiteralInspection") // The same string has different semantics
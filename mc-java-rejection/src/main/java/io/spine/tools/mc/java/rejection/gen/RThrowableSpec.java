@@ -44,6 +44,7 @@ import static javax.lang.model.element.Modifier.FINAL;
 import static javax.lang.model.element.Modifier.PRIVATE;
 import static javax.lang.model.element.Modifier.PUBLIC;
 import static javax.lang.model.element.Modifier.STATIC;
+import static javax.lang.model.element.Modifier.SYNCHRONIZED;
 
 /**
  * A spec for a generated rejection type.
@@ -59,6 +60,7 @@ public final class RThrowableSpec implements TypeSpec, Logging {
     private final JavaPoetName messageClass;
 
     private final RThrowableBuilderSpec builder;
+    private final boolean stackless;
 
     /**
      * Creates a new instance.
@@ -67,10 +69,27 @@ public final class RThrowableSpec implements TypeSpec, Logging {
      *         a rejection declaration
      */
     public RThrowableSpec(RejectionType type) {
+        this(type, false, false);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param type
+     *         a rejection declaration
+     * @param stackless
+     *         if {@code true}, the generated rejection does not capture the stack trace
+     *         when created
+     * @param validationGenerated
+     *         if {@code true}, the rejection message class has the generated validation code,
+     *         which the rejection builder calls directly
+     */
+    public RThrowableSpec(RejectionType type, boolean stackless, boolean validationGenerated) {
         this.declaration = type;
+        this.stackless = stackless;
         this.messageClass = JavaPoetName.of(type.messageClass());
         this.builder = new RThrowableBuilderSpec(
-                type, messageClass, JavaPoetName.of(type.throwableClass())
+                type, messageClass, JavaPoetName.of(type.throwableClass()), validationGenerated
         );
     }
 
@@ -90,11 +109,13 @@ public final class RThrowableSpec implements TypeSpec, Logging {
                         .superclass(RejectionThrowable.class)
                         .addField(serialVersionUID())
                         .addMethod(constructor())
-                        .addMethod(messageThrown())
-                        .addMethod(builder.newBuilder())
+                        .addMethod(messageThrown());
+        if (stackless) {
+            rejection.addMethod(fillInStackTrace());
+        }
+        return rejection.addMethod(builder.newBuilder())
                         .addType(builder.toPoet())
                         .build();
-        return rejection;
     }
 
     private MethodSpec constructor() {
@@ -122,6 +143,23 @@ public final class RThrowableSpec implements TypeSpec, Logging {
                 .build();
     }
 
+    /**
+     * Creates the method which skips filling in the stack trace.
+     *
+     * <p>{@link Throwable} fills in the stack trace in its constructor by calling
+     * the overridden method, so the rejection is created without the stack trace.
+     */
+    private static MethodSpec fillInStackTrace() {
+        return MethodSpec.methodBuilder("fillInStackTrace")
+                .addJavadoc("Does not fill in the stack trace, since the rejection is "
+                                    + "an expected outcome rather than an error.\n")
+                .addAnnotation(Override.class)
+                .addModifiers(PUBLIC, SYNCHRONIZED)
+                .returns(Throwable.class)
+                .addStatement("return this")
+                .build();
+    }
+
     /**
      * A Javadoc content for the rejection.
      *
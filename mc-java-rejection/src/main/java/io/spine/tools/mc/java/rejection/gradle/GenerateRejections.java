@@ -0,0 +1,115 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.rejection.gradle;
+
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.gradle.api.Action;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.Task;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.TaskAction;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static org.gradle.api.tasks.PathSensitivity.NONE;
+import static org.gradle.api.tasks.PathSensitivity.RELATIVE;
+
+/**
+ * A task that generates the rejections declared in the rejections files of a source set.
+ *
+ * <p>The generated code depends only on the declared inputs of the task, so Gradle may skip
+ * the task if the inputs did not change, or reuse its outputs from the build cache.
+ *
+ * @see RejectionGenAction
+ */
+@CacheableTask
+@SuppressWarnings("AbstractClassNeverImplemented") // Gradle creates a subtype for this class.
+public abstract class GenerateRejections extends DefaultTask {
+
+    private @MonotonicNonNull Action<Task> action;
+
+    /**
+     * The proto source files of the source set.
+     *
+     * <p>The paths of the files are relative to the source directories, since the rejections
+     * files are matched against the {@code stacklessRejectionFiles} option by their paths.
+     */
+    @InputFiles
+    @PathSensitive(RELATIVE)
+    public abstract ConfigurableFileCollection getProtoFiles();
+
+    /**
+     * The descriptor set file of the source set and the merged descriptor set file with
+     * the types known to the source set.
+     */
+    @InputFiles
+    @PathSensitive(NONE)
+    public abstract ConfigurableFileCollection getDescriptorSets();
+
+    /**
+     * The version of the generator, including the options which affect the generated code.
+     */
+    @Input
+    public abstract Property<String> getGeneratorVersion();
+
+    /**
+     * The directory where the rejections are generated.
+     */
+    @OutputDirectory
+    public abstract DirectoryProperty getTargetDir();
+
+    /**
+     * The manifest of the generated rejections.
+     *
+     * <p>The manifest is the output of the task, so that it is restored from the build cache
+     * together with the generated sources.
+     */
+    @OutputFile
+    public abstract RegularFileProperty getManifestFile();
+
+    /**
+     * Sets the action which generates the rejections.
+     */
+    void setAction(Action<Task> action) {
+        this.action = checkNotNull(action);
+    }
+
+    @TaskAction
+    private void generate() {
+        checkState(action != null, "The action of the task `%s` is not set.", getName());
+        action.execute(this);
+    }
+}
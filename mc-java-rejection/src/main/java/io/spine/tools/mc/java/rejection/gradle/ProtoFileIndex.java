@@ -0,0 +1,75 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.rejection.gradle;
+
+import com.google.common.collect.ImmutableSet;
+
+import java.nio.file.Path;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An index of the proto files of a source set, which allows to check if a proto file with
+ * a given relative path belongs to the source set in constant time.
+ *
+ * <p>The index holds all the trailing sub-paths of the given files. A relative path is found in
+ * the index if it is a suffix of at least one of the files, which matches the semantics of
+ * {@link Path#endsWith(Path)}.
+ */
+final class ProtoFileIndex {
+
+    private final ImmutableSet<Path> suffixes;
+
+    private ProtoFileIndex(ImmutableSet<Path> suffixes) {
+        this.suffixes = suffixes;
+    }
+
+    /**
+     * Creates an index of the given proto files.
+     */
+    static ProtoFileIndex of(Iterable<Path> protoFiles) {
+        checkNotNull(protoFiles);
+        var suffixes = ImmutableSet.<Path>builder();
+        for (var file : protoFiles) {
+            var normalized = file.normalize();
+            suffixes.add(normalized);
+            var count = normalized.getNameCount();
+            for (var i = 0; i < count; i++) {
+                suffixes.add(normalized.subpath(i, count));
+            }
+        }
+        return new ProtoFileIndex(suffixes.build());
+    }
+
+    /**
+     * Checks if any of the indexed files ends with the given path.
+     */
+    boolean contains(Path file) {
+        checkNotNull(file);
+        return suffixes.contains(file.normalize());
+    }
+}
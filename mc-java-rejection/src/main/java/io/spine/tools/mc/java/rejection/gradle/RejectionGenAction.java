@@ -26,8 +26,12 @@
 
 package io.spine.tools.mc.java.rejection.gradle;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.hash.Hashing;
 import io.spine.base.RejectionThrowable;
+import io.spine.base.RejectionType;
 import io.spine.code.java.PackageName;
 import io.spine.code.java.SimpleClassName;
 import io.spine.code.proto.FileSet;
@@ -42,25 +46,31 @@ import io.spine.tools.java.code.TypeSpecWriter;
 import io.spine.tools.mc.java.gradle.McJavaOptions;
 import io.spine.tools.mc.java.gradle.Projects;
 import io.spine.tools.mc.java.rejection.gen.RThrowableSpec;
+import io.spine.tools.type.MoreKnownTypes;
 import org.checkerframework.checker.nullness.qual.Nullable;
-import org.gradle.api.Action;
 import org.gradle.api.Project;
 import org.gradle.api.Task;
 import org.gradle.api.file.FileCollection;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Set;
+import java.nio.file.Paths;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Strings.nullToEmpty;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static com.google.common.flogger.LazyArgs.lazy;
 import static io.spine.tools.gradle.project.Projects.getSourceSets;
 import static io.spine.tools.mc.java.gradle.Projects.generatedRejectionsDir;
+import static io.spine.tools.mc.java.gradle.Projects.mergedDescriptorSetFile;
 import static io.spine.tools.mc.java.gradle.Projects.protoDir;
+import static io.spine.tools.mc.java.gradle.Projects.rejectionsManifestFile;
+import static io.spine.util.Exceptions.illegalStateWithCauseOf;
 
 /**
  * Generates source code of rejections.
@@ -73,6 +83,14 @@ import static io.spine.tools.mc.java.gradle.Projects.protoDir;
  */
 final class RejectionGenAction extends CodeGenerationAction {
 
+    /**
+     * The revision of the rejection code generator.
+     *
+     * <p>Should be increased each time the generated code changes, so that the rejections
+     * generated by a previous revision are not reused.
+     */
+    private static final int GENERATOR_REVISION = 4;
+
     private final SourceSetName ssn;
 
     private RejectionGenAction(Project project,
@@ -89,7 +107,7 @@ final class RejectionGenAction extends CodeGenerationAction {
      * files in the given sources set of the project.
      */
     @SuppressWarnings("RedundantExplicitVariableType") // Avoid extra casts.
-    static Action<Task> create(Project project, SourceSetName ssn) {
+    static RejectionGenAction create(Project project, SourceSetName ssn) {
         Supplier<String> protoSrcDir = () -> protoDir(project, ssn).toString();
         var protoFiles = ProtoFiles.collect(project, ssn);
         Supplier<String> targetDir = () -> generatedRejectionsDir(project, ssn).toString();
@@ -111,14 +129,95 @@ final class RejectionGenAction extends CodeGenerationAction {
         sourceSet.java(sds -> sds.srcDir(dir));
     }
 
+    /**
+     * Generates the rejections declared in the rejections files of the source set.
+     *
+     * <p>The rejections files which did not change since the previous build are skipped,
+     * provided that the sources generated for them are still present. The sources generated
+     * for the rejections which no longer exist are deleted.
+     */
     @Override
     public void execute(Task task) {
+        loadKnownTypes();
         var files = protoFiles().get();
         var rejectionFiles = rejectionsInSourceSet(files);
         _debug().log("Processing the file descriptors for the rejections `%s`.", rejectionFiles);
+        var manifestFile = rejectionsManifestFile(project(), ssn);
+        var outputDir = targetDir().toPath();
+        var manifest = RejectionsManifest.load(manifestFile, outputDir, generatorVersion());
         for (var source : rejectionFiles) {
+            var sourcePath = source.path().toString();
+            var hash = hashOf(source);
+            if (manifest.reuse(sourcePath, hash)) {
+                _debug().log("Rejections in `%s` are up to date.", sourcePath);
+                continue;
+            }
             // We are sure that this is a rejections file because we got them filtered.
-            generateRejections(source);
+            var outputs = generateRejections(source);
+            manifest.record(sourcePath, hash, outputs);
+        }
+        deleteStale(manifest.staleOutputs());
+        manifest.save();
+    }
+
+    /**
+     * Extends the known types with the types from the runtime classpath of the source set.
+     *
+     * <p>The merged descriptor set file is missing if the source set has no Protobuf
+     * definitions.
+     */
+    private void loadKnownTypes() {
+        var knownTypes = mergedDescriptorSetFile(project(), ssn).toFile();
+        if (knownTypes.exists()) {
+            MoreKnownTypes.extendWith(knownTypes);
+        }
+    }
+
+    /**
+     * Obtains the version of the generated code.
+     *
+     * <p>The version includes the settings which affect the generated code, so that changing
+     * them causes all the rejections to be regenerated.
+     */
+    String generatorVersion() {
+        var implementationVersion = RThrowableSpec.class.getPackage()
+                                                        .getImplementationVersion();
+        var project = project();
+        var stacklessFiles = ImmutableSortedSet.copyOf(
+                McJavaOptions.getStacklessRejectionFiles(project)
+        );
+        return GENERATOR_REVISION + "/"
+                + nullToEmpty(implementationVersion) + "/"
+                + indent().size() + "/"
+                + McJavaOptions.getStacklessRejections(project) + "/"
+                + isValidationGenerated() + "/"
+                + String.join(",", stacklessFiles);
+    }
+
+    /**
+     * Calculates the hash of the given rejections file.
+     *
+     * <p>The hash also covers the direct dependencies of the file, since the generated code
+     * refers to the types declared in them.
+     */
+    private static String hashOf(RejectionsFile source) {
+        var hasher = Hashing.sha256().newHasher();
+        var descriptor = source.descriptor();
+        hasher.putBytes(descriptor.toProto().toByteArray());
+        for (var dependency : descriptor.getDependencies()) {
+            hasher.putBytes(dependency.toProto().toByteArray());
+        }
+        return hasher.hash().toString();
+    }
+
+    private void deleteStale(ImmutableSet<Path> staleOutputs) {
+        for (var output : staleOutputs) {
+            _debug().log("Deleting the source of a removed rejection `%s`.", output);
+            try {
+                Files.deleteIfExists(output);
+            } catch (IOException e) {
+                throw illegalStateWithCauseOf(e);
+            }
         }
     }
 
@@ -137,38 +236,85 @@ final class RejectionGenAction extends CodeGenerationAction {
     /**
      * Obtains the predicate which accepts sources files belonging to currently served
      * {@linkplain #ssn source set}.
+     *
+     * <p>The proto files of the source set are indexed once per call, so the predicate checks
+     * each file in constant time.
      */
     private Predicate<SourceFile> belongsToSourceSet() {
         @Nullable FileCollection fileCollection = Projects.protoFiles(project(), ssn);
         checkState(fileCollection != null, "No proto files found in the source set `%s`.", ssn);
-        Set<Path> protoFiles = fileCollection.getFiles()
+        var protoFiles = fileCollection.getFiles()
                 .stream()
                 .map(File::toPath)
                 .collect(toImmutableSet());
-        return file -> {
-            var sourceFile = file.path();
-            return protoFiles.stream().anyMatch(
-                    path -> path.endsWith(sourceFile)
-            );
-        };
+        var index = ProtoFileIndex.of(protoFiles);
+        return file -> index.contains(file.path());
     }
 
-    private void generateRejections(RejectionsFile source) {
+    /**
+     * Generates the rejections declared in the given file.
+     *
+     * @return the paths to the generated sources
+     */
+    private ImmutableList<Path> generateRejections(RejectionsFile source) {
         var rejections = source.rejectionDeclarations();
         if (rejections.isEmpty()) {
-            return;
+            return ImmutableList.of();
         }
         var outputDir = targetDir().toPath();
+        var stackless = isStackless(source);
+        var validationGenerated = isValidationGenerated();
         logGeneratingForFile(outputDir, source);
+        var outputs = ImmutableList.<Path>builder();
         for (var rejectionType : rejections) {
             // The name of the generated `ThrowableMessage` will be the same
             // as for the Protobuf message.
             _debug().log("Processing rejection `%s`.", rejectionType.simpleJavaClassName());
 
-            TypeSpec spec = new RThrowableSpec(rejectionType);
+            TypeSpec spec = new RThrowableSpec(rejectionType, stackless, validationGenerated);
             var writer = new TypeSpecWriter(spec, indent());
             writer.write(outputDir);
+            outputs.add(sourcePath(outputDir, rejectionType));
+        }
+        return outputs.build();
+    }
+
+    /**
+     * Tells if the rejections declared in the given file should not capture the stack trace.
+     *
+     * <p>The listed files are matched by whole path segments, in the same way as the files
+     * of the source set are {@linkplain #belongsToSourceSet() matched}.
+     *
+     * @see McJavaOptions#stacklessRejections
+     * @see McJavaOptions#stacklessRejectionFiles
+     */
+    private boolean isStackless(RejectionsFile source) {
+        if (McJavaOptions.getStacklessRejections(project())) {
+            return true;
         }
+        var index = ProtoFileIndex.of(ImmutableList.of(source.path()));
+        return McJavaOptions.getStacklessRejectionFiles(project())
+                            .stream()
+                            .map(Paths::get)
+                            .anyMatch(index::contains);
+    }
+
+    /**
+     * Tells if the message classes have the generated validation code, including
+     * the {@code vBuild()} method of their builders.
+     */
+    private boolean isValidationGenerated() {
+        var validation = Projects.getMcJava(project()).codegen.validation();
+        return !validation.shouldSkipValidation() && !validation.shouldSkipBuilders();
+    }
+
+    private static Path sourcePath(Path outputDir, RejectionType rejectionType) {
+        var packageDir = rejectionType.javaPackage()
+                                      .value()
+                                      .replace('.', File.separatorChar);
+        var fileName = rejectionType.simpleJavaClassName().value() + ".java";
+        return outputDir.resolve(packageDir)
+                        .resolve(fileName);
     }
 
     private void logGeneratingForFile(Path outputDir, RejectionsFile source) {
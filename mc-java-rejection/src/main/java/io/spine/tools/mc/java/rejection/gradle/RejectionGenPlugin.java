@@ -28,15 +28,19 @@ package io.spine.tools.mc.java.rejection.gradle;
 
 import com.google.common.collect.ImmutableList;
 import io.spine.tools.code.SourceSetName;
-import io.spine.tools.gradle.task.GradleTask;
+import io.spine.tools.mc.java.gradle.Projects;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.spine.tools.gradle.project.Projects.descriptorSetFile;
 import static io.spine.tools.gradle.project.Projects.getSourceSetNames;
 import static io.spine.tools.gradle.task.JavaTaskName.compileJava;
 import static io.spine.tools.mc.java.gradle.McJavaTaskName.generateRejections;
 import static io.spine.tools.mc.java.gradle.McJavaTaskName.mergeDescriptorSet;
+import static io.spine.tools.mc.java.gradle.Projects.generatedRejectionsDir;
+import static io.spine.tools.mc.java.gradle.Projects.mergedDescriptorSetFile;
+import static io.spine.tools.mc.java.gradle.Projects.rejectionsManifestFile;
 
 /**
  * Plugin which generates Rejections declared in {@code rejections.proto} files.
@@ -64,21 +68,36 @@ public final class RejectionGenPlugin implements Plugin<Project> {
         );
     }
 
-    private static ImmutableList<GradleTask> createTasks(Project project) {
+    private static ImmutableList<GenerateRejections> createTasks(Project project) {
         return getSourceSetNames(project).stream()
                 .map(ssn -> createTask(ssn, project))
                 .collect(toImmutableList());
     }
 
-    private static GradleTask createTask(SourceSetName ssn, Project project) {
+    private static GenerateRejections createTask(SourceSetName ssn, Project project) {
         var action = RejectionGenAction.create(project, ssn);
-        var rejections = generateRejections(ssn);
-        var mergeTask = mergeDescriptorSet(ssn);
-        var compileTask = compileJava(ssn);
-        var task = GradleTask.newBuilder(rejections, action)
-                .insertBeforeTask(compileTask)
-                .insertAfterTask(mergeTask)
-                .applyNowTo(project);
+        var tasks = project.getTasks();
+        var task = tasks.create(
+                generateRejections(ssn).name(),
+                GenerateRejections.class,
+                t -> {
+                    t.setAction(action);
+                    var protoFiles = Projects.protoFiles(project, ssn);
+                    if (protoFiles != null) {
+                        t.getProtoFiles().from(protoFiles);
+                    }
+                    t.getDescriptorSets().from(
+                            descriptorSetFile(project, ssn),
+                            mergedDescriptorSetFile(project, ssn)
+                    );
+                    t.getGeneratorVersion().set(project.provider(action::generatorVersion));
+                    t.getTargetDir().set(generatedRejectionsDir(project, ssn).toFile());
+                    t.getManifestFile().set(rejectionsManifestFile(project, ssn).toFile());
+                    t.dependsOn(mergeDescriptorSet(ssn).name());
+                }
+        );
+        tasks.getByName(compileJava(ssn).name())
+             .dependsOn(task);
         return task;
     }
 }
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.rejection.gradle;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static io.spine.util.Exceptions.illegalStateWithCauseOf;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The record of the rejections generated on the previous build of a source set.
+ *
+ * <p>For each rejections file, the manifest stores the hash of its declaration and the paths of
+ * the Java sources generated for it. The manifest is bound to the version of the generator.
+ * If the version changes, all the records are discarded.
+ *
+ * <p>The paths of the generated sources are stored relative to the output directory, so that
+ * the manifest restored from the build cache does not refer to the files of another checkout.
+ *
+ * <p>The manifest is stored as a text file. The first line contains the generator version.
+ * Each of the following lines contains the path of a rejections file, its hash, and the paths
+ * of the generated sources, separated by tabs.
+ */
+final class RejectionsManifest {
+
+    private static final String SEPARATOR = "\t";
+    private static final Splitter splitter = Splitter.on(SEPARATOR);
+
+    private final Path file;
+    private final Path outputDir;
+    private final String generatorVersion;
+    private final ImmutableMap<String, Entry> previous;
+    private final Map<String, Entry> current = new HashMap<>();
+
+    private RejectionsManifest(Path file,
+                               Path outputDir,
+                               String generatorVersion,
+                               ImmutableMap<String, Entry> previous) {
+        this.file = file;
+        this.outputDir = outputDir;
+        this.generatorVersion = generatorVersion;
+        this.previous = previous;
+    }
+
+    /**
+     * Loads the manifest from the given file.
+     *
+     * <p>If the file does not exist or was written by another version of the generator,
+     * the loaded manifest is empty.
+     *
+     * @param file
+     *         the manifest file
+     * @param outputDir
+     *         the directory against which the paths of the generated sources are resolved
+     * @param generatorVersion
+     *         the version of the generator which generates the sources
+     */
+    static RejectionsManifest load(Path file, Path outputDir, String generatorVersion) {
+        checkNotNull(file);
+        checkNotNull(outputDir);
+        checkNotNull(generatorVersion);
+        var previous = Files.exists(file)
+                       ? read(file, generatorVersion)
+                       : ImmutableMap.<String, Entry>of();
+        return new RejectionsManifest(file, outputDir, generatorVersion, previous);
+    }
+
+    private static ImmutableMap<String, Entry> read(Path file, String generatorVersion) {
+        try {
+            var lines = Files.readAllLines(file, UTF_8);
+            if (lines.isEmpty() || !lines.get(0).equals(generatorVersion)) {
+                return ImmutableMap.of();
+            }
+            Map<String, Entry> result = new HashMap<>();
+            for (var line : lines.subList(1, lines.size())) {
+                var parts = splitter.splitToList(line);
+                if (parts.size() >= 2) {
+                    var outputs = parts.subList(2, parts.size())
+                                       .stream()
+                                       .map(Paths::get)
+                                       .collect(toImmutableList());
+                    result.put(parts.get(0), new Entry(parts.get(1), outputs));
+                }
+            }
+            return ImmutableMap.copyOf(result);
+        } catch (IOException e) {
+            throw illegalStateWithCauseOf(e);
+        }
+    }
+
+    /**
+     * Checks if the sources generated for the rejections file with the given hash on
+     * the previous build are still present.
+     *
+     * <p>If so, the rejections file is recorded as processed.
+     */
+    boolean reuse(String rejectionsFile, String hash) {
+        var entry = previous.get(rejectionsFile);
+        if (entry == null || !entry.hash.equals(hash)) {
+            return false;
+        }
+        var outputsPresent = entry.outputs.stream()
+                                          .map(outputDir::resolve)
+                                          .allMatch(Files::exists);
+        if (outputsPresent) {
+            current.put(rejectionsFile, entry);
+        }
+        return outputsPresent;
+    }
+
+    /**
+     * Records the sources generated for the rejections file with the given hash.
+     */
+    void record(String rejectionsFile, String hash, List<Path> outputs) {
+        var relativeOutputs = outputs.stream()
+                                     .map(this::relativize)
+                                     .collect(toImmutableList());
+        current.put(rejectionsFile, new Entry(hash, relativeOutputs));
+    }
+
+    private Path relativize(Path output) {
+        return output.startsWith(outputDir)
+               ? outputDir.relativize(output)
+               : output;
+    }
+
+    /**
+     * Obtains the sources generated on the previous build which were not generated or
+     * reused on this one.
+     */
+    ImmutableSet<Path> staleOutputs() {
+        var actual = new HashSet<Path>();
+        current.values()
+               .forEach(entry -> actual.addAll(entry.outputs));
+        return previous.values()
+                       .stream()
+                       .flatMap(entry -> entry.outputs.stream())
+                       .filter(output -> !actual.contains(output))
+                       .map(outputDir::resolve)
+                       .collect(toImmutableSet());
+    }
+
+    /**
+     * Writes the records made during this build to the manifest file.
+     */
+    void save() {
+        var lines = new ArrayList<String>(current.size() + 1);
+        lines.add(generatorVersion);
+        new TreeMap<>(current).forEach((source, entry) -> {
+            var line = new StringBuilder(source).append(SEPARATOR)
+                                                .append(entry.hash);
+            entry.outputs.forEach(output -> line.append(SEPARATOR)
+                                                .append(output));
+            lines.add(line.toString());
+        });
+        try {
+            var dir = file.getParent();
+            if (dir != null) {
+                Files.createDirectories(dir);
+            }
+            Files.write(file, lines, UTF_8);
+        } catch (IOException e) {
+            throw illegalStateWithCauseOf(e);
+        }
+    }
+
+    /**
+     * The hash of a rejections file and the sources generated for it.
+     */
+    private static final class Entry {
+
+        private final String hash;
+        private final ImmutableList<Path> outputs;
+
+        private Entry(String hash, ImmutableList<Path> outputs) {
+            this.hash = hash;
+            this.outputs = outputs;
+        }
+    }
+}
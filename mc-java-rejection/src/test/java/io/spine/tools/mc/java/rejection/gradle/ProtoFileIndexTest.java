@@ -0,0 +1,141 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.rejection.gradle;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.IntStream;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.truth.Truth.assertThat;
+
+@DisplayName("`ProtoFileIndex` should")
+class ProtoFileIndexTest {
+
+    private static final int LOOKUPS = 100_000;
+    private static final int RUNS = 5;
+
+    private static final Path PROTO_FILE =
+            Paths.get("/home/user/project/src/main/proto/acme/orders/rejections.proto");
+
+    private final ProtoFileIndex index = ProtoFileIndex.of(ImmutableList.of(PROTO_FILE));
+
+    @Test
+    @DisplayName("find a file by its relative path")
+    void findRelative() {
+        assertThat(index.contains(Paths.get("acme/orders/rejections.proto")))
+                .isTrue();
+        assertThat(index.contains(Paths.get("rejections.proto")))
+                .isTrue();
+    }
+
+    @Test
+    @DisplayName("find a file by its full path")
+    void findFull() {
+        assertThat(index.contains(PROTO_FILE))
+                .isTrue();
+    }
+
+    @Test
+    @DisplayName("not find a path which is not a whole suffix of a file")
+    void notFindPartialName() {
+        assertThat(index.contains(Paths.get("orders/other_rejections.proto")))
+                .isFalse();
+        assertThat(index.contains(Paths.get("ders/rejections.proto")))
+                .isFalse();
+    }
+
+    @Test
+    @DisplayName("agree with `Path.endsWith`")
+    void matchEndsWith() {
+        var candidates = ImmutableList.of(
+                Paths.get("acme/orders/rejections.proto"),
+                Paths.get("orders/rejections.proto"),
+                Paths.get("acme/rejections.proto"),
+                Paths.get("main/proto/acme/orders/rejections.proto")
+        );
+        for (var candidate : candidates) {
+            assertThat(index.contains(candidate))
+                    .isEqualTo(PROTO_FILE.endsWith(candidate));
+        }
+    }
+
+    /**
+     * Checks that the cost of a lookup does not grow with the number of indexed files.
+     *
+     * <p>A scan over the files, which the index replaces, makes the same lookups ten times
+     * slower for ten times more files. The test is coarse on purpose: it takes the best of
+     * several runs and only requires the lookups to stay within a small factor.
+     */
+    @Test
+    @DisplayName("look up files in time independent of the number of files")
+    void constantLookup() {
+        var small = timeOfLookups(1_000);
+        var large = timeOfLookups(10_000);
+        assertThat(large)
+                .isLessThan(small * 4);
+    }
+
+    /**
+     * Measures the best time of {@link #LOOKUPS} lookups in an index of the given size.
+     */
+    private static long timeOfLookups(int fileCount) {
+        var files = IntStream.range(0, fileCount)
+                .mapToObj(i -> Paths.get("/home/user/project/src/main/proto/acme",
+                                         "module" + i, "rejections.proto"))
+                .collect(toImmutableList());
+        var index = ProtoFileIndex.of(files);
+        var queries = IntStream.range(0, fileCount)
+                .mapToObj(i -> Paths.get("acme", "module" + i, "rejections.proto"))
+                .collect(toImmutableList());
+        var best = Long.MAX_VALUE;
+        for (var run = 0; run < RUNS; run++) {
+            var start = System.nanoTime();
+            var found = lookUp(index, queries);
+            var elapsed = System.nanoTime() - start;
+            assertThat(found)
+                    .isEqualTo(LOOKUPS);
+            best = Math.min(best, elapsed);
+        }
+        return best;
+    }
+
+    private static int lookUp(ProtoFileIndex index, ImmutableList<Path> queries) {
+        var found = 0;
+        var size = queries.size();
+        for (var i = 0; i < LOOKUPS; i++) {
+            if (index.contains(queries.get(i % size))) {
+                found++;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.rejection.gradle;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@DisplayName("`RejectionsManifest` should")
+class RejectionsManifestTest {
+
+    private static final String VERSION = "1/test/4";
+    private static final String REJECTIONS = "acme/rejections.proto";
+
+    private Path manifestFile;
+    private Path outputDir;
+    private Path output;
+
+    @BeforeEach
+    void setUp(@TempDir Path dir) throws IOException {
+        manifestFile = dir.resolve("main.manifest");
+        outputDir = dir.resolve("spine");
+        output = outputDir.resolve("Rejection.java");
+        Files.createDirectories(outputDir);
+        Files.writeString(output, "class Rejection {}");
+    }
+
+    @Test
+    @DisplayName("reuse the outputs of an unchanged rejections file")
+    void reuseUnchanged() {
+        saveRecord("hash");
+        var manifest = RejectionsManifest.load(manifestFile, outputDir, VERSION);
+        assertThat(manifest.reuse(REJECTIONS, "hash"))
+                .isTrue();
+        assertThat(manifest.staleOutputs())
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("not reuse the outputs of a changed rejections file")
+    void notReuseChanged() {
+        saveRecord("hash");
+        var manifest = RejectionsManifest.load(manifestFile, outputDir, VERSION);
+        assertThat(manifest.reuse(REJECTIONS, "other hash"))
+                .isFalse();
+    }
+
+    @Test
+    @DisplayName("not reuse the outputs produced by another version of the generator")
+    void notReuseOtherVersion() {
+        saveRecord("hash");
+        var manifest = RejectionsManifest.load(manifestFile, outputDir, "2/test/4");
+        assertThat(manifest.reuse(REJECTIONS, "hash"))
+                .isFalse();
+    }
+
+    @Test
+    @DisplayName("not reuse missing outputs")
+    void notReuseMissing() throws IOException {
+        saveRecord("hash");
+        Files.delete(output);
+        var manifest = RejectionsManifest.load(manifestFile, outputDir, VERSION);
+        assertThat(manifest.reuse(REJECTIONS, "hash"))
+                .isFalse();
+    }
+
+    @Test
+    @DisplayName("report the outputs of removed rejections as stale")
+    void reportStale() {
+        saveRecord("hash");
+        var manifest = RejectionsManifest.load(manifestFile, outputDir, VERSION);
+        assertThat(manifest.staleOutputs())
+                .containsExactly(output);
+    }
+
+    @Test
+    @DisplayName("store the outputs relative to the output directory")
+    void storeRelativeOutputs() throws IOException {
+        saveRecord("hash");
+        var content = Files.readString(manifestFile);
+        assertThat(content)
+                .contains(output.getFileName().toString());
+        assertThat(content)
+                .doesNotContain(outputDir.toString());
+    }
+
+    private void saveRecord(String hash) {
+        var manifest = RejectionsManifest.load(manifestFile, outputDir, VERSION);
+        manifest.record(REJECTIONS, hash, ImmutableList.of(output));
+        manifest.save();
+    }
+}
@@ -42,9 +42,13 @@ import static java.lang.System.lineSeparator;
 final class ConstraintCode implements Logging {
 
     private static final CodeBlock EMPTY = CodeBlock.of("");
+    private static final Expression<Integer> INDEX = Expression.of("index");
+    private static final Expression<Integer> COUNT = Expression.of("count");
+
     private final Function<FieldAccess, CodeBlock> declarations;
     private final Check conditionCheck;
     private final CreateViolation createViolation;
+    private final MessageAccess messageAccess;
     private final FieldAccess fieldAccess;
     private final Cardinality cardinality;
     private final AccumulateViolations onViolation;
@@ -55,6 +59,7 @@ final class ConstraintCode implements Logging {
         this.declarations = builder.declarations;
         this.conditionCheck = builder.conditionCheck;
         this.createViolation = builder.createViolation;
+        this.messageAccess = builder.messageAccess;
         this.fieldAccess = builder.fieldAccess();
         this.cardinality = builder.cardinality();
         this.onViolation = builder.onViolation;
@@ -71,19 +76,56 @@ final class ConstraintCode implements Logging {
 
     /**
      * Builds a {@link CodeBlock} which represents this constraint code.
+     *
+     * <p>Elements of a {@code repeated} field are checked in an indexed loop. Values of a map
+     * field are only iterated over if the map is not empty. This way, checking an empty
+     * collection does not allocate an iterator.
      */
     public CodeBlock compile() {
         var fieldIsSet = new IsSet(field);
         if (cardinality == Cardinality.SINGULAR) {
             return compileSingular(fieldIsSet, fieldAccess);
-        } else {
-            var elementValidation = compileSingular(fieldIsSet, element);
-            return CodeBlock.builder()
-                    .beginControlFlow("$L.forEach($N ->", fieldAccess, element.value())
-                    .add(elementValidation)
-                    .endControlFlow(")")
-                    .build();
         }
+        var elementValidation = compileSingular(fieldIsSet, element);
+        return field.isMap()
+               ? iterateMapValues(elementValidation)
+               : iterateElements(elementValidation);
+    }
+
+    private CodeBlock iterateElements(CodeBlock elementValidation) {
+        var index = INDEX.toString();
+        var count = COUNT.toString();
+        return CodeBlock.builder()
+                .beginControlFlow("for (int $N = 0, $N = $L; $N < $N; $N++)",
+                                  index, count, messageAccess.count(field).toCode(),
+                                  index, count, index)
+                .addStatement("$L $N = $L",
+                              elementType(), element.value(), messageAccess.element(field, INDEX))
+                .add(elementValidation)
+                .endControlFlow()
+                .build();
+    }
+
+    private CodeBlock iterateMapValues(CodeBlock elementValidation) {
+        return CodeBlock.builder()
+                .beginControlFlow("if ($L > 0)", messageAccess.count(field).toCode())
+                .beginControlFlow("for ($L $N : $L)", elementType(), element.value(), fieldAccess)
+                .add(elementValidation)
+                .endControlFlow()
+                .endControlFlow()
+                .build();
+    }
+
+    /**
+     * Obtains the name of the Java type of a single element of the collection field.
+     *
+     * <p>For a map field, this is the type of the map values.
+     */
+    private String elementType() {
+        var declaration = field.isMap()
+                          ? field.valueDeclaration()
+                          : field;
+        return declaration.javaTypeName();
     }
 
     private CodeBlock compileSingular(IsSet fieldIsSet, FieldAccess field) {
@@ -114,7 +156,10 @@ final class ConstraintCode implements Logging {
     evaluateConstantCondition(BooleanExpression condition, CodeBlock onViolation) {
         if (condition.isConstantTrue()) {
             _warn().log("Violation is always produced as validation check is a constant.");
-            return onViolation;
+            // Keep the `if (true)` so that the code following a violation handler which
+            // returns from the method is still reachable.
+            return condition.ifTrue(onViolation)
+                            .toCode();
         } else {
             return empty();
         }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.validation.gen;
+
+import com.google.common.collect.Iterables;
+import com.squareup.javapoet.FieldSpec;
+import io.spine.validate.option.ValidatingOptionsLoader;
+
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.STATIC;
+
+/**
+ * A boolean flag in the generated code which signifies whether the validated message may
+ * have custom constraints.
+ *
+ * <p>Custom constraints cannot be compiled into the generated code. They are provided at
+ * runtime by the {@linkplain ValidatingOptionsLoader discovered} validating option factories.
+ * If there are no such factories, the message has no custom constraints, and the generated code
+ * does not look for them.
+ *
+ * <p>The value of the flag is computed once, when the generated class is initialized.
+ */
+final class CustomConstraintFlag {
+
+    /**
+     * The name of the generated flag.
+     */
+    private static final String NAME = "hasCustomConstraints";
+
+    /**
+     * Obtains an expression which references the value of this flag.
+     */
+    BooleanExpression value() {
+        return BooleanExpression.fromCode(NAME);
+    }
+
+    /**
+     * Obtains this flag as a {@link ClassMember}.
+     */
+    ClassMember asClassMember() {
+        Expression<?> factoriesFound = BooleanExpression.fromCode(
+                "!$T.isEmpty($T.INSTANCE.implementations())",
+                Iterables.class,
+                ValidatingOptionsLoader.class
+        );
+        var spec = FieldSpec.builder(Boolean.TYPE, NAME, PRIVATE, FINAL, STATIC)
+                .initializer(factoriesFound.toCode())
+                .build();
+        return new Field(spec);
+    }
+}
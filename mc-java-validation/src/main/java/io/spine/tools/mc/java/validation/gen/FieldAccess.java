@@ -29,6 +29,7 @@ package io.spine.tools.mc.java.validation.gen;
 import io.spine.code.proto.FieldDeclaration;
 import io.spine.code.proto.FieldName;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static java.lang.String.format;
 
@@ -75,6 +76,32 @@ final class FieldAccess extends CodeExpression<Object> {
         }
     }
 
+    /**
+     * Creates a new {@code FieldAccess} which yields an element of a {@code repeated} field.
+     *
+     * <p>Unlike the access to the whole list of values, the element is obtained by
+     * the generated indexed getter, so that the values of the primitive fields are not boxed.
+     *
+     * @param message
+     *         an expression of the message to obtain the field from
+     * @param field
+     *         the {@code repeated} field
+     * @param index
+     *         an expression of the element index
+     * @return new {@code FieldAccess}
+     */
+    public static FieldAccess elementOfMessage(MessageAccess message,
+                                               FieldDeclaration field,
+                                               Expression<Integer> index) {
+        checkNotNull(message);
+        checkNotNull(field);
+        checkNotNull(index);
+        checkArgument(field.isCollection() && !field.isMap(),
+                      "Field `%s` is not a `repeated` field.", field);
+        var expression = format("%s.get%s(%s)", message, field.name().toCamelCase(), index);
+        return new FieldAccess(expression);
+    }
+
     private static FieldAccess singularField(MessageAccess receiver, FieldName field) {
         return fromTemplate("%s.get%s()", receiver, field);
     }
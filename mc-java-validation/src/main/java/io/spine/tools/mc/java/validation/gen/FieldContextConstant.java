@@ -0,0 +1,99 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.validation.gen;
+
+import com.google.common.base.Objects;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
+import io.spine.code.proto.FieldContext;
+import io.spine.code.proto.FieldDeclaration;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.squareup.javapoet.ClassName.bestGuess;
+import static java.lang.String.format;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.STATIC;
+
+/**
+ * A {@link FieldContext} constant in the generated code.
+ *
+ * <p>Such a constant is generated for each field which values may be validated by externally
+ * defined constraints. This way, the field descriptor is looked up and the context is created
+ * once per class instead of once per validation.
+ */
+final class FieldContextConstant {
+
+    private final FieldDeclaration declaration;
+    private final String name;
+    private final ClassName messageClassName;
+
+    FieldContextConstant(FieldDeclaration field) {
+        this.declaration = checkNotNull(field);
+        this.name = format("%sContext", field.name().javaCase());
+        this.messageClassName = bestGuess(field.declaringType()
+                                               .javaClassName()
+                                               .toString());
+    }
+
+    /**
+     * Obtains an expression which references the field context.
+     */
+    Expression<FieldContext> value() {
+        return Expression.of(name);
+    }
+
+    /**
+     * Obtains this constant as a {@link ClassMember}.
+     */
+    ClassMember asClassMember() {
+        var spec = FieldSpec.builder(FieldContext.class, name, PRIVATE, STATIC, FINAL)
+                .initializer("$T.create($T.getDescriptor().findFieldByNumber($L))",
+                             FieldContext.class,
+                             messageClassName,
+                             declaration.number())
+                .build();
+        return new Field(spec);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FieldContextConstant)) {
+            return false;
+        }
+        var that = (FieldContextConstant) o;
+        return Objects.equal(declaration, that.declaration);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(declaration);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.validation.gen;
+
+import com.google.common.collect.ImmutableList;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.MethodSpec;
+import io.spine.type.MessageType;
+import io.spine.validate.ConstraintViolation;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.squareup.javapoet.ClassName.bestGuess;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.STATIC;
+
+/**
+ * The generated method which checks if a message is valid.
+ *
+ * <p>This method:
+ * <ol>
+ *     <li>is {@code private};
+ *     <li>is {@code static};
+ *     <li>accepts the validated message as the only argument;
+ *     <li>returns {@code true} if the message is valid, {@code false} otherwise.
+ * </ol>
+ *
+ * <p>The method runs the same checks as the {@linkplain ValidateMethod validating method}.
+ * Unlike the validating method, it returns upon the first failed check and never creates
+ * a {@link ConstraintViolation}.
+ */
+final class IsValidMethod {
+
+    private final MessageType validatedType;
+    private final String methodName;
+    private final MessageAccess parameter;
+    private final ImmutableList<CodeBlock> compiledChecks;
+
+    IsValidMethod(MessageType validatedType,
+                  String methodName,
+                  MessageAccess parameter,
+                  Iterable<CodeBlock> compiledChecks) {
+        this.validatedType = checkNotNull(validatedType);
+        this.methodName = checkNotNull(methodName);
+        this.parameter = checkNotNull(parameter);
+        this.compiledChecks = ImmutableList.copyOf(compiledChecks);
+    }
+
+    /**
+     * Creates a {@code ClassMember} representing this method.
+     */
+    ClassMember asClassMember() {
+        return new Method(spec());
+    }
+
+    private MethodSpec spec() {
+        var messageSimpleName = validatedType.javaClassName().toSimple();
+        var body = CodeBlock.builder();
+        compiledChecks.forEach(body::add);
+        body.addStatement("return true");
+        var method = MethodSpec.methodBuilder(methodName)
+                .addModifiers(PRIVATE, STATIC)
+                .returns(boolean.class)
+                .addParameter(bestGuess(messageSimpleName.value()), parameter.toString())
+                .addCode(body.build())
+                .build();
+        return method;
+    }
+
+    /**
+     * Generates code which reports the validated message as invalid.
+     */
+    static VoidExpression fail() {
+        return VoidExpression.fromCode(CodeBlock.of("return false;"));
+    }
+
+    /**
+     * Generates code which reports the validated message as invalid instead of adding
+     * the given violation.
+     *
+     * <p>The violation is ignored, so that the code creating it is never generated.
+     */
+    @SuppressWarnings("unused") // Matches the signature of `AccumulateViolations`.
+    static VoidExpression fail(Expression<ConstraintViolation> violation) {
+        return fail();
+    }
+}
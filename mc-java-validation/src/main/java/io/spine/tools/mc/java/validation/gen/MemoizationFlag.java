@@ -0,0 +1,157 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.validation.gen;
+
+import com.google.protobuf.Descriptors.FieldDescriptor.JavaType;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import io.spine.code.proto.FieldDeclaration;
+import io.spine.option.OptionsProto;
+import io.spine.type.MessageType;
+import io.spine.validate.ExternalConstraints;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.squareup.javapoet.ClassName.bestGuess;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.STATIC;
+
+/**
+ * A boolean flag in the generated code which signifies whether the result of validating
+ * a message may be memoized in the message instance.
+ *
+ * <p>The result depends only on the message itself, since messages are immutable, unless
+ * the constraints are resolved at runtime. This is the case for:
+ * <ol>
+ *     <li>the validated {@code Any} fields, since the type of the packed message is only known
+ *         at runtime;
+ *     <li>the validated fields which have external constraints.
+ * </ol>
+ *
+ * <p>The flag is {@code false} if such fields are declared in the message type or in
+ * the types of its validated fields, recursively.
+ */
+final class MemoizationFlag {
+
+    /**
+     * The name of the generated flag.
+     */
+    static final String NAME = "memoizable";
+
+    private final MessageType type;
+
+    MemoizationFlag(MessageType type) {
+        this.type = checkNotNull(type);
+    }
+
+    /**
+     * Obtains this flag as a {@link ClassMember}.
+     *
+     * <p>The flag is package-private, so that the message class can access it.
+     */
+    ClassMember asClassMember() {
+        var spec = FieldSpec.builder(Boolean.TYPE, NAME, STATIC, FINAL)
+                .initializer(initializer())
+                .build();
+        return new Field(spec);
+    }
+
+    private CodeBlock initializer() {
+        Set<FieldDeclaration> validatedFields = new LinkedHashSet<>();
+        var resolvedAtCompileTime = collectValidated(type, new HashSet<>(), validatedFields);
+        if (!resolvedAtCompileTime) {
+            return CodeBlock.of("false");
+        }
+        if (validatedFields.isEmpty()) {
+            return CodeBlock.of("true");
+        }
+        var checks = validatedFields.stream()
+                .map(MemoizationFlag::noExternalConstraints)
+                .collect(CodeBlock.joining(" && "));
+        return checks;
+    }
+
+    private static CodeBlock noExternalConstraints(FieldDeclaration field) {
+        var messageClass = bestGuess(field.declaringType()
+                                          .javaClassName()
+                                          .toString());
+        return CodeBlock.of("!$T.isDefinedFor($T.getDescriptor(), $S)",
+                            ExternalConstraints.class, messageClass, field.name());
+    }
+
+    /**
+     * Collects the validated message fields of the given type and the types of those fields.
+     *
+     * @return {@code false} if a validated {@code Any} field is found, {@code true} otherwise
+     */
+    private static boolean collectValidated(MessageType type,
+                                            Set<MessageType> visited,
+                                            Set<FieldDeclaration> validatedFields) {
+        if (!visited.add(type)) {
+            return true;
+        }
+        for (var field : type.fields()) {
+            if (!isValidated(field)) {
+                continue;
+            }
+            var value = valueOf(field);
+            if (value.isAny()) {
+                return false;
+            }
+            if (value.descriptor().getJavaType() != JavaType.MESSAGE) {
+                continue;
+            }
+            validatedFields.add(field);
+            var fieldType = new MessageType(value.descriptor().getMessageType());
+            if (!collectValidated(fieldType, visited, validatedFields)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isValidated(FieldDeclaration field) {
+        return field.descriptor()
+                    .getOptions()
+                    .getExtension(OptionsProto.validate);
+    }
+
+    /**
+     * Obtains the declaration of the values of the given field.
+     *
+     * <p>For a map field, this is the value field of the map entry. Otherwise, it is
+     * the field itself.
+     */
+    private static FieldDeclaration valueOf(FieldDeclaration field) {
+        return field.isMap()
+               ? field.valueDeclaration()
+               : field;
+    }
+}
@@ -31,6 +31,7 @@ import com.google.protobuf.ProtocolMessageEnum;
 import io.spine.code.proto.FieldDeclaration;
 import io.spine.code.proto.OneofDeclaration;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static io.spine.tools.mc.java.validation.gen.FieldAccess.fieldOfMessage;
 import static io.spine.tools.mc.java.validation.gen.Expression.formatted;
@@ -58,6 +59,28 @@ final class MessageAccess extends CodeExpression<Message> {
         return fieldOfMessage(this, field);
     }
 
+    /**
+     * Obtains an expression which yields the number of elements in the given collection field.
+     *
+     * <p>The field must be {@code repeated} or a {@code map}.
+     */
+    public Expression<Integer> count(FieldDeclaration field) {
+        checkArgument(field.isCollection(), "Field `%s` is not a collection.", field);
+        return formatted("%s.get%sCount()", this, field.name().toCamelCase());
+    }
+
+    /**
+     * Obtains an expression which yields an element of the given {@code repeated} field.
+     *
+     * @param field
+     *         the {@code repeated} field
+     * @param index
+     *         the expression of the element index
+     */
+    public FieldAccess element(FieldDeclaration field, Expression<Integer> index) {
+        return FieldAccess.elementOfMessage(this, field, index);
+    }
+
     /**
      * Builds an expression which yields the {@code oneof} case for the given {@code oneof}.
      *
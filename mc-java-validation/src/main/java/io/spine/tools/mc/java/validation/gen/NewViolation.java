@@ -43,6 +43,10 @@ import static java.util.Arrays.asList;
 
 /**
  * An {@link Expression} which creates a new {@link ConstraintViolation}.
+ *
+ * <p>The parts of the violation which do not depend on the validated message are built once,
+ * into a {@linkplain ViolationTemplates template constant}. The expression only fills in
+ * the field value and the nested violations, if any.
  */
 final class NewViolation implements Expression<ConstraintViolation> {
 
@@ -52,6 +56,7 @@ final class NewViolation implements Expression<ConstraintViolation> {
     private final MessageType type;
     private final FieldPath field;
     private final @Nullable Expression<? extends Iterable<ConstraintViolation>> nestedViolations;
+    private final Expression<ConstraintViolation> template;
 
     private NewViolation(Builder builder) {
         this.message = builder.message;
@@ -60,17 +65,32 @@ final class NewViolation implements Expression<ConstraintViolation> {
         this.field = builder.field;
         this.nestedViolations = builder.nestedViolations;
         this.params = ImmutableList.copyOf(builder.params);
+        this.template = builder.templates.constantFor(template());
     }
 
     @Override
     public CodeBlock toCode() {
+        if (fieldValue == null && nestedViolations == null) {
+            return template.toCode();
+        }
+        var builder = CodeBlock.builder()
+                .add("$L.toBuilder()", template.toCode());
+        addFieldValue(builder);
+        addViolations(builder);
+        builder.add(".build()");
+        return builder.build();
+    }
+
+    /**
+     * Generates code which builds the parts of the violation independent of
+     * the validated message.
+     */
+    private CodeBlock template() {
         @SuppressWarnings("DuplicateStringLiteralInspection")
         var builder = CodeBlock.builder()
                 .add("$T.newBuilder()", ConstraintViolation.class)
                 .add(".setMsgFormat($S)", message)
                 .add(".setTypeName($S)", type.name().value());
-        addFieldValue(builder);
-        addViolations(builder);
         addFieldPath(builder);
         addParams(builder);
         builder.add(".build()");
@@ -112,21 +132,33 @@ final class NewViolation implements Expression<ConstraintViolation> {
 
     /**
      * Creates a new builder for the violation in the given field.
+     *
+     * @param field
+     *         the context of the field
+     * @param templates
+     *         the constants to put the invariant part of the violation to
      */
-    static Builder forField(FieldContext field) {
+    static Builder forField(FieldContext field, ViolationTemplates templates) {
         checkNotNull(field);
         var declaration = field.targetDeclaration();
-        return new Builder()
+        return new Builder(templates)
                 .setType(declaration.declaringType())
                 .setField(field.fieldPath());
     }
 
     /**
      * Creates a new builder for a violation in the field of the specified message.
+     *
+     * @param type
+     *         the type of the message
+     * @param field
+     *         the context of the field
+     * @param templates
+     *         the constants to put the invariant part of the violation to
      */
-    static Builder forMessage(MessageType type, FieldContext field) {
+    static Builder forMessage(MessageType type, FieldContext field, ViolationTemplates templates) {
         checkNotNull(field);
-        return new Builder()
+        return new Builder(templates)
                 .setType(type)
                 .setField(field.fieldPath());
     }
@@ -136,6 +168,7 @@ final class NewViolation implements Expression<ConstraintViolation> {
      */
     static final class Builder {
 
+        private final ViolationTemplates templates;
         private String message;
         private @Nullable FieldAccess fieldValue;
         private MessageType type;
@@ -146,7 +179,8 @@ final class NewViolation implements Expression<ConstraintViolation> {
         /**
          * Prevents direct instantiation.
          */
-        private Builder() {
+        private Builder(ViolationTemplates templates) {
+            this.templates = checkNotNull(templates);
         }
 
         Builder setMessage(String message) {
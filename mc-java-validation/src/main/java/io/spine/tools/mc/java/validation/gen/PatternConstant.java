@@ -0,0 +1,111 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.validation.gen;
+
+import com.google.common.base.Objects;
+import com.squareup.javapoet.FieldSpec;
+import io.spine.code.proto.FieldDeclaration;
+
+import java.util.regex.Pattern;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.String.format;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.STATIC;
+
+/**
+ * A compiled {@link Pattern} constant in the generated code.
+ *
+ * <p>Such a constant is generated for each distinct pair of a regular expression and flags used
+ * in the {@code (pattern)} options of the message fields. This way, a regular expression is
+ * compiled once per class instead of once per validation.
+ */
+final class PatternConstant {
+
+    private final String regex;
+    private final int flags;
+    private final String name;
+
+    /**
+     * Creates a new constant.
+     *
+     * @param field
+     *         the first field which uses the pattern; gives the constant its name
+     * @param regex
+     *         the regular expression
+     * @param flags
+     *         the flags to compile the regular expression with
+     */
+    PatternConstant(FieldDeclaration field, String regex, int flags) {
+        checkNotNull(field);
+        this.regex = checkNotNull(regex);
+        this.flags = flags;
+        this.name = format("%sPattern", field.name().javaCase());
+    }
+
+    /**
+     * Checks if this constant holds the given regular expression compiled with the given flags.
+     */
+    boolean compiles(String regex, int flags) {
+        return this.regex.equals(regex) && this.flags == flags;
+    }
+
+    /**
+     * Obtains an expression which references the compiled pattern.
+     */
+    Expression<Pattern> value() {
+        return Expression.of(name);
+    }
+
+    /**
+     * Obtains this constant as a {@link ClassMember}.
+     */
+    ClassMember asClassMember() {
+        var spec = FieldSpec.builder(Pattern.class, name, PRIVATE, STATIC, FINAL)
+                .initializer("$T.compile($S, $L)", Pattern.class, regex, flags)
+                .build();
+        return new Field(spec);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PatternConstant)) {
+            return false;
+        }
+        var that = (PatternConstant) o;
+        return flags == that.flags && Objects.equal(regex, that.regex);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(regex, flags);
+    }
+}
@@ -50,6 +50,9 @@ import static javax.lang.model.element.Modifier.STATIC;
  *     <li>accepts the validated message as the only argument;
  *     <li>returns an {@link ImmutableList} of {@link ConstraintViolation}s.
  * </ol>
+ *
+ * <p>The builder of the violation list is only created upon the first found violation.
+ * A valid message is reported with the shared empty {@code ImmutableList}.
  */
 final class ValidateMethod {
 
@@ -105,12 +108,44 @@ final class ValidateMethod {
         return validationCode.isEmpty()
                ? CodeBlock.of("return $T.of();", ImmutableList.class)
                : CodeBlock.builder()
-                       .addStatement("$T $N = $T.builder()",
-                                     listBuilderOfViolations,
-                                     VIOLATIONS,
-                                     ImmutableList.class)
+                       .addStatement("$T $N = null", listBuilderOfViolations, VIOLATIONS)
                        .add(validationCode.build())
-                       .addStatement("return $N.build()", VIOLATIONS)
+                       .addStatement("return $N == null ? $T.of() : $N.build()",
+                                     VIOLATIONS, ImmutableList.class, VIOLATIONS)
                        .build();
     }
+
+    /**
+     * Generates code which adds the given violation to the violations of the validated message.
+     *
+     * <p>If the violation is the first one, the generated code creates the builder of
+     * the violation list.
+     */
+    static VoidExpression addViolation(Expression<ConstraintViolation> violation) {
+        return accumulate("add", violation);
+    }
+
+    /**
+     * Generates code which adds all the given violations to the violations of
+     * the validated message.
+     *
+     * <p>If there are no violations yet, the generated code creates the builder of
+     * the violation list.
+     */
+    static VoidExpression
+    addAllViolations(Expression<? extends Iterable<ConstraintViolation>> violations) {
+        return accumulate("addAll", violations);
+    }
+
+    private static VoidExpression accumulate(String method, Expression<?> value) {
+        var code = CodeBlock.of("$N = ($N == null ? $T.<$T>builder() : $N).$N($L);",
+                                VIOLATIONS,
+                                VIOLATIONS,
+                                ImmutableList.class,
+                                ConstraintViolation.class,
+                                VIOLATIONS,
+                                method,
+                                value.toCode());
+        return VoidExpression.fromCode(code);
+    }
 }
@@ -26,7 +26,9 @@
 
 package io.spine.tools.mc.java.validation.gen;
 
+import com.google.common.collect.ImmutableList;
 import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.TypeSpec;
 import io.spine.annotation.Beta;
@@ -41,10 +43,11 @@ import io.spine.validate.ValidationException;
 
 import javax.annotation.Generated;
 import java.util.Set;
+import java.util.function.Predicate;
 
+import static com.google.common.base.Preconditions.checkNotNull;
 import static com.squareup.javapoet.ClassName.bestGuess;
 import static io.spine.tools.mc.java.validation.gen.ValidateMethod.immutableListOfViolations;
-import static java.lang.System.lineSeparator;
 import static javax.lang.model.element.Modifier.FINAL;
 import static javax.lang.model.element.Modifier.PRIVATE;
 import static javax.lang.model.element.Modifier.PUBLIC;
@@ -54,28 +57,63 @@ import static javax.lang.model.element.Modifier.STATIC;
  * A factory of message validation code.
  *
  * @implSpec The public generated API of a message validation is the {@code validate()} method
- *           declared in {@link MessageWithConstraints}.
+ *           declared in {@link MessageWithConstraints} and the {@code isValid()} method
+ *           which only tells if the message is valid.
  */
 public final class ValidateSpecs {
 
     private static final String VALIDATE_METHOD = "validate";
+    private static final String IS_VALID_METHOD = "isValid";
     private static final String MESSAGE_VARIABLE = "msg";
     private static final String VIOLATIONS = "constraintViolations";
+    private static final String VALID = "valid";
+
+    /**
+     * The name of the message field which memoizes the validation result.
+     *
+     * <p>Similarly to the {@code memoizedIsInitialized} field generated by Protobuf, the field
+     * holds {@code -1} if the message was not validated yet, {@code 1} if the message is valid,
+     * and {@code 0} if it is invalid.
+     */
+    private static final String MEMOIZED_VALIDITY = "memoizedIsValid";
 
     private final MessageType type;
     private final NestedClassName messageSimpleName;
     private final String validatorSimpleName;
+    private final Predicate<MessageType> hasGeneratedValidation;
 
     /**
      * Creates a new instance for the given type.
      *
+     * <p>The generated code validates the fields marked with {@code (validate)} through
+     * the runtime validation API.
+     *
      * @param type
      *         type of the message to validate
      */
     public ValidateSpecs(MessageType type) {
-        this.type = type;
+        this(type, t -> false);
+    }
+
+    /**
+     * Creates a new instance for the given type.
+     *
+     * <p>The generated code validates the fields marked with {@code (validate)} by calling
+     * the generated {@code validate()} method of the field values, if the field type
+     * is accepted by the given predicate. The values of other fields are validated through
+     * the runtime validation API.
+     *
+     * @param type
+     *         type of the message to validate
+     * @param hasGeneratedValidation
+     *         tells if the validation code is generated for the given type, so that
+     *         the generated code may call it directly
+     */
+    public ValidateSpecs(MessageType type, Predicate<MessageType> hasGeneratedValidation) {
+        this.type = checkNotNull(type);
         this.messageSimpleName = NestedClassName.from(type.javaClassName());
         this.validatorSimpleName = nameForValidator(type);
+        this.hasGeneratedValidation = checkNotNull(hasGeneratedValidation);
     }
 
     private static String nameForValidator(MessageType type) {
@@ -111,12 +149,21 @@ public final class ValidateSpecs {
      * called {@code Validator}, the validator class will be called {@code Validator$}. Since
      * the class is {@code private}, this naming is not exposed to the outer scope.
      *
-     * <p>The only method of the class is:
+     * <p>The main methods of the class are:
      * <pre>
-     * private static{@literal List<ConstraintViolation>} validate(MyMsg msg) { ... }
+     * private static{@literal ImmutableList<ConstraintViolation>} validate(MyMsg msg) { ... }
+     * private static boolean isValid(MyMsg msg) { ... }
      * </pre>
      *
-     * <p>In this example, {@code MyMsg} is the type of the validated message.
+     * <p>In this example, {@code MyMsg} is the type of the validated message. Both methods check
+     * the same constraints. The {@code isValid} method returns upon the first failed check and
+     * does not create the violations.
+     *
+     * <p>Regular expressions of the {@code (pattern)} constraints are compiled once and stored
+     * in {@code private static final} fields of the class.
+     *
+     * <p>The {@code memoizable} flag of the class tells if the message may memoize the result of
+     * its validation. See {@link #memoizedValidityField()}.
      *
      * <p>The class is marked with the {@link Generated} annotation so that static code analysis can
      * ignore it.
@@ -141,10 +188,27 @@ public final class ValidateSpecs {
 
     private Set<ClassMember> generateMembers() {
         var constraints = Constraints.of(type);
-        var methods = constraints.runThrough(new ValidationCodeGenerator(VALIDATE_METHOD, type));
+        var generator = new ValidationCodeGenerator(
+                VALIDATE_METHOD, IS_VALID_METHOD, type, hasGeneratedValidation
+        );
+        var methods = constraints.runThrough(generator);
         return methods;
     }
 
+    /**
+     * Generates the field of the message class which memoizes the result of the validation.
+     *
+     * <p>The field is only set if the result of the validation depends solely on the message.
+     * Otherwise, the message is validated anew upon each call.
+     *
+     * @return the field memoizing the validation result
+     */
+    public FieldSpec memoizedValidityField() {
+        return FieldSpec.builder(byte.class, MEMOIZED_VALIDITY, PRIVATE)
+                .initializer("-1")
+                .build();
+    }
+
     /**
      * Generates the {@code validate()} method for the message class.
      *
@@ -152,18 +216,64 @@ public final class ValidateSpecs {
      * the message is not valid. For the full contract, see
      * {@link MessageWithConstraints#validate()}.
      *
+     * <p>Once the message is found valid, the method returns the empty list without checking
+     * the constraints again.
+     *
      * @return {@code validate()} method
+     * @see #memoizedValidityField()
      */
     public MethodSpec validateMethod() {
+        var validator = bestGuess(validatorSimpleName);
+        var body = CodeBlock.builder()
+                .beginControlFlow("if ($N == 1)", MEMOIZED_VALIDITY)
+                .addStatement("return $T.of()", ImmutableList.class)
+                .endControlFlow()
+                .addStatement("$T $N = $T.$N(this)",
+                              immutableListOfViolations, VIOLATIONS, validator, VALIDATE_METHOD)
+                .beginControlFlow("if ($N.isEmpty() && $T.$N)",
+                                  VIOLATIONS, validator, MemoizationFlag.NAME)
+                .addStatement("$N = 1", MEMOIZED_VALIDITY)
+                .endControlFlow()
+                .addStatement("return $N", VIOLATIONS)
+                .build();
         return MethodSpec.methodBuilder(VALIDATE_METHOD)
                 .addModifiers(PUBLIC)
                 .addAnnotation(Beta.class)
                 .addAnnotation(Override.class)
                 .returns(immutableListOfViolations)
-                .addCode("return $T.$N(this);$L",
-                         bestGuess(validatorSimpleName),
-                         VALIDATE_METHOD,
-                         lineSeparator())
+                .addCode(body)
+                .build();
+    }
+
+    /**
+     * Generates the {@code isValid()} method for the message class.
+     *
+     * <p>The method is {@code public} and returns {@code true} if the message is valid. It checks
+     * the same constraints as {@link #validateMethod() validate()}, but returns upon the first
+     * failed check, never creating a {@link ConstraintViolation}.
+     *
+     * <p>Once the message is checked, the method returns the memoized result.
+     *
+     * @return {@code isValid()} method
+     * @see #memoizedValidityField()
+     */
+    public MethodSpec isValidMethod() {
+        var validator = bestGuess(validatorSimpleName);
+        var body = CodeBlock.builder()
+                .beginControlFlow("if ($N != -1)", MEMOIZED_VALIDITY)
+                .addStatement("return $N == 1", MEMOIZED_VALIDITY)
+                .endControlFlow()
+                .addStatement("boolean $N = $T.$N(this)", VALID, validator, IS_VALID_METHOD)
+                .beginControlFlow("if ($T.$N)", validator, MemoizationFlag.NAME)
+                .addStatement("$N = (byte) ($N ? 1 : 0)", MEMOIZED_VALIDITY, VALID)
+                .endControlFlow()
+                .addStatement("return $N", VALID)
+                .build();
+        return MethodSpec.methodBuilder(IS_VALID_METHOD)
+                .addModifiers(PUBLIC)
+                .addAnnotation(Beta.class)
+                .returns(boolean.class)
+                .addCode(body)
                 .build();
     }
 
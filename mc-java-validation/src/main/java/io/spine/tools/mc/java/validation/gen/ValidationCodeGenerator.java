@@ -29,7 +29,6 @@ package io.spine.tools.mc.java.validation.gen;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.reflect.TypeToken;
-import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
 import io.spine.code.proto.FieldContext;
 import io.spine.code.proto.FieldDeclaration;
@@ -55,20 +54,18 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Function;
-import java.util.regex.Pattern;
+import java.util.function.Predicate;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static io.spine.tools.mc.java.validation.gen.Containers.isEmpty;
 import static io.spine.tools.mc.java.validation.gen.IsSet.alternativeIsSet;
-import static io.spine.tools.mc.java.validation.gen.ValidateMethod.VIOLATIONS;
-import static io.spine.tools.mc.java.validation.gen.VoidExpression.formatted;
 import static io.spine.util.Exceptions.unsupported;
 import static io.spine.util.Preconditions2.checkNotEmptyOrBlank;
 import static io.spine.validate.diags.ViolationText.errorMessage;
-import static java.lang.System.lineSeparator;
 import static java.util.stream.Collectors.toList;
 
 /**
@@ -78,6 +75,9 @@ import static java.util.stream.Collectors.toList;
  * the message class. The result of the code generation is a set of methods to be added to
  * a single nesting class.
  *
+ * <p>Each constraint is compiled twice: into the method which collects all the violations of
+ * a message and into the method which only tells if the message is valid.
+ *
  * <p>The nesting class need not be the message class. It might be a class nested inside
  * the message class. Note that some methods are declared as {@code static}.
  * Thus, they cannot be placed into an inner (non-static) class.
@@ -90,12 +90,27 @@ final class ValidationCodeGenerator implements ConstraintTranslator<Set<ClassMem
             new TypeToken<List<ConstraintViolation>>() {}.getType();
     private static final MessageAccess messageAccess = MessageAccess.of("msg");
 
+    /**
+     * The name of the local variable holding violations of the custom constraints.
+     *
+     * <p>The name cannot clash with the names of the variables generated for the fields,
+     * which always end with {@code Violations}.
+     */
+    private static final String CUSTOM_VIOLATIONS = "violationsOfCustomConstraints";
+
     private final List<CodeBlock> compiledConstraints;
+    private final List<CodeBlock> compiledChecks;
     private final Set<ExternalConstraintFlag> externalConstraintFlags;
+    private final List<PatternConstant> patternConstants;
+    private final Set<FieldContextConstant> fieldContextConstants;
+    private final ViolationTemplates violationTemplates;
+    private final CustomConstraintFlag customConstraintFlag;
     private final AccumulateViolations violationAccumulator;
     private final FieldContext fieldContext;
     private final String methodName;
+    private final String isValidMethodName;
     private final MessageType type;
+    private final Predicate<MessageType> hasGeneratedValidation;
 
     /**
      * Creates a new {@code ValidationCodeGenerator}.
@@ -112,20 +127,38 @@ final class ValidationCodeGenerator implements ConstraintTranslator<Set<ClassMem
      * <p>The method generated for the {@code methodName} is the de facto public API for validating
      * the message {@code type}.
      *
+     * <p>The {@code isValidMethodName} is the name of the method which has the same contract,
+     * except that it returns a {@code boolean} telling if the message is valid.
+     *
      * @param methodName
      *         the expected name of the message validating method
+     * @param isValidMethodName
+     *         the expected name of the method checking if the message is valid
      * @param type
      *         the type of the validated message
+     * @param hasGeneratedValidation
+     *         tells if the given message type has the generated {@code validate()} method,
+     *         which can be called directly to validate the values of {@code (validate)} fields
      * @see ValidateMethod
+     * @see IsValidMethod
      */
-    ValidationCodeGenerator(String methodName, MessageType type) {
+    ValidationCodeGenerator(String methodName,
+                            String isValidMethodName,
+                            MessageType type,
+                            Predicate<MessageType> hasGeneratedValidation) {
         this.methodName = checkNotEmptyOrBlank(methodName);
+        this.isValidMethodName = checkNotEmptyOrBlank(isValidMethodName);
         this.type = checkNotNull(type);
+        this.hasGeneratedValidation = checkNotNull(hasGeneratedValidation);
         this.fieldContext = FieldContext.empty();
         this.compiledConstraints = new ArrayList<>();
-        this.violationAccumulator =
-                violation -> formatted("%s.add(%s);", VIOLATIONS, violation);
+        this.compiledChecks = new ArrayList<>();
+        this.violationAccumulator = ValidateMethod::addViolation;
         this.externalConstraintFlags = new HashSet<>();
+        this.patternConstants = new ArrayList<>();
+        this.fieldContextConstants = new LinkedHashSet<>();
+        this.violationTemplates = new ViolationTemplates();
+        this.customConstraintFlag = new CustomConstraintFlag();
     }
 
     @Override
@@ -143,8 +176,7 @@ final class ValidationCodeGenerator implements ConstraintTranslator<Set<ClassMem
             append(constraintCode(field)
                            .conditionCheck(check)
                            .createViolation(violation)
-                           .validateOnlyIfSet()
-                           .build());
+                           .validateOnlyIfSet());
         }
     }
 
@@ -158,8 +190,7 @@ final class ValidationCodeGenerator implements ConstraintTranslator<Set<ClassMem
         append(constraintCode(field)
                        .conditionCheck(messageIsNotSet)
                        .createViolation(violation)
-                       .validateAsWhole()
-                       .build());
+                       .validateAsWhole());
     }
 
     @Override
@@ -167,12 +198,13 @@ final class ValidationCodeGenerator implements ConstraintTranslator<Set<ClassMem
         var field = constraint.field();
         var pattern = constraint.optionValue()
                                 .getRegex();
-        var matcher = "$T.compile($S, $L).matcher($L).";
+        var constant = patternConstant(field, pattern, constraint.flagsMask());
+        var matcher = "$L.matcher($L).";
         var method = constraint.allowsPartialMatch()
                         ? "find()"
                         : "matches()";
         Check check = fieldAccess -> BooleanExpression.fromCode(
-                matcher + method, Pattern.class, pattern, constraint.flagsMask(), fieldAccess
+                matcher + method, constant.value().toCode(), fieldAccess
         ).negate();
         CreateViolation violation = fieldAccess -> newViolation(field, constraint)
                 .setFieldValue(fieldAccess)
@@ -181,33 +213,45 @@ final class ValidationCodeGenerator implements ConstraintTranslator<Set<ClassMem
         append(constraintCode(field)
                        .conditionCheck(check)
                        .createViolation(violation)
-                       .validateOnlyIfSet()
-                       .build());
+                       .validateOnlyIfSet());
+    }
+
+    /**
+     * Obtains a constant holding the given regex compiled with the given flags.
+     *
+     * <p>If such a constant is already generated for another field, reuses it.
+     */
+    private PatternConstant patternConstant(FieldDeclaration field, String regex, int flags) {
+        for (var constant : patternConstants) {
+            if (constant.compiles(regex, flags)) {
+                return constant;
+            }
+        }
+        var constant = new PatternConstant(field, regex, flags);
+        patternConstants.add(constant);
+        return constant;
     }
 
     /**
      * {@inheritDoc}
      *
-     * <p>The generated code relies on {@link Duplicates#findIn(Collection)}.
+     * <p>The generated code relies on {@link Duplicates#findIn(Collection)}. The duplicates are
+     * only looked for if the collection has more than one element.
      */
     @Override
     public void visitDistinct(DistinctConstraint constraint) {
         var field = constraint.field();
-        var duplicatesName = "duplicates" + field.name().toCamelCase();
-        Function<FieldAccess, CodeBlock> duplicates =
-                fieldAccess -> CodeBlock.of("$T<?> $N = $T.findIn($L);",
-                                            Set.class,
-                                            duplicatesName,
-                                            Duplicates.class,
-                                            fieldAccess);
-        Check check = fieldAccess -> isEmpty(Expression.of(duplicatesName)).negate();
+        var count = messageAccess.count(field);
+        Check check = fieldAccess -> {
+            var duplicates = Expression.fromCode("$T.findIn($L)", Duplicates.class, fieldAccess);
+            return BooleanExpression.fromCode("$L > 1", count)
+                                    .and(isEmpty(duplicates).negate());
+        };
         CreateViolation violation = fieldAccess -> violation(field, constraint);
         append(constraintCode(field)
-                       .preparingDeclarations(duplicates)
                        .conditionCheck(check)
                        .createViolation(violation)
-                       .validateAsWhole()
-                       .build());
+                       .validateAsWhole());
     }
 
     @Override
@@ -225,8 +269,7 @@ final class ValidationCodeGenerator implements ConstraintTranslator<Set<ClassMem
                 .build();
         append(constraintCode(field)
                        .conditionCheck(check)
-                       .createViolation(createViolation)
-                       .build());
+                       .createViolation(createViolation));
     }
 
     @Override
@@ -246,11 +289,39 @@ final class ValidationCodeGenerator implements ConstraintTranslator<Set<ClassMem
                 .setMessage(errorMessage)
                 .setNestedViolations(violationsVar)
                 .build();
-        append(constraintCode(field)
-                       .preparingDeclarations(nestedViolations)
-                       .conditionCheck(check)
-                       .createViolation(violation)
-                       .build());
+        var collecting = constraintCode(field)
+                .preparingDeclarations(nestedViolations)
+                .conditionCheck(check)
+                .createViolation(violation);
+        var failFast = constraintCode(field)
+                .conditionCheck(fieldAccess -> isInvalid(field, fieldAccess))
+                .createViolation(violation);
+        append(collecting, failFast);
+    }
+
+    /**
+     * Generates an expression which tells if the value of the given {@code (validate)} field
+     * is invalid, without collecting the violations where possible.
+     *
+     * <p>If the validation code is generated for the field type, the expression calls
+     * its {@code isValid()} method, which returns upon the first failed check. Otherwise,
+     * the violations are obtained at runtime, since the runtime API cannot check a message
+     * without collecting them.
+     */
+    private BooleanExpression isInvalid(FieldDeclaration field, FieldAccess fieldAccess) {
+        var flag = new ExternalConstraintFlag(field);
+        externalConstraintFlags.add(flag);
+        var isSet = new IsSet(field);
+        var externalCheck = CodeBlock.of("!$L.isEmpty()", externalViolations(field, fieldAccess));
+        var intrinsicCheck = validationIsGenerated(field)
+                             ? CodeBlock.of("!$L.isValid()", fieldAccess)
+                             : CodeBlock.of("!$T.violationsOf($L).isEmpty()",
+                                            Validate.class,
+                                            unpackedMessage(field, fieldAccess));
+        var isInvalid = BooleanExpression.fromCode("($L ? $L : $L)",
+                                                   flag.value(), externalCheck, intrinsicCheck);
+        return isSet.valueIsPresent(fieldAccess)
+                    .and(isInvalid);
     }
 
     private Function<FieldAccess, CodeBlock>
@@ -272,16 +343,39 @@ final class ValidationCodeGenerator implements ConstraintTranslator<Set<ClassMem
         };
     }
 
-    private static CodeBlock
-    intrinsicViolations(FieldDeclaration field,
-                        Expression<List<ConstraintViolation>> violationsVar,
-                        FieldAccess fieldAccess) {
+    /**
+     * Generates code which obtains the violations of the constraints declared in the type of
+     * the given field.
+     *
+     * <p>If the validation code is generated for the field type, the generated code calls its
+     * {@code validate()} method directly. Otherwise, e.g. for {@code Any} fields or the types
+     * compiled separately, the constraints are resolved at runtime.
+     */
+    private CodeBlock intrinsicViolations(FieldDeclaration field,
+                                          Expression<List<ConstraintViolation>> violationsVar,
+                                          FieldAccess fieldAccess) {
+        var violations = violationsVar.toString();
+        if (validationIsGenerated(field)) {
+            return CodeBlock.of("$N = $L.validate();", violations, fieldAccess);
+        }
         return CodeBlock.of("$N = $T.violationsOf($L);",
-                            violationsVar.toString(),
+                            violations,
                             Validate.class,
                             unpackedMessage(field, fieldAccess));
     }
 
+    private boolean validationIsGenerated(FieldDeclaration field) {
+        var value = field.isMap()
+                    ? field.valueDeclaration()
+                    : field;
+        if (value.isAny()) {
+            return false;
+        }
+        var valueType = value.descriptor()
+                             .getMessageType();
+        return hasGeneratedValidation.test(new MessageType(valueType));
+    }
+
     private static CodeBlock assignToEmpty(Expression<List<ConstraintViolation>> violationsVar) {
         return CodeBlock.of("$N = $T.of();", violationsVar.toString(), ImmutableList.class);
     }
@@ -289,17 +383,22 @@ final class ValidationCodeGenerator implements ConstraintTranslator<Set<ClassMem
     private CodeBlock externalViolations(FieldDeclaration field,
                                          Expression<List<ConstraintViolation>> violationsVar,
                                          FieldAccess fieldAccess) {
-        var typeName = ClassName.bestGuess(type.javaClassName().value());
-        Expression<FieldContext> fieldContextExpression =
-                Expression.fromCode("$T.create($T.getDescriptor().findFieldByNumber($L))",
-                                    FieldContext.class,
-                                    typeName,
-                                    field.number());
-        return CodeBlock.of("$N = $T.validateAtRuntime($L, $L);",
+        return CodeBlock.of("$N = $L;",
                             violationsVar.toString(),
+                            externalViolations(field, fieldAccess));
+    }
+
+    /**
+     * Generates an expression which obtains the violations of the external constraints
+     * declared for the given field.
+     */
+    private CodeBlock externalViolations(FieldDeclaration field, FieldAccess fieldAccess) {
+        var context = new FieldContextConstant(field);
+        fieldContextConstants.add(context);
+        return CodeBlock.of("$T.validateAtRuntime($L, $L)",
                             Validate.class,
                             unpackedMessage(field, fieldAccess),
-                            fieldContextExpression);
+                            context.value().toCode());
     }
 
     private static Expression<?> unpackedMessage(FieldDeclaration field, FieldAccess fieldAccess) {
@@ -324,8 +423,7 @@ final class ValidationCodeGenerator implements ConstraintTranslator<Set<ClassMem
                 .setField(fieldContext.fieldPath())
                 .addParam(constraint.optionValue())
                 .build();
-        var check = applyIfTrue(condition, violation);
-        compiledConstraints.add(check);
+        appendIfTrue(condition, violation);
     }
 
     @Override
@@ -338,8 +436,7 @@ final class ValidationCodeGenerator implements ConstraintTranslator<Set<ClassMem
                 .setMessage(constraint.errorMessage(fieldContext))
                 .setField(fieldContext.fieldPath())
                 .build();
-        var check = applyIfTrue(condition, violation);
-        compiledConstraints.add(check);
+        appendIfTrue(condition, violation);
     }
 
     @Override
@@ -351,8 +448,26 @@ final class ValidationCodeGenerator implements ConstraintTranslator<Set<ClassMem
         );
     }
 
-    private void append(ConstraintCode constraintCode) {
-        compiledConstraints.add(constraintCode.compile());
+    /**
+     * Compiles the given constraint code into both the validating method and
+     * the {@code isValid} method.
+     */
+    private void append(ConstraintCode.Builder constraintCode) {
+        append(constraintCode, constraintCode);
+    }
+
+    /**
+     * Compiles the first given constraint code into the validating method, and the second one
+     * into the {@code isValid} method.
+     */
+    private void append(ConstraintCode.Builder collectingCode,
+                        ConstraintCode.Builder failFastCode) {
+        var collecting = collectingCode.onViolation(violationAccumulator)
+                                       .build();
+        compiledConstraints.add(collecting.compile());
+        var failFast = failFastCode.onViolation(IsValidMethod::fail)
+                                   .build();
+        compiledChecks.add(failFast.compile());
     }
 
     @Override
@@ -367,14 +482,30 @@ final class ValidationCodeGenerator implements ConstraintTranslator<Set<ClassMem
                 .collect(toList());
         var validateMethod =
                 new ValidateMethod(type, methodName, messageAccess, compiledConstraints);
+        var isValidMethod =
+                new IsValidMethod(type, isValidMethodName, messageAccess, compiledChecks);
         var externalFlags = externalConstraintFlags
                 .stream()
                 .map(ExternalConstraintFlag::asClassMember)
                 .collect(toList());
+        var patterns = patternConstants
+                .stream()
+                .map(PatternConstant::asClassMember)
+                .collect(toList());
+        var fieldContexts = fieldContextConstants
+                .stream()
+                .map(FieldContextConstant::asClassMember)
+                .collect(toList());
         var methods = ImmutableSet.<ClassMember>builder()
                 .add(validateMethod.asClassMember())
+                .add(isValidMethod.asClassMember())
+                .add(new MemoizationFlag(type).asClassMember())
+                .add(customConstraintFlag.asClassMember())
                 .addAll(isSetMethods)
                 .addAll(externalFlags)
+                .addAll(patterns)
+                .addAll(fieldContexts)
+                .addAll(violationTemplates.asClassMembers())
                 .build();
         return methods;
     }
@@ -384,25 +515,45 @@ final class ValidationCodeGenerator implements ConstraintTranslator<Set<ClassMem
      */
     private ConstraintCode.Builder constraintCode(FieldDeclaration field) {
         return ConstraintCode.forField(field)
-                             .messageAccess(messageAccess)
-                             .onViolation(violationAccumulator);
+                             .messageAccess(messageAccess);
     }
 
     private void compileCustomConstraints() {
-        var code = CodeBlock.of(
-                "$N.addAll($T.violationsOfCustomConstraints($L));$L",
-                VIOLATIONS, Validate.class, messageAccess, lineSeparator()
-        );
-        compiledConstraints.add(code);
+        Expression<List<ConstraintViolation>> customViolations =
+                Expression.of(CUSTOM_VIOLATIONS);
+        var addViolations = ValidateMethod.addAllViolations(customViolations);
+        var fail = IsValidMethod.fail();
+        compiledConstraints.add(customConstraintsCheck(customViolations, addViolations));
+        compiledChecks.add(customConstraintsCheck(customViolations, fail));
+    }
+
+    /**
+     * Generates code which checks the custom constraints of the validated message.
+     *
+     * <p>The custom constraints are only looked for if the
+     * {@linkplain CustomConstraintFlag flag} tells they may exist.
+     */
+    private CodeBlock customConstraintsCheck(Expression<List<ConstraintViolation>> violations,
+                                             VoidExpression onViolations) {
+        var check = CodeBlock.builder()
+                .addStatement("$T $N = $T.violationsOfCustomConstraints($L)",
+                              listOfViolations, CUSTOM_VIOLATIONS, Validate.class, messageAccess)
+                .add(isEmpty(violations).negate()
+                                        .ifTrue(onViolations.toCode())
+                                        .toCode())
+                .build();
+        return customConstraintFlag.value()
+                                   .ifTrue(check)
+                                   .toCode();
     }
 
     private NewViolation.Builder newViolation() {
-        return NewViolation.forMessage(type, fieldContext);
+        return NewViolation.forMessage(type, fieldContext, violationTemplates);
     }
 
     private NewViolation.Builder newViolation(FieldDeclaration field, Constraint constraint) {
         var context = fieldContext.forChild(field);
-        return NewViolation.forField(context)
+        return NewViolation.forField(context, violationTemplates)
                            .setMessage(constraint.errorMessage(context));
     }
 
@@ -417,13 +568,19 @@ final class ValidationCodeGenerator implements ConstraintTranslator<Set<ClassMem
                 .build();
     }
 
-    private
-    CodeBlock applyIfTrue(BooleanExpression condition, Expression<ConstraintViolation> violation) {
-        var codeBlock =
-                violationAccumulator.apply(violation)
-                                    .toCode();
-        var result = condition.ifTrue(codeBlock)
-                              .toCode();
-        return result;
+    /**
+     * Compiles a check which reports the given violation if the given condition is met into
+     * both the validating method and the {@code isValid} method.
+     */
+    private void
+    appendIfTrue(BooleanExpression condition, Expression<ConstraintViolation> violation) {
+        var addViolation = violationAccumulator.apply(violation)
+                                               .toCode();
+        compiledConstraints.add(condition.ifTrue(addViolation)
+                                         .toCode());
+        var fail = IsValidMethod.fail()
+                                .toCode();
+        compiledChecks.add(condition.ifTrue(fail)
+                                    .toCode());
     }
 }
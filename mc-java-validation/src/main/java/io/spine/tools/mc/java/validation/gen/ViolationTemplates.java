@@ -0,0 +1,95 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.validation.gen;
+
+import com.google.common.collect.ImmutableList;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import io.spine.validate.ConstraintViolation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.lang.String.format;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.STATIC;
+
+/**
+ * The {@link ConstraintViolation} constants in the generated code.
+ *
+ * <p>A constant holds the part of a violation which does not depend on the validated message,
+ * such as the error message, the type name, and the field path. The generated code either uses
+ * the constant as is or copies it, filling in the field value and the nested violations.
+ * This way, the invariant parts of a violation are built once per class instead of once per
+ * violation.
+ *
+ * <p>Equal templates share the same constant.
+ */
+final class ViolationTemplates {
+
+    private final Map<String, Expression<ConstraintViolation>> constants = new LinkedHashMap<>();
+    private final Map<String, CodeBlock> initializers = new LinkedHashMap<>();
+
+    /**
+     * Obtains a constant initialized with the given code, registering it if needed.
+     *
+     * @param template
+     *         the code which builds the violation template
+     * @return an expression which references the constant
+     */
+    Expression<ConstraintViolation> constantFor(CodeBlock template) {
+        checkNotNull(template);
+        var code = template.toString();
+        var existing = constants.get(code);
+        if (existing != null) {
+            return existing;
+        }
+        var name = format("violation%d", constants.size());
+        Expression<ConstraintViolation> constant = Expression.of(name);
+        constants.put(code, constant);
+        initializers.put(name, template);
+        return constant;
+    }
+
+    /**
+     * Obtains the registered constants as {@link ClassMember}s.
+     */
+    ImmutableList<ClassMember> asClassMembers() {
+        return initializers
+                .entrySet()
+                .stream()
+                .map(entry -> FieldSpec.builder(ConstraintViolation.class, entry.getKey(),
+                                                PRIVATE, STATIC, FINAL)
+                        .initializer(entry.getValue())
+                        .build())
+                .<ClassMember>map(Field::new)
+                .collect(toImmutableList());
+    }
+}
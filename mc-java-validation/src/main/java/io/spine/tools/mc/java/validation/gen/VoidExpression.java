@@ -28,6 +28,7 @@ package io.spine.tools.mc.java.validation.gen;
 
 import com.google.errorprone.annotations.FormatMethod;
 import com.google.errorprone.annotations.FormatString;
+import com.squareup.javapoet.CodeBlock;
 
 import static java.lang.String.format;
 
@@ -55,4 +56,11 @@ final class VoidExpression extends CodeExpression<Void> {
     public static VoidExpression formatted(@FormatString String template, Object... args) {
         return new VoidExpression(format(template, args));
     }
+
+    /**
+     * Creates a {@code VoidExpression} from the given code.
+     */
+    public static VoidExpression fromCode(CodeBlock code) {
+        return new VoidExpression(code.toString());
+    }
 }
@@ -0,0 +1,486 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.validation.gen;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Message;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeSpec;
+import io.spine.type.MessageType;
+import io.spine.validate.ConstraintViolation;
+
+import javax.annotation.Generated;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static io.spine.util.Exceptions.newIllegalStateException;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.STATIC;
+
+/**
+ * The validation code generated for a message type, compiled and loaded for a test.
+ *
+ * <p>The message classes used in tests are compiled by {@code protoc} without the generated
+ * validation code. Thus, the generated {@code Validator} class is nested into a holder class
+ * placed into the package of the message class. The message-level {@code validate()} and
+ * {@code isValid()} methods, as well as the field memoizing the result, are generated into
+ * a {@linkplain Memoizing wrapper} of the message.
+ */
+final class CompiledValidator {
+
+    private static final String VALIDATE = "validate";
+    private static final String IS_VALID = "isValid";
+    private static final String VALIDATE_REPEATEDLY = "validateRepeatedly";
+    private static final String MEMOIZING = "Memoizing";
+    private static final String MESSAGE = "message";
+    private static final String MEMOIZED_VALIDITY = "memoizedIsValid";
+    private static final String NESTED_CALLS = "NestedValidation";
+
+    /**
+     * Matches a call of the message-level {@code validate()} or {@code isValid()} method
+     * of a field value, such as {@code msg.getValue().isValid()}.
+     */
+    private static final Pattern NESTED_CALL = Pattern.compile(
+            "((?:[\\w$]+(?:\\(\\))?\\.)*[\\w$]+(?:\\(\\))?)"
+                    + "\\.(" + VALIDATE + '|' + IS_VALID + ")\\(\\)"
+    );
+
+    private final Class<?> holder;
+    private final Class<? extends Message> messageClass;
+
+    private CompiledValidator(Class<?> holder, Class<? extends Message> messageClass) {
+        this.holder = holder;
+        this.messageClass = messageClass;
+    }
+
+    /**
+     * Generates and compiles the validation code for the given message type.
+     *
+     * <p>The {@code (validate)} fields are validated through the runtime validation API.
+     */
+    static CompiledValidator compile(Descriptor descriptor) {
+        return compile(descriptor, new Descriptor[0]);
+    }
+
+    /**
+     * Generates and compiles the validation code for the given message type together with
+     * the validation code for the given types of its {@code (validate)} fields.
+     *
+     * <p>The code generated for the given message calls the code generated for the field types
+     * directly, as if the types were {@linkplain ValidateSpecs#ValidateSpecs(MessageType,
+     * Predicate) generated together}. The fields of other types are validated through
+     * the runtime validation API.
+     *
+     * <p>Since the message classes have no generated methods, the direct calls of
+     * the {@code validate()} and {@code isValid()} methods of a field value are redirected to
+     * the holder of the validation code for the field type.
+     *
+     * @param descriptor
+     *         the type to validate
+     * @param generatedTogether
+     *         the types of the {@code (validate)} fields, declared in the same package
+     */
+    static CompiledValidator compile(Descriptor descriptor, Descriptor... generatedTogether) {
+        checkNotNull(descriptor);
+        checkNotNull(generatedTogether);
+        var together = ImmutableSet.<Descriptor>builder()
+                .add(descriptor)
+                .add(generatedTogether)
+                .build();
+        Predicate<MessageType> isGenerated = generatedTogether.length == 0
+                                             ? t -> false
+                                             : t -> together.contains(t.descriptor());
+        var messageClass = messageClass(descriptor);
+        var packageName = messageClass.getPackageName();
+        var files = ImmutableList.<JavaFile>builder();
+        for (var type : together) {
+            var cls = messageClass(type);
+            checkArgument(cls.getPackageName().equals(packageName),
+                          "`%s` is not in the package `%s`.", cls.getName(), packageName);
+            var holder = holderClass(holderName(cls), cls, new ValidateSpecs(
+                    new MessageType(type), isGenerated
+            ));
+            files.add(JavaFile.builder(packageName, holder)
+                              .build());
+        }
+        if (generatedTogether.length > 0) {
+            files.add(JavaFile.builder(packageName, nestedCallsClass(together))
+                              .build());
+        }
+        var loader = compileAndLoad(files.build(), messageClass);
+        try {
+            var holder = Class.forName(packageName + '.' + holderName(messageClass), true, loader);
+            return new CompiledValidator(holder, messageClass);
+        } catch (ClassNotFoundException e) {
+            throw newIllegalStateException(e, "Unable to load `%s`.", holderName(messageClass));
+        }
+    }
+
+    @SuppressWarnings("unchecked") // Ensured by the Protobuf compiler.
+    private static Class<? extends Message> messageClass(Descriptor descriptor) {
+        return (Class<? extends Message>) new MessageType(descriptor).javaClass();
+    }
+
+    private static String holderName(Class<? extends Message> messageClass) {
+        return messageClass.getSimpleName() + "Validation";
+    }
+
+    /**
+     * Generates a class with the overloads of the {@code validate(msg)} and
+     * {@code isValid(msg)} methods for each of the given types.
+     *
+     * <p>The overloads delegate to the holders of the validation code of the types. The calls of
+     * the message-level methods in the generated code are redirected to these overloads.
+     *
+     * @see #redirectNestedCalls(String)
+     */
+    private static TypeSpec nestedCallsClass(Iterable<Descriptor> types) {
+        var nested = TypeSpec.classBuilder(NESTED_CALLS)
+                .addModifiers(FINAL);
+        for (var type : types) {
+            var cls = messageClass(type);
+            var holder = ClassName.bestGuess(holderName(cls));
+            var message = ClassName.get(cls);
+            nested.addMethod(MethodSpec.methodBuilder(VALIDATE)
+                    .addModifiers(STATIC)
+                    .returns(ValidateMethod.immutableListOfViolations)
+                    .addParameter(message, MESSAGE)
+                    .addStatement("return $T.$N($N)", holder, VALIDATE, MESSAGE)
+                    .build());
+            nested.addMethod(MethodSpec.methodBuilder(IS_VALID)
+                    .addModifiers(STATIC)
+                    .returns(boolean.class)
+                    .addParameter(message, MESSAGE)
+                    .addStatement("return $T.$N($N)", holder, IS_VALID, MESSAGE)
+                    .build());
+        }
+        return nested.build();
+    }
+
+    /**
+     * Replaces the calls of the message-level {@code validate()} and {@code isValid()} methods
+     * of the field values in the given code with the calls of
+     * the {@linkplain #nestedCallsClass(Iterable) overloads} accepting the field values.
+     */
+    private static String redirectNestedCalls(String code) {
+        return NESTED_CALL.matcher(code)
+                          .replaceAll(NESTED_CALLS + ".$2($1)");
+    }
+
+    private static TypeSpec holderClass(String name,
+                                        Class<? extends Message> messageClass,
+                                        ValidateSpecs specs) {
+        var validatorClass = specs.validatorClass();
+        var validator = ClassName.bestGuess(validatorClass.name);
+        var message = ClassName.get(messageClass);
+        var validate = MethodSpec.methodBuilder(VALIDATE)
+                .addModifiers(STATIC)
+                .returns(ValidateMethod.immutableListOfViolations)
+                .addParameter(message, MESSAGE)
+                .addStatement("return $T.$N($N)", validator, VALIDATE, MESSAGE)
+                .build();
+        var isValid = MethodSpec.methodBuilder(IS_VALID)
+                .addModifiers(STATIC)
+                .returns(boolean.class)
+                .addParameter(message, MESSAGE)
+                .addStatement("return $T.$N($N)", validator, IS_VALID, MESSAGE)
+                .build();
+        var validateRepeatedly = MethodSpec.methodBuilder(VALIDATE_REPEATEDLY)
+                .addModifiers(STATIC)
+                .returns(int.class)
+                .addParameter(message, MESSAGE)
+                .addParameter(int.class, "times")
+                .addStatement("int count = 0")
+                .beginControlFlow("for (int i = 0; i < times; i++)")
+                .addStatement("count += $T.$N($N).size()", validator, VALIDATE, MESSAGE)
+                .endControlFlow()
+                .addStatement("return count")
+                .build();
+        return TypeSpec.classBuilder(name)
+                .addModifiers(FINAL)
+                .addType(validatorClass)
+                .addType(memoizingClass(message, specs))
+                .addMethod(validate)
+                .addMethod(isValid)
+                .addMethod(validateRepeatedly)
+                .build();
+    }
+
+    /**
+     * Generates a class which wraps a message and declares the message-level methods generated
+     * for the message class.
+     *
+     * <p>The generated methods refer to the message as {@code this}. In the wrapper, they refer
+     * to the wrapped message instead.
+     */
+    private static TypeSpec memoizingClass(ClassName message, ValidateSpecs specs) {
+        var constructor = MethodSpec.constructorBuilder()
+                .addParameter(message, MESSAGE)
+                .addStatement("this.$N = $N", MESSAGE, MESSAGE)
+                .build();
+        return TypeSpec.classBuilder(MEMOIZING)
+                .addModifiers(STATIC, FINAL)
+                .addField(FieldSpec.builder(message, MESSAGE, PRIVATE, FINAL).build())
+                .addField(specs.memoizedValidityField())
+                .addMethod(constructor)
+                .addMethod(onWrappedMessage(specs.validateMethod()))
+                .addMethod(onWrappedMessage(specs.isValidMethod()))
+                .build();
+    }
+
+    private static MethodSpec onWrappedMessage(MethodSpec method) {
+        var code = method.code
+                .toString()
+                .replace("(this)", '(' + MESSAGE + ')');
+        return MethodSpec.methodBuilder(method.name)
+                .addModifiers(method.modifiers)
+                .returns(method.returnType)
+                .addCode("$L", code)
+                .build();
+    }
+
+    private static ClassLoader compileAndLoad(List<JavaFile> files, Class<?> messageClass) {
+        var compiler = ToolProvider.getSystemJavaCompiler();
+        checkState(compiler != null, "Compiling generated code requires a JDK.");
+        try {
+            var sources = Files.createTempDirectory("generated-validator-src");
+            var classes = Files.createTempDirectory("generated-validator-classes");
+            var arguments = new ArrayList<String>();
+            arguments.add("-proc:none");
+            arguments.add("-nowarn");
+            arguments.add("-classpath");
+            arguments.add(classpath(messageClass));
+            arguments.add("-d");
+            arguments.add(classes.toString());
+            for (var file : files) {
+                arguments.add(write(file, sources).toString());
+            }
+            var errors = new ByteArrayOutputStream();
+            var result = compiler.run(null, null, errors, arguments.toArray(new String[0]));
+            checkState(result == 0,
+                       "Unable to compile the generated code:%n%s%n%s",
+                       errors.toString(UTF_8), files);
+            return new URLClassLoader(new URL[]{classes.toUri().toURL()},
+                                      messageClass.getClassLoader());
+        } catch (IOException e) {
+            throw newIllegalStateException(e, "Unable to compile `%s`.", files);
+        }
+    }
+
+    private static Path write(JavaFile file, Path sourceRoot) throws IOException {
+        var dir = sourceRoot.resolve(file.packageName.replace('.', File.separatorChar));
+        Files.createDirectories(dir);
+        var source = dir.resolve(file.typeSpec.name + ".java");
+        Files.write(source, redirectNestedCalls(file.toString()).getBytes(UTF_8));
+        return source;
+    }
+
+    /**
+     * Obtains the classpath to compile the generated code against.
+     *
+     * <p>Adds the locations of the classes used by the generated code to the classpath of
+     * the test JVM, in case the latter does not list them.
+     */
+    private static String classpath(Class<?> messageClass) {
+        var entries = new LinkedHashSet<String>(
+                Splitter.on(File.pathSeparatorChar)
+                        .omitEmptyStrings()
+                        .splitToList(System.getProperty("java.class.path"))
+        );
+        Stream.of(messageClass,
+                  Message.class,
+                  ImmutableList.class,
+                  ConstraintViolation.class,
+                  Generated.class)
+              .map(CompiledValidator::location)
+              .forEach(entries::add);
+        return String.join(File.pathSeparator, entries);
+    }
+
+    private static String location(Class<?> cls) {
+        try {
+            var url = cls.getProtectionDomain()
+                         .getCodeSource()
+                         .getLocation();
+            return Paths.get(url.toURI())
+                        .toString();
+        } catch (URISyntaxException e) {
+            throw newIllegalStateException(e, "Unable to locate `%s`.", cls.getName());
+        }
+    }
+
+    /**
+     * Validates the given message with the generated {@code Validator.validate(msg)} method.
+     */
+    @SuppressWarnings("unchecked") // Ensured by the generated code.
+    ImmutableList<ConstraintViolation> validate(Message message) {
+        return (ImmutableList<ConstraintViolation>) invoke(VALIDATE, message);
+    }
+
+    /**
+     * Checks the given message with the generated {@code Validator.isValid(msg)} method.
+     */
+    boolean isValid(Message message) {
+        return (boolean) invoke(IS_VALID, message);
+    }
+
+    /**
+     * Validates the given message the given number of times.
+     *
+     * <p>The loop runs in the compiled code, so that the test does not add any allocations of
+     * its own to each validation.
+     *
+     * @return the total number of the found violations
+     */
+    int validateRepeatedly(Message message, int times) {
+        return (int) invoke(VALIDATE_REPEATEDLY, message, times);
+    }
+
+    /**
+     * Wraps the given message into the holder of the message-level validation methods.
+     */
+    Memoizing memoizing(Message message) {
+        try {
+            var wrapper = Class.forName(holder.getName() + '$' + MEMOIZING,
+                                        true, holder.getClassLoader());
+            var constructor = wrapper.getDeclaredConstructor(messageClass);
+            constructor.setAccessible(true);
+            return new Memoizing(constructor.newInstance(messageClass.cast(message)));
+        } catch (ReflectiveOperationException e) {
+            throw newIllegalStateException(e, "Unable to wrap `%s`.", message);
+        }
+    }
+
+    private Object invoke(String methodName, Message message, Object... args) {
+        var parameterTypes = args.length == 0
+                             ? new Class<?>[]{messageClass}
+                             : new Class<?>[]{messageClass, int.class};
+        var arguments = new Object[args.length + 1];
+        arguments[0] = messageClass.cast(message);
+        System.arraycopy(args, 0, arguments, 1, args.length);
+        try {
+            var method = holder.getDeclaredMethod(methodName, parameterTypes);
+            method.setAccessible(true);
+            return invoke(method, null, arguments);
+        } catch (NoSuchMethodException e) {
+            throw newIllegalStateException(e, "No method `%s`.", methodName);
+        }
+    }
+
+    private static Object invoke(Method method, Object target, Object... arguments) {
+        try {
+            return method.invoke(target, arguments);
+        } catch (InvocationTargetException e) {
+            var cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw newIllegalStateException(cause, "`%s` failed.", method.getName());
+        } catch (IllegalAccessException e) {
+            throw newIllegalStateException(e, "Unable to call `%s`.", method.getName());
+        }
+    }
+
+    /**
+     * A message wrapped together with the generated message-level validation methods.
+     */
+    static final class Memoizing {
+
+        private final Object wrapper;
+
+        private Memoizing(Object wrapper) {
+            this.wrapper = wrapper;
+        }
+
+        /**
+         * Calls the generated message-level {@code validate()} method.
+         */
+        @SuppressWarnings("unchecked") // Ensured by the generated code.
+        ImmutableList<ConstraintViolation> validate() {
+            return (ImmutableList<ConstraintViolation>) call(VALIDATE);
+        }
+
+        /**
+         * Calls the generated message-level {@code isValid()} method.
+         */
+        boolean isValid() {
+            return (boolean) call(IS_VALID);
+        }
+
+        /**
+         * Obtains the value of the field memoizing the result of the validation.
+         */
+        byte memoizedIsValid() {
+            try {
+                var field = wrapper.getClass()
+                                   .getDeclaredField(MEMOIZED_VALIDITY);
+                field.setAccessible(true);
+                return field.getByte(wrapper);
+            } catch (ReflectiveOperationException e) {
+                throw newIllegalStateException(e, "Unable to read `%s`.", MEMOIZED_VALIDITY);
+            }
+        }
+
+        private Object call(String methodName) {
+            try {
+                var method = wrapper.getClass()
+                                    .getDeclaredMethod(methodName);
+                method.setAccessible(true);
+                return invoke(method, wrapper);
+            } catch (NoSuchMethodException e) {
+                throw newIllegalStateException(e, "No method `%s`.", methodName);
+            }
+        }
+    }
+}
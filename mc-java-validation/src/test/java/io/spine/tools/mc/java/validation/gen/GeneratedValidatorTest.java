@@ -0,0 +1,400 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.validation.gen;
+
+import com.google.common.collect.ImmutableList;
+import io.spine.test.tools.validate.WithAny;
+import io.spine.test.tools.validate.WithPatterns;
+import io.spine.test.tools.validate.WithPrimitiveConstraints;
+import io.spine.test.tools.validate.avocado.Greenhouse;
+import io.spine.test.tools.validate.avocado.Humidity;
+import io.spine.test.tools.validate.avocado.HumidityRange;
+import io.spine.test.tools.validate.avocado.Temperature;
+import io.spine.test.tools.validate.avocado.TemperatureRange;
+import io.spine.test.tools.validate.avocado.UvLightStrip;
+import io.spine.validate.option.ValidatingOptionsLoader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.Pattern;
+
+import static com.google.common.collect.Iterables.isEmpty;
+import static com.google.common.truth.Truth.assertThat;
+import static io.spine.validate.Validate.violationsOf;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests of the generated validation code compiled and run against the test messages.
+ *
+ * @see CompiledValidator
+ */
+@DisplayName("Generated validation code should")
+class GeneratedValidatorTest {
+
+    private static final int TIMES = 10_000;
+
+    private static final byte NOT_CHECKED = -1;
+    private static final byte INVALID = 0;
+    private static final byte VALID = 1;
+
+    @Nested
+    @DisplayName("validate a valid message")
+    class ValidMessage {
+
+        private final WithPrimitiveConstraints valid = WithPrimitiveConstraints.newBuilder()
+                .setName("valid")
+                .setCount(3)
+                .setRatio(0.5F)
+                .addId(1L)
+                .addId(2L)
+                .addId(3L)
+                .build();
+
+        @Test
+        @DisplayName("returning no violations")
+        void noViolations() {
+            var validator = CompiledValidator.compile(WithPrimitiveConstraints.getDescriptor());
+            assertThat(validator.validate(valid))
+                    .isEmpty();
+            var invalid = valid.toBuilder()
+                    .setCount(0)
+                    .addId(0L)
+                    .build();
+            assertThat(validator.validate(invalid))
+                    .hasSize(2);
+        }
+
+        /**
+         * Checks that the validation of a valid message allocates nothing.
+         *
+         * <p>The test tolerates the allocations made once per measurement, such as by calling
+         * the compiled code reflectively, but not a single byte per validation.
+         */
+        @Test
+        @DisplayName("without allocating memory")
+        void allocationFree() {
+            assumeTrue(Allocations.supported());
+            assumeTrue(isEmpty(ValidatingOptionsLoader.INSTANCE.implementations()),
+                       "Custom constraints are looked for at runtime.");
+            var validator = CompiledValidator.compile(WithPrimitiveConstraints.getDescriptor());
+            validator.validateRepeatedly(valid, TIMES);
+
+            var allocated = Allocations.allocatedBy(
+                    () -> validator.validateRepeatedly(valid, TIMES)
+            );
+            assertThat(allocated)
+                    .isLessThan(TIMES);
+        }
+    }
+
+    @Nested
+    @DisplayName("report violations")
+    class Violations {
+
+        private final WithPrimitiveConstraints invalid = WithPrimitiveConstraints.newBuilder()
+                .setCount(0)
+                .setRatio(2.0F)
+                .addId(0L)
+                .build();
+
+        @Test
+        @DisplayName("equal to the violations found by the runtime validation")
+        void sameAsAtRuntime() {
+            var validator = CompiledValidator.compile(WithPrimitiveConstraints.getDescriptor());
+            assertThat(validator.validate(invalid))
+                    .containsExactlyElementsIn(violationsOf(invalid));
+        }
+
+        @Test
+        @DisplayName("equal upon each validation")
+        void sameEachTime() {
+            var validator = CompiledValidator.compile(WithPrimitiveConstraints.getDescriptor());
+            var first = validator.validate(invalid);
+            var second = validator.validate(invalid);
+            assertThat(second)
+                    .isEqualTo(first);
+        }
+
+        /**
+         * Checks that a violation which has no parts depending on the validated message is
+         * a constant of the generated class rather than built upon each validation.
+         */
+        @Test
+        @DisplayName("reusing a violation without dynamic parts")
+        void constantReused() {
+            var validator = CompiledValidator.compile(WithPrimitiveConstraints.getDescriptor());
+            var missingName = invalid.toBuilder()
+                    .setCount(1)
+                    .setRatio(1.0F)
+                    .setId(0, 1L)
+                    .build();
+            var first = validator.validate(missingName);
+            var second = validator.validate(missingName);
+            assertThat(first)
+                    .hasSize(1);
+            assertThat(second.get(0))
+                    .isSameInstanceAs(first.get(0));
+        }
+    }
+
+    @Nested
+    @DisplayName("check `(pattern)` constraints")
+    class Patterns {
+
+        private final WithPatterns valid = WithPatterns.newBuilder()
+                .setFirst("abc")
+                .setSecond("xyz")
+                .setThird("42")
+                .addFourth("7")
+                .addFourth("8")
+                .build();
+
+        @Test
+        @DisplayName("accepting matching values")
+        void valid() {
+            var validator = CompiledValidator.compile(WithPatterns.getDescriptor());
+            assertThat(validator.validate(valid))
+                    .isEmpty();
+        }
+
+        @Test
+        @DisplayName("rejecting values which do not match")
+        void invalid() {
+            var validator = CompiledValidator.compile(WithPatterns.getDescriptor());
+            var invalid = valid.toBuilder()
+                    .setFirst("ABC")
+                    .addFourth("x")
+                    .build();
+            assertThat(validator.validate(invalid))
+                    .hasSize(2);
+        }
+
+        /**
+         * Compares the memory allocated by the generated code with the memory allocated by
+         * compiling the patterns upon each validation, as the code generated before did.
+         */
+        @Test
+        @DisplayName("allocating less than compiling the patterns upon each validation")
+        void compiledOnce() {
+            assumeTrue(Allocations.supported());
+            var validator = CompiledValidator.compile(WithPatterns.getDescriptor());
+            validator.validateRepeatedly(valid, TIMES);
+            compileEachTime(valid, TIMES);
+
+            var generated = Allocations.allocatedBy(
+                    () -> validator.validateRepeatedly(valid, TIMES)
+            );
+            var compiledEachTime = Allocations.allocatedBy(
+                    () -> compileEachTime(valid, TIMES)
+            );
+            assertThat(generated)
+                    .isLessThan(compiledEachTime);
+        }
+
+        /**
+         * Matches the fields of the given message the way the validation code generated before
+         * did, i.e. compiling the pattern for each value.
+         *
+         * @return the number of the values which do not match
+         */
+        private int compileEachTime(WithPatterns message, int times) {
+            var mismatches = 0;
+            for (var i = 0; i < times; i++) {
+                mismatches += matches("[a-z]+", message.getFirst()) ? 0 : 1;
+                mismatches += matches("[a-z]+", message.getSecond()) ? 0 : 1;
+                mismatches += matches("\\d+", message.getThird()) ? 0 : 1;
+                for (var value : message.getFourthList()) {
+                    mismatches += matches("\\d+", value) ? 0 : 1;
+                }
+            }
+            return mismatches;
+        }
+
+        private boolean matches(String regex, String value) {
+            return Pattern.compile(regex, 0)
+                          .matcher(value)
+                          .matches();
+        }
+    }
+
+    @Nested
+    @DisplayName("check `(validate)` fields")
+    class NestedFields {
+
+        private final Greenhouse valid = Greenhouse.newBuilder()
+                .setCapacity(20)
+                .setTemperature(TemperatureRange.newBuilder()
+                                        .setLowestAllowed(celsius(10.0F))
+                                        .setHighestAllowed(celsius(30.0F)))
+                .setHumidity(HumidityRange.newBuilder()
+                                     .setLowestAllowed(percent(40.0F))
+                                     .setHighestAllowed(percent(80.0F)))
+                .setUv(UvLightStrip.newBuilder()
+                               .setMinWaveLength(100.0F)
+                               .setMaxWaveLength(400.0F))
+                .build();
+
+        @Test
+        @DisplayName("validating them through the runtime API")
+        void atRuntime() {
+            var validator = CompiledValidator.compile(Greenhouse.getDescriptor());
+            assertAgree(validator);
+        }
+
+        @Test
+        @DisplayName("calling the validation code generated for the field types")
+        void directly() {
+            var validator = compileTogether();
+            assertAgree(validator);
+        }
+
+        @Test
+        @DisplayName("finding the same violations either way")
+        void sameViolations() {
+            var atRuntime = CompiledValidator.compile(Greenhouse.getDescriptor());
+            var directly = compileTogether();
+            for (var message : invalid()) {
+                var expected = violationsOf(message);
+                assertThat(atRuntime.validate(message))
+                        .containsExactlyElementsIn(expected);
+                assertThat(directly.validate(message))
+                        .containsExactlyElementsIn(expected);
+            }
+        }
+
+        private CompiledValidator compileTogether() {
+            return CompiledValidator.compile(Greenhouse.getDescriptor(),
+                                             TemperatureRange.getDescriptor(),
+                                             Temperature.getDescriptor(),
+                                             HumidityRange.getDescriptor(),
+                                             Humidity.getDescriptor());
+        }
+
+        /**
+         * Checks that the fail-fast {@code isValid(msg)} accepts exactly the messages for which
+         * {@code validate(msg)} finds no violations.
+         */
+        private void assertAgree(CompiledValidator validator) {
+            assertThat(validator.validate(valid))
+                    .isEmpty();
+            assertThat(validator.isValid(valid))
+                    .isTrue();
+            for (var message : invalid()) {
+                assertThat(validator.validate(message))
+                        .isNotEmpty();
+                assertThat(validator.isValid(message))
+                        .isFalse();
+            }
+        }
+
+        private ImmutableList<Greenhouse> invalid() {
+            var tooHot = valid.toBuilder();
+            tooHot.getTemperatureBuilder()
+                  .setHighestAllowed(celsius(60.0F));
+            var noHumidity = valid.toBuilder()
+                    .clearHumidity();
+            var tooSmall = valid.toBuilder()
+                    .setCapacity(5);
+            return ImmutableList.of(tooHot.build(), noHumidity.build(), tooSmall.build());
+        }
+
+        private Temperature celsius(float degrees) {
+            return Temperature.newBuilder()
+                    .setDegreesCelsius(degrees)
+                    .build();
+        }
+
+        private Humidity percent(float value) {
+            return Humidity.newBuilder()
+                    .setPercent(value)
+                    .build();
+        }
+    }
+
+    @Nested
+    @DisplayName("memoize the validation result")
+    class Memoization {
+
+        private final WithPrimitiveConstraints valid = WithPrimitiveConstraints.newBuilder()
+                .setName("memoized")
+                .setCount(1)
+                .setRatio(0.1F)
+                .addId(42L)
+                .build();
+
+        @Test
+        @DisplayName("once the message is found valid")
+        void valid() {
+            var validator = CompiledValidator.compile(WithPrimitiveConstraints.getDescriptor());
+            var message = validator.memoizing(valid);
+            assertThat(message.memoizedIsValid())
+                    .isEqualTo(NOT_CHECKED);
+            assertThat(message.validate())
+                    .isEmpty();
+            assertThat(message.memoizedIsValid())
+                    .isEqualTo(VALID);
+            assertThat(message.validate())
+                    .isEmpty();
+            assertThat(message.isValid())
+                    .isTrue();
+        }
+
+        @Test
+        @DisplayName("once the message is found invalid by `isValid()`")
+        void invalid() {
+            var validator = CompiledValidator.compile(WithPrimitiveConstraints.getDescriptor());
+            var invalid = valid.toBuilder()
+                    .setCount(0)
+                    .build();
+            var message = validator.memoizing(invalid);
+            assertThat(message.validate())
+                    .isNotEmpty();
+            assertThat(message.memoizedIsValid())
+                    .isEqualTo(NOT_CHECKED);
+            assertThat(message.isValid())
+                    .isFalse();
+            assertThat(message.memoizedIsValid())
+                    .isEqualTo(INVALID);
+            assertThat(message.validate())
+                    .isNotEmpty();
+        }
+
+        @Test
+        @DisplayName("unless a validated `Any` field is reachable")
+        void notMemoizable() {
+            var validator = CompiledValidator.compile(WithAny.getDescriptor());
+            var message = validator.memoizing(WithAny.getDefaultInstance());
+            assertThat(message.validate())
+                    .isEmpty();
+            assertThat(message.isValid())
+                    .isTrue();
+            assertThat(message.memoizedIsValid())
+                    .isEqualTo(NOT_CHECKED);
+        }
+    }
+}
@@ -27,16 +27,32 @@
 package io.spine.tools.mc.java.validation.gen;
 
 import com.google.protobuf.Descriptors.Descriptor;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import io.spine.code.proto.FieldContext;
+import io.spine.test.tools.validate.AllFields;
 import io.spine.test.tools.validate.NotValidator;
 import io.spine.test.tools.validate.Validator;
+import io.spine.test.tools.validate.WithAny;
+import io.spine.test.tools.validate.WithBoolean;
+import io.spine.test.tools.validate.WithNestedAny;
+import io.spine.test.tools.validate.WithPatterns;
 import io.spine.test.tools.validate.avocado.Greenhouse;
 import io.spine.type.MessageType;
+import io.spine.validate.ConstraintViolation;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.regex.Pattern;
+
 import static com.google.common.truth.Truth.assertThat;
+import static java.util.stream.Collectors.toList;
 import static javax.lang.model.SourceVersion.isName;
 import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.STATIC;
 
 @DisplayName("`MessageValidatorFactory` should")
 class ValidateSpecsTest {
@@ -55,6 +71,155 @@ class ValidateSpecsTest {
                 .contains(PRIVATE);
     }
 
+    @Test
+    @DisplayName("compile each distinct pattern once into a static constant")
+    void patternConstants() {
+        var type = new MessageType(WithPatterns.getDescriptor());
+        var validatorClass = new ValidateSpecs(type).validatorClass();
+        var patternType = ClassName.get(Pattern.class);
+        var patterns = validatorClass.fieldSpecs
+                .stream()
+                .filter(field -> field.type.equals(patternType))
+                .collect(toList());
+        assertThat(patterns)
+                .hasSize(2);
+        patterns.forEach(field -> assertThat(field.modifiers).containsAtLeast(PRIVATE, STATIC));
+        validatorClass.methodSpecs.forEach(
+                method -> assertThat(method.code.toString()).doesNotContain("compile(")
+        );
+    }
+
+    @Test
+    @DisplayName("not allocate the violation list builder and lambdas for a valid message")
+    void allocationFreeValidPath() {
+        var type = new MessageType(AllFields.getDescriptor());
+        var validatorClass = new ValidateSpecs(type).validatorClass();
+        var code = validateMethod(validatorClass).code.toString();
+        assertThat(code)
+                .doesNotContain("->");
+        assertThat(code)
+                .doesNotContain("forEach");
+        assertThat(code)
+                .contains("violations = null;");
+        assertThat(code)
+                .contains("return violations == null ?");
+        assertThat(code)
+                .contains("msg.getStrings(index)");
+    }
+
+    @Test
+    @DisplayName("build the invariant parts of violations once into static constants")
+    void violationTemplates() {
+        var type = new MessageType(AllFields.getDescriptor());
+        var validatorClass = new ValidateSpecs(type).validatorClass();
+        var violationType = ClassName.get(ConstraintViolation.class);
+        var templates = validatorClass.fieldSpecs
+                .stream()
+                .filter(field -> field.type.equals(violationType))
+                .collect(toList());
+        assertThat(templates)
+                .isNotEmpty();
+        templates.forEach(field -> assertThat(field.modifiers).containsAtLeast(PRIVATE, STATIC));
+        var code = validateMethod(validatorClass).code.toString();
+        assertThat(code)
+                .doesNotContain("ConstraintViolation.newBuilder()");
+        assertThat(code)
+                .doesNotContain("addFieldName(");
+    }
+
+    @Test
+    @DisplayName("look up the contexts of externally validated fields once")
+    void fieldContextConstants() {
+        var type = new MessageType(Greenhouse.getDescriptor());
+        var validatorClass = new ValidateSpecs(type).validatorClass();
+        var contextType = ClassName.get(FieldContext.class);
+        var contexts = validatorClass.fieldSpecs
+                .stream()
+                .filter(field -> field.type.equals(contextType))
+                .collect(toList());
+        assertThat(contexts)
+                .isNotEmpty();
+        validatorClass.methodSpecs.forEach(
+                method -> assertThat(method.code.toString())
+                        .doesNotContain("findFieldByNumber(")
+        );
+    }
+
+    @Test
+    @DisplayName("look for custom constraints only if they may exist")
+    void customConstraintsFlag() {
+        var type = new MessageType(WithBoolean.getDescriptor());
+        var validatorClass = new ValidateSpecs(type).validatorClass();
+        var flag = validatorClass.fieldSpecs
+                .stream()
+                .filter(field -> field.name.equals("hasCustomConstraints"))
+                .findFirst()
+                .orElseThrow();
+        assertThat(flag.modifiers)
+                .containsAtLeast(PRIVATE, STATIC);
+        assertThat(flag.initializer.toString())
+                .contains("ValidatingOptionsLoader.INSTANCE.implementations()");
+        var validate = validateMethod(validatorClass).code.toString();
+        assertThat(validate)
+                .contains("if (hasCustomConstraints)");
+        var isValid = method(validatorClass, "isValid").code.toString();
+        assertThat(isValid)
+                .contains("if (hasCustomConstraints)");
+    }
+
+    @Test
+    @DisplayName("generate the fail-fast `isValid` method which does not create violations")
+    void failFastIsValid() {
+        var type = new MessageType(Greenhouse.getDescriptor());
+        var validatorClass = new ValidateSpecs(type).validatorClass();
+        var isValid = method(validatorClass, "isValid");
+        assertThat(isValid.returnType)
+                .isEqualTo(TypeName.BOOLEAN);
+        assertThat(isValid.modifiers)
+                .containsAtLeast(PRIVATE, STATIC);
+        var code = isValid.code.toString();
+        assertThat(code)
+                .contains("return false;");
+        assertThat(code.trim())
+                .endsWith("return true;");
+        assertThat(code)
+                .doesNotContain("ConstraintViolation.newBuilder()");
+        assertThat(code)
+                .doesNotContain("violations = ");
+        assertThat(code)
+                .doesNotContain("toAny(");
+    }
+
+    @Test
+    @DisplayName("check the same constraints in `validate` and `isValid` methods")
+    void sameChecks() {
+        var type = new MessageType(AllFields.getDescriptor());
+        var validatorClass = new ValidateSpecs(type).validatorClass();
+        var validate = validateMethod(validatorClass).code.toString();
+        var isValid = method(validatorClass, "isValid").code.toString();
+        assertThat(countIfs(isValid))
+                .isEqualTo(countIfs(validate));
+    }
+
+    /**
+     * Counts the {@code if} statements in the given code.
+     */
+    private static int countIfs(String code) {
+        return code.split("if \\(", -1).length - 1;
+    }
+
+    private static MethodSpec validateMethod(TypeSpec validatorClass) {
+        return method(validatorClass, "validate");
+    }
+
+    private static MethodSpec method(TypeSpec validatorClass, String name) {
+        return validatorClass.methodSpecs
+                .stream()
+                .filter(method -> method.name.equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
     @Test
     @DisplayName("generate `validate()` method")
     void generateValidate() {
@@ -67,6 +232,117 @@ class ValidateSpecsTest {
                 .isEqualTo("com.google.common.collect.ImmutableList<io.spine.validate.ConstraintViolation>");
     }
 
+    @Test
+    @DisplayName("generate `isValid()` method")
+    void generateIsValid() {
+        var type = new MessageType(Greenhouse.getDescriptor());
+        var factory = new ValidateSpecs(type);
+        var isValidMethod = factory.isValidMethod();
+        assertThat(isName(isValidMethod.name))
+                .isTrue();
+        assertThat(isValidMethod.returnType)
+                .isEqualTo(TypeName.BOOLEAN);
+    }
+
+    @Test
+    @DisplayName("memoize the validation result in the message")
+    void memoizeResult() {
+        var type = new MessageType(Greenhouse.getDescriptor());
+        var factory = new ValidateSpecs(type);
+        var field = factory.memoizedValidityField();
+        assertThat(field.type)
+                .isEqualTo(TypeName.BYTE);
+        assertThat(field.modifiers)
+                .containsExactly(PRIVATE);
+        assertThat(field.initializer.toString())
+                .isEqualTo("-1");
+        var validate = factory.validateMethod().code.toString();
+        assertThat(validate)
+                .contains(field.name + " == 1");
+        assertThat(validate)
+                .contains("Validator.memoizable");
+        var isValid = factory.isValidMethod().code.toString();
+        assertThat(isValid)
+                .contains(field.name + " != -1");
+        assertThat(isValid)
+                .contains("Validator.memoizable");
+    }
+
+    @Nested
+    @DisplayName("validate the values of `(validate)` fields")
+    class NestedValidation {
+
+        @Test
+        @DisplayName("by calling the generated code of the field type directly")
+        void directly() {
+            var type = new MessageType(Greenhouse.getDescriptor());
+            var code = new ValidateSpecs(type, t -> true).validatorClass()
+                                                         .toString();
+            assertThat(code)
+                    .contains(".validate();");
+            assertThat(code)
+                    .doesNotContain("violationsOf(");
+        }
+
+        @Test
+        @DisplayName("through the runtime API if the field type is compiled separately")
+        void atRuntime() {
+            var type = new MessageType(Greenhouse.getDescriptor());
+            var code = new ValidateSpecs(type).validatorClass()
+                                              .toString();
+            assertThat(code)
+                    .contains("violationsOf(");
+        }
+
+        @Test
+        @DisplayName("through the runtime API if the field is `Any`")
+        void any() {
+            var type = new MessageType(WithAny.getDescriptor());
+            var code = new ValidateSpecs(type, t -> true).validatorClass()
+                                                         .toString();
+            assertThat(code)
+                    .contains("violationsOf(");
+        }
+    }
+
+    @Nested
+    @DisplayName("allow memoizing the validation result")
+    class Memoizable {
+
+        @Test
+        @DisplayName("for a message without validated message fields")
+        void noMessageFields() {
+            assertThat(memoizable(WithBoolean.getDescriptor()))
+                    .isEqualTo("true");
+        }
+
+        @Test
+        @DisplayName("unless validated fields have external constraints")
+        void checkExternalConstraints() {
+            assertThat(memoizable(Greenhouse.getDescriptor()))
+                    .contains("isDefinedFor(");
+        }
+
+        @Test
+        @DisplayName("unless a validated `Any` field is reachable")
+        void notWithAny() {
+            assertThat(memoizable(WithAny.getDescriptor()))
+                    .isEqualTo("false");
+            assertThat(memoizable(WithNestedAny.getDescriptor()))
+                    .isEqualTo("false");
+        }
+
+        private String memoizable(Descriptor descriptor) {
+            var validatorClass = new ValidateSpecs(new MessageType(descriptor)).validatorClass();
+            var flag = validatorClass.fieldSpecs
+                    .stream()
+                    .filter(field -> field.name.equals("memoizable"))
+                    .findFirst()
+                    .orElseThrow();
+            return flag.initializer.toString();
+        }
+    }
+
     @Test
     @DisplayName("generate `vBuild()` method")
     void generateVBuild() {
@@ -58,7 +58,9 @@ class ValidationCodeGenTest {
     @DisplayName("throw `UnsupportedOperationException` upon `CustomConstraint`")
     void notAllowCustom() {
         var constraint = FakeConstraint.INSTANCE;
-        var compiler = new ValidationCodeGenerator("test", constraint.targetType());
+        var compiler = new ValidationCodeGenerator(
+                "test", "isTest", constraint.targetType(), t -> true
+        );
         assertThrows(UnsupportedOperationException.class, () -> compiler.visitCustom(constraint));
     }
 
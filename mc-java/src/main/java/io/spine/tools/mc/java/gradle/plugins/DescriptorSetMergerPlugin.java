@@ -27,13 +27,8 @@
 package io.spine.tools.mc.java.gradle.plugins;
 
 import io.spine.tools.code.SourceSetName;
-import io.spine.tools.gradle.task.GradleTask;
-import io.spine.tools.type.FileDescriptorSuperset;
-import org.gradle.api.Action;
-import org.gradle.api.Buildable;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
-import org.gradle.api.Task;
 
 import static io.spine.tools.gradle.JavaConfigurationName.runtimeClasspath;
 import static io.spine.tools.gradle.project.Projects.configuration;
@@ -42,13 +37,18 @@ import static io.spine.tools.gradle.project.Projects.getSourceSetNames;
 import static io.spine.tools.gradle.task.JavaTaskName.processResources;
 import static io.spine.tools.gradle.task.ProtobufTaskName.generateProto;
 import static io.spine.tools.mc.java.gradle.McJavaTaskName.mergeDescriptorSet;
+import static io.spine.tools.mc.java.gradle.Projects.mergedDescriptorSetFile;
 
 /**
  * A Gradle plugin which merges the descriptor file with all the descriptor files from
  * the project runtime classpath.
  *
- * <p>The merge result is used to {@linkplain
+ * <p>The merge result is written to the
+ * {@linkplain io.spine.tools.mc.java.gradle.Projects#mergedDescriptorSetFile merged descriptor
+ * set file}, which is used to {@linkplain
  * io.spine.tools.type.MoreKnownTypes#extendWith(java.io.File) extend the known type registry}.
+ *
+ * @see MergeDescriptorSet
  */
 final class DescriptorSetMergerPlugin implements Plugin<Project> {
 
@@ -58,28 +58,18 @@ final class DescriptorSetMergerPlugin implements Plugin<Project> {
     }
 
     private static void createTask(Project project, SourceSetName ssn) {
-        var configuration = configuration(project, runtimeClasspath(ssn));
-        var dependencies = configuration.getAllDependencies();
-        var action = createMergingAction(ssn);
-        var task = GradleTask.newBuilder(mergeDescriptorSet(ssn), action)
-                .insertAfterTask(generateProto(ssn))
-                .insertBeforeTask(processResources(ssn))
-                .applyNowTo(project);
-        task.getTask().dependsOn(dependencies);
-    }
-
-    private static Action<Task> createMergingAction(SourceSetName ssn) {
-        return task -> {
-            var superset = new FileDescriptorSuperset();
-            var project = task.getProject();
-            var configuration = configuration(project, runtimeClasspath(ssn));
-            configuration.forEach(superset::addFromDependency);
-            var descriptorSet = descriptorSetFile(project, ssn);
-            if (descriptorSet.exists()) {
-                superset.addFromDependency(descriptorSet);
-            }
-            superset.merge()
-                    .loadIntoKnownTypes();
-        };
+        var tasks = project.getTasks();
+        var task = tasks.create(
+                mergeDescriptorSet(ssn).name(),
+                MergeDescriptorSet.class,
+                t -> {
+                    t.getClasspath().from(configuration(project, runtimeClasspath(ssn)));
+                    t.getDescriptorSet().from(descriptorSetFile(project, ssn));
+                    t.getMergedFile().set(mergedDescriptorSetFile(project, ssn).toFile());
+                    t.dependsOn(generateProto(ssn).name());
+                }
+        );
+        tasks.getByName(processResources(ssn).name())
+             .dependsOn(task);
     }
 }
@@ -200,7 +200,7 @@ public final class JavaProtocConfigurationPlugin extends ProtocConfigurationPlug
             return task -> {
                 var configFile = spineProtocConfigFile();
                 var options = getMcJava(project);
-                var codegenOptions = options.codegen.toProto();
+                var codegenOptions = options.codegen.toPluginConfig();
 
                 ensureFile(configFile);
                 try (var fos = new FileOutputStream(configFile.toFile())) {
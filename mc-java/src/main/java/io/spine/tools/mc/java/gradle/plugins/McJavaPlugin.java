@@ -63,8 +63,10 @@ public class McJavaPlugin extends LanguagePlugin implements Logging {
      * the given project.
      *
      * @implNote Plugins that deal with Protobuf types must depend on
-     *         {@code mergeDescriptorSet} and {@code mergeTestDescriptorSet} tasks to be able to
-     *         access every declared type in the project classpath.
+     *         {@code mergeDescriptorSet} and {@code mergeTestDescriptorSet} tasks and load
+     *         the {@linkplain io.spine.tools.mc.java.gradle.Projects#mergedDescriptorSetFile
+     *         merged descriptor set file} to be able to access every declared type in
+     *         the project classpath.
      */
     private void createAndApplyPluginsIn(Project project) {
         Stream.of(new CleaningPlugin(),
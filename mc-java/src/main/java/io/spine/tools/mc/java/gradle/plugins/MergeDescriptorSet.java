@@ -0,0 +1,111 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.gradle.plugins;
+
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileDescriptorSet;
+import io.spine.tools.type.FileDescriptorSuperset;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Classpath;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.TaskAction;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static java.nio.file.Files.readAllBytes;
+import static java.nio.file.Files.write;
+import static java.util.Comparator.comparing;
+import static org.gradle.api.tasks.PathSensitivity.NONE;
+
+/**
+ * A task that merges the descriptor set file of a source set with all the descriptor files
+ * from the runtime classpath.
+ *
+ * <p>The {@link #getMergedFile() mergedFile} property defines the destination file.
+ *
+ * <p>The files in the merged descriptor set are sorted by name, so that the task produces
+ * the same output for the same inputs. This allows Gradle to reuse the output of the task
+ * from the build cache.
+ */
+@CacheableTask
+@SuppressWarnings({"AbstractClassNeverImplemented", "unused"})
+    // Gradle creates a subtype for this class.
+public abstract class MergeDescriptorSet extends DefaultTask {
+
+    /**
+     * The runtime classpath of the source set which descriptor files are merged.
+     */
+    @Classpath
+    public abstract ConfigurableFileCollection getClasspath();
+
+    /**
+     * The descriptor set file of the source set.
+     *
+     * <p>The file may be missing if the source set does not have Protobuf definitions.
+     */
+    @InputFiles
+    @PathSensitive(NONE)
+    public abstract ConfigurableFileCollection getDescriptorSet();
+
+    /**
+     * The file where the merged descriptor set is written.
+     */
+    @OutputFile
+    public abstract RegularFileProperty getMergedFile();
+
+    @TaskAction
+    private void merge() throws IOException {
+        var superset = new FileDescriptorSuperset();
+        getClasspath().forEach(superset::addFromDependency);
+        getDescriptorSet().getFiles()
+                          .stream()
+                          .filter(File::exists)
+                          .forEach(superset::addFromDependency);
+        var file = getMergedFile().get().getAsFile();
+        file.getParentFile().mkdirs();
+        superset.merge()
+                .writeTo(file);
+        sortFiles(file.toPath());
+    }
+
+    private static void sortFiles(Path file) throws IOException {
+        var descriptorSet = FileDescriptorSet.parseFrom(readAllBytes(file));
+        var sorted = FileDescriptorSet.newBuilder();
+        descriptorSet.getFileList()
+                     .stream()
+                     .sorted(comparing(FileDescriptorProto::getName))
+                     .forEach(sorted::addFile);
+        write(file, sorted.build().toByteArray());
+    }
+}
@@ -1,3 +1,5 @@
 @echo off
 
+REM The daemon mode is supported only by `plugin_runner.sh`.
+
 java -jar {jar-file}
@@ -26,4 +26,39 @@
 # OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 #
 
-java -jar {jar-file}
+# If `SPINE_PROTOC_DAEMON_SESSION` points to the session file of a running
+# `io.spine.tools.mc.java.protoc.PluginDaemon`, the request is forwarded to the daemon.
+# The daemon is not started by the build; see the `PluginDaemon` docs on how to run it.
+#
+# The request is sent after a header line with the session token and the request size, so
+# the daemon does not wait for the client to shut down the connection. The `-N` flag is passed
+# to `nc` only if it is supported. If the daemon cannot be reached, or does not reply in time,
+# the plugin runs in a new JVM.
+
+session="${SPINE_PROTOC_DAEMON_SESSION:-}"
+if [ -n "$session" ] && [ -r "$session" ] && command -v nc > /dev/null 2>&1; then
+    { read -r port; read -r token; } < "$session"
+    request="$(mktemp)"
+    response="$(mktemp)"
+    trap 'rm -f "$request" "$response"' EXIT
+    cat > "$request"
+    size=$(( $(wc -c < "$request") ))
+    nc_flags=()
+    if nc -h 2>&1 | grep -q -E '^[[:space:]]*-N'; then
+        nc_flags+=(-N)
+    fi
+    limit=()
+    if command -v timeout > /dev/null 2>&1; then
+        limit=(timeout 600)
+    fi
+    if { printf '%s %s\n' "$token" "$size"; cat "$request"; } \
+            | "${limit[@]}" nc "${nc_flags[@]}" 127.0.0.1 "$port" > "$response" 2> /dev/null \
+            && [ -s "$response" ]; then
+        cat "$response"
+        exit 0
+    fi
+    java -jar {jar-file} < "$request"
+    exit $?
+fi
+
+exec java -jar {jar-file}
@@ -34,6 +34,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import static com.google.common.truth.Truth.assertThat;
 import static io.spine.tools.gradle.task.BaseTaskName.clean;
 import static io.spine.tools.gradle.task.JavaTaskName.compileJava;
 import static io.spine.tools.gradle.task.JavaTaskName.compileTestJava;
@@ -127,4 +128,30 @@ class McJavaPluginTest {
             return task;
         }
     }
+
+    @Nested
+    @DisplayName("declare the outputs of the task")
+    class DeclareOutputs {
+
+        @Test
+        void mergeDescriptorSet() {
+            assertHasOutputs(mergeDescriptorSet);
+        }
+
+        @Test
+        void generateRejections() {
+            assertHasOutputs(generateRejections);
+        }
+
+        @Test
+        void annotateProto() {
+            assertHasOutputs(annotateProto);
+        }
+
+        private void assertHasOutputs(TaskName taskName) {
+            var task = tasks.getByName(taskName.name());
+            assertThat(task.getOutputs().getHasOutput())
+                    .isTrue();
+        }
+    }
 }
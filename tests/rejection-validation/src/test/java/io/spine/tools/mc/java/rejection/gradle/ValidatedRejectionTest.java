@@ -0,0 +1,63 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tools.mc.java.rejection.gradle;
+
+import io.spine.base.Identifier;
+import io.spine.tools.rejections.validated.CannotRenameUser;
+import io.spine.validate.ValidationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Rejection generated along with the validation code should")
+class ValidatedRejectionTest {
+
+    @Test
+    @DisplayName("be created if its message is valid")
+    void valid() {
+        var username = Identifier.newUuid();
+        var rejection = CannotRenameUser.newBuilder()
+                .setUsername(username)
+                .setNewName(Identifier.newUuid())
+                .build();
+        assertThat(rejection.messageThrown().getUsername())
+                .isEqualTo(username);
+    }
+
+    @Test
+    @DisplayName("throw `ValidationException` if its message is not valid")
+    @SuppressWarnings("ThrowableNotThrown") // Calling `build()` throws itself.
+    void invalid() {
+        var builder = CannotRenameUser.newBuilder()
+                .setUsername(Identifier.newUuid());
+        var exception = assertThrows(ValidationException.class, builder::build);
+        assertThat(exception.getConstraintViolations())
+                .hasSize(1);
+    }
+}
@@ -26,6 +26,7 @@
 
 modelCompiler {
     java {
+        stacklessRejectionFiles = listOf("stackless/stackless_rejections.proto")
         codegen {
             validation {
                 skipValidation()
@@ -28,6 +28,7 @@ package io.spine.tools.mc.java.rejection.gradle;
 
 import io.spine.base.Identifier;
 import io.spine.tools.rejections.CannotUpdateUsername;
+import io.spine.tools.rejections.stackless.CannotDeleteUsername;
 import io.spine.validate.ValidationException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -57,4 +58,33 @@ class RejectionPluginTest {
     void validate() {
         assertThrows(ValidationException.class, () -> CannotUpdateUsername.newBuilder().build());
     }
+
+    @Test
+    @DisplayName("create a rejection without constraints without validating it")
+    void notValidateUnconstrained() {
+        var rejection = CannotDeleteUsername.newBuilder()
+                .build();
+        assertThat(rejection.messageThrown().getUsername())
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("capture the stack trace of a rejection by default")
+    void captureStackTrace() {
+        var rejection = CannotUpdateUsername.newBuilder()
+                .setUsername(Identifier.newUuid())
+                .build();
+        assertThat(rejection.getStackTrace())
+                .isNotEmpty();
+    }
+
+    @Test
+    @DisplayName("not capture the stack trace of a rejection declared in a stackless file")
+    void notCaptureStackTrace() {
+        var rejection = CannotDeleteUsername.newBuilder()
+                .setUsername(Identifier.newUuid())
+                .build();
+        assertThat(rejection.getStackTrace())
+                .isEmpty();
+    }
 }
@@ -31,6 +31,7 @@ include(
     "known-types",
     "model-compiler",
     "rejection",
+    "rejection-validation",
     "validating-options",
     "validation",
     "validation-gen",